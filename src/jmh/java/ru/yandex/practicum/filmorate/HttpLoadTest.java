@@ -0,0 +1,229 @@
+package ru.yandex.practicum.filmorate;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест HTTP API при заданном числе одновременных соединений. Запускает приложение с журналом
+ * на диске на Tomcat с платформенными или виртуальными потоками либо на WebFlux и открывает {@code connections} соединений
+ * keep-alive, каждое из которых в замкнутом цикле отправляет запросы {@code GET /films/{id}}
+ * и с заданной долей - {@code POST /films}, ответ на который ждёт сброса журнала на диск.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=ru.yandex.practicum.filmorate.HttpLoadTest
+ * -Djmh.args="virtual 10000 30 0.1"}, где аргументы - режим ({@code virtual} или {@code platform}),
+ * число соединений, длительность замера в секундах и доля запросов на запись.
+ * Перед замером идёт прогрев той же длительности. Кроме задержек печатается прирост занятой кучи после сборки
+ * мусора и числа потоков приложения на одно открытое соединение. Клиенты работают в том же процессе,
+ * поэтому их виртуальные потоки входят в прирост кучи одинаково во всех режимах.
+ */
+public final class HttpLoadTest {
+    private static final int FILMS = 10_000;
+    private static final byte[] FILM_JSON = ("{\"name\":\"Фильм\",\"description\":\"Описание фильма\","
+            + "\"releaseDate\":\"2000-10-10\",\"duration\":120}").getBytes(StandardCharsets.UTF_8);
+
+    private final int port;
+    private final double writeRatio;
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    private HttpLoadTest(int port, double writeRatio) {
+        this.port = port;
+        this.writeRatio = writeRatio;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length < 1 ? "virtual" : args[0];
+        int connections = args.length < 2 ? 10_000 : Integer.parseInt(args[1]);
+        int seconds = args.length < 3 ? 30 : Integer.parseInt(args[2]);
+        double writeRatio = args.length < 4 ? 0.1 : Double.parseDouble(args[3]);
+        Path directory = Files.createTempDirectory("filmorate-load");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run("--server.port=0",
+                        "--spring.main.web-application-type=" + (mode.equals("reactive") ? "reactive" : "servlet"),
+                        "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "--filmorate.persistence.enabled=true",
+                        "--filmorate.persistence.directory=" + directory,
+                        "--logging.level.root=WARN")) {
+            FilmStorage filmStorage = context.getBean(FilmStorage.class);
+            List<Film> films = new ArrayList<>(FILMS);
+            for (int i = 0; i < FILMS; i++) {
+                films.add(new Film("Фильм " + i, "Описание фильма", LocalDate.of(2000, 10, 10), 120));
+            }
+            filmStorage.createAll(films);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            new HttpLoadTest(port, writeRatio).run(mode, connections, seconds);
+        }
+    }
+
+    private void run(String mode, int connections, int seconds) throws Exception {
+        List<Future<long[]>> clients = new ArrayList<>(connections);
+        long heapBefore = usedHeapAfterGc();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                clients.add(executor.submit(this::client));
+            }
+            Thread.sleep(seconds * 1000L);
+            double heapPerConnection = (double) (usedHeapAfterGc() - heapBefore) / connections;
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+            measuring = true;
+            long start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            measuring = false;
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            running = false;
+
+            long[][] latencies = new long[connections][];
+            int total = 0;
+            for (int i = 0; i < connections; i++) {
+                latencies[i] = clients.get(i).get();
+                total += latencies[i].length;
+            }
+            long[] merged = new long[total];
+            int offset = 0;
+            for (long[] clientLatencies : latencies) {
+                System.arraycopy(clientLatencies, 0, merged, offset, clientLatencies.length);
+                offset += clientLatencies.length;
+            }
+            Arrays.sort(merged);
+            System.out.printf("mode=%s connections=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms "
+                            + "p99.9=%.2f ms max=%.2f ms errors=%d heap=%.1f KiB/connection threads=+%d%n",
+                    mode, connections, total / elapsed, percentile(merged, 0.5), percentile(merged, 0.99),
+                    percentile(merged, 0.999), percentile(merged, 1.0), errors.get(), heapPerConnection / 1024,
+                    threads);
+        }
+    }
+
+    /**
+     * Одно соединение: отправляет запросы, пока идёт тест, и возвращает задержки запросов,
+     * завершившихся во время замера, в микросекундах.
+     */
+    private long[] client() {
+        long[] latencies = new long[1024];
+        int count = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("localhost", port));
+                OutputStream output = socket.getOutputStream();
+                InputStream input = new BufferedInputStream(socket.getInputStream());
+                boolean keepAlive = true;
+                while (running && keepAlive) {
+                    long start = System.nanoTime();
+                    output.write(random.nextDouble() < writeRatio ? post()
+                            : get(random.nextInt(1, FILMS + 1)));
+                    output.flush();
+                    keepAlive = readResponse(input);
+                    if (measuring) {
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = (System.nanoTime() - start) / 1000;
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    errors.incrementAndGet();
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static byte[] get(int id) {
+        return ("GET /films/" + id + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] post() {
+        byte[] headers = ("POST /films HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                + "Content-Length: " + FILM_JSON.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] request = Arrays.copyOf(headers, headers.length + FILM_JSON.length);
+        System.arraycopy(FILM_JSON, 0, request, headers.length, FILM_JSON.length);
+        return request;
+    }
+
+    /**
+     * Читает ответ и возвращает false, если сервер закрывает соединение. Ответ с кодом не 2xx считается ошибкой.
+     */
+    private boolean readResponse(InputStream input) throws IOException {
+        String statusLine = readLine(input);
+        if (!statusLine.startsWith("HTTP/1.1 2")) {
+            errors.incrementAndGet();
+        }
+        int contentLength = 0;
+        boolean chunked = false;
+        boolean keepAlive = true;
+        for (String line = readLine(input); !line.isEmpty(); line = readLine(input)) {
+            String lower = line.toLowerCase();
+            if (lower.startsWith("content-length:")) {
+                contentLength = Integer.parseInt(lower.substring(15).trim());
+            } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                chunked = true;
+            } else if (lower.startsWith("connection:") && lower.contains("close")) {
+                keepAlive = false;
+            }
+        }
+        if (!chunked) {
+            input.skipNBytes(contentLength);
+            return keepAlive;
+        }
+        int size = Integer.parseInt(readLine(input), 16);
+        while (size > 0) {
+            input.skipNBytes(size + 2);
+            size = Integer.parseInt(readLine(input), 16);
+        }
+        readLine(input);
+        return keepAlive;
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int c = input.read(); c != '\n'; c = input.read()) {
+            if (c == -1) {
+                throw new IOException("Соединение закрыто сервером.");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
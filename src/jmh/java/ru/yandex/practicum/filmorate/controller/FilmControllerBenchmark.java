@@ -0,0 +1,113 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryLikeStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeIndex;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.validation.FastEntityValidator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер обработчиков {@link FilmController} на хранилище из {@code size} фильмов.
+ * Замер {@link #create()} добавляет фильмы, так что к концу замера хранилище немного больше {@code size}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FilmControllerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private InMemoryFilmStorage filmStorage;
+    private FilmController filmController;
+    private ObjectMapper objectMapper;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        objectMapper = JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        filmController = new FilmController(filmStorage,
+                new FilmService(filmStorage, new InMemoryUserStorage(), new InMemoryLikeStorage(),
+                        new FilmSearchIndex(), new FilmRangeIndex()), objectMapper, new FastEntityValidator(),
+                new JsonResponseCache(objectMapper));
+        for (int created = 0; created < size; created += 10_000) {
+            List<Film> films = new ArrayList<>();
+            for (int i = created; i < Math.min(size, created + 10_000); i++) {
+                films.add(newFilm("Фильм " + i));
+            }
+            filmStorage.createAll(films);
+        }
+        etag = filmController.findAll(null, null, null, null, null, null, null).getHeaders().getETag();
+    }
+
+    @Benchmark
+    public Film create() {
+        return filmController.create(newFilm("Новый фильм"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Film> update() {
+        Film film = newFilm("Обновлённый фильм");
+        film.setId(ThreadLocalRandom.current().nextInt(1, size + 1));
+        return filmController.update(film, null);
+    }
+
+    @Benchmark
+    public void findAll(Blackhole blackhole) {
+        for (Film film : filmStorage.findAll()) {
+            blackhole.consume(film);
+        }
+    }
+
+    /**
+     * Сериализация всего списка фильмов при каждом запросе, как было до кеширования ответа.
+     */
+    @Benchmark
+    public byte[] findAllSerialized() throws IOException {
+        return objectMapper.writeValueAsBytes(filmStorage.findAll());
+    }
+
+    @Benchmark
+    public ResponseEntity<?> findAllCached() {
+        return filmController.findAll(null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> findAllNotModified() {
+        return filmController.findAll(null, null, null, null, null, null, etag);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> findById() {
+        return filmController.findById(ThreadLocalRandom.current().nextInt(1, size + 1), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> findPage() {
+        return filmController.findAll(100, ThreadLocalRandom.current().nextInt(size), null, null, null, null, null);
+    }
+
+    private static Film newFilm(String name) {
+        return new Film(name, "Описание фильма", LocalDate.of(2000, 10, 10), 120);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение выгрузки каталога из {@code size} фильмов в формате {@link FilmColumns} и в JSON по времени
+ * записи и чтения. Размеры обеих выгрузок печатаются при подготовке замера. Названия уникальны,
+ * а описания выбираются из {@code descriptions} вариантов, как в каталоге с типовыми аннотациями.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FilmExportBenchmark {
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"1000"})
+    private int descriptions;
+
+    private ObjectMapper objectMapper;
+    private List<Film> films;
+    private byte[] columns;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        Random random = new Random(42);
+        films = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Film film = new Film("Фильм " + i, "Описание фильма номер " + random.nextInt(descriptions),
+                    LocalDate.of(1900 + random.nextInt(125), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    60 + random.nextInt(120));
+            film.setId(i);
+            films.add(film);
+        }
+        columns = FilmColumns.encode(films);
+        json = objectMapper.writeValueAsBytes(films);
+        System.out.printf("%nsize=%d columns=%d bytes json=%d bytes ratio=%.1f%n",
+                size, columns.length, json.length, (double) json.length / columns.length);
+    }
+
+    @Benchmark
+    public byte[] encodeColumns() {
+        return FilmColumns.encode(films);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public List<Film> decodeColumns() {
+        return FilmColumns.decode(columns);
+    }
+
+    @Benchmark
+    public Film[] decodeJson() throws IOException {
+        return objectMapper.readValue(json, Film[].class);
+    }
+}
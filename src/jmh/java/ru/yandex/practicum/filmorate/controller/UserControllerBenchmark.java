@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.RecommendationService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFriendStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryLikeStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.validation.FastEntityValidator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замер обработчиков {@link UserController} и проверки уникальности Email
+ * на хранилище из {@code size} пользователей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserControllerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private final AtomicLong emailCounter = new AtomicLong();
+    private InMemoryUserStorage userStorage;
+    private UserController userController;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userStorage = new InMemoryUserStorage();
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        userController = new UserController(userStorage, new UserService(userStorage, new InMemoryFriendStorage()),
+                new RecommendationService(new InMemoryFilmStorage(), userStorage, new InMemoryLikeStorage()),
+                objectMapper, new FastEntityValidator(), new JsonResponseCache(objectMapper));
+        for (int created = 0; created < size; created += 10_000) {
+            List<User> users = new ArrayList<>();
+            for (int i = created; i < Math.min(size, created + 10_000); i++) {
+                users.add(newUser("user" + i + "@ex.ru"));
+            }
+            userStorage.createAll(users);
+        }
+    }
+
+    @Benchmark
+    public User create() {
+        return userController.create(newUser("new" + emailCounter.incrementAndGet() + "@ex.ru"));
+    }
+
+    /**
+     * Отказ в добавлении пользователя с занятым Email, включая создание исключения.
+     */
+    @Benchmark
+    public Object createWithUsedEmail() {
+        try {
+            return userController.create(newUser(randomEmail()));
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<User> update() {
+        int id = ThreadLocalRandom.current().nextInt(1, size + 1);
+        User user = newUser("user" + (id - 1) + "@ex.ru");
+        user.setId(id);
+        return userController.update(user, null);
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return userStorage.findByEmail(randomEmail().toUpperCase());
+    }
+
+    private String randomEmail() {
+        return "user" + ThreadLocalRandom.current().nextInt(size) + "@ex.ru";
+    }
+
+    private static User newUser(String email) {
+        return new User(email, "login", LocalDate.of(2000, 10, 10));
+    }
+}
@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер преобразования {@link Film} и {@link User} в JSON и обратно: по одному объекту
+ * и списком из {@code size} объектов, как в ответе на запрос всего списка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ObjectWriter filmWriter;
+    private ObjectReader filmReader;
+    private ObjectWriter userWriter;
+    private ObjectReader userReader;
+    private ObjectWriter listWriter;
+    private Film film;
+    private User user;
+    private byte[] filmJson;
+    private byte[] userJson;
+    private List<Film> films;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        filmWriter = objectMapper.writerFor(Film.class);
+        filmReader = objectMapper.readerFor(Film.class);
+        userWriter = objectMapper.writerFor(User.class);
+        userReader = objectMapper.readerFor(User.class);
+        listWriter = objectMapper.writer();
+        film = new Film("Фильм", "Описание фильма", LocalDate.of(2000, 10, 10), 120);
+        film.setId(1);
+        user = new User("user@ex.ru", "login", LocalDate.of(2000, 10, 10));
+        user.setId(1);
+        user.setName("Имя");
+        filmJson = filmWriter.writeValueAsBytes(film);
+        userJson = userWriter.writeValueAsBytes(user);
+        films = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Film listFilm = new Film("Фильм " + i, "Описание фильма", LocalDate.of(2000, 10, 10), 120);
+            listFilm.setId(i);
+            films.add(listFilm);
+            User listUser = new User("user" + i + "@ex.ru", "login" + i, LocalDate.of(2000, 10, 10));
+            listUser.setId(i);
+            listUser.setName("Имя");
+            users.add(listUser);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeFilm() throws IOException {
+        return filmWriter.writeValueAsBytes(film);
+    }
+
+    @Benchmark
+    public Film readFilm() throws IOException {
+        return filmReader.readValue(filmJson);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User readUser() throws IOException {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public void writeFilmList() throws IOException {
+        listWriter.writeValue(OutputStream.nullOutputStream(), films);
+    }
+
+    @Benchmark
+    public void writeUserList() throws IOException {
+        listWriter.writeValue(OutputStream.nullOutputStream(), users);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер поиска общих друзей двух пользователей, у каждого из которых {@code degree} друзей
+ * из миллиона пользователей, и изменения дружбы пользователя с таким количеством друзей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FriendStorageBenchmark {
+    private static final int USERS = 1_000_000;
+
+    @Param({"100", "1000", "10000"})
+    private int degree;
+
+    private InMemoryFriendStorage friendStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        friendStorage = new InMemoryFriendStorage();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int userId = 1; userId <= 2; userId++) {
+            while (friendStorage.findFriendIds(userId).length < degree) {
+                friendStorage.addFriend(userId, random.nextInt(3, USERS + 1));
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] findCommonFriends() {
+        return friendStorage.findCommonFriendIds(1, 2);
+    }
+
+    /**
+     * Добавление и удаление одного друга, чтобы количество друзей не росло за время замера.
+     */
+    @Benchmark
+    public boolean addAndRemoveFriend() {
+        int friendId = ThreadLocalRandom.current().nextInt(3, USERS + 1);
+        return friendStorage.addFriend(1, friendId) && friendStorage.removeFriend(1, friendId);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер выдачи Id одним потоком и всеми доступными потоками сразу.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdGeneratorBenchmark {
+    private IdGenerator idGenerator;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        idGenerator = new AtomicIdGenerator();
+    }
+
+    @Benchmark
+    public int nextId() {
+        return idGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int nextIdContended() {
+        return idGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int reserveContended() {
+        return idGenerator.reserve(100);
+    }
+}
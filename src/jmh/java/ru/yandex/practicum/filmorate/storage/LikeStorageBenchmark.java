@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер лайков и чтения самых популярных фильмов при {@code films} фильмах и {@code users} пользователях.
+ * Каждая операция записи ставит лайк случайной паре фильм-пользователь или снимает его, если он уже был,
+ * поэтому количество лайков держится около половины от всех пар. Популярность фильмов неравномерная:
+ * Id фильма выбирается как квадрат случайного числа, так что фильмы с меньшим Id получают больше лайков.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LikeStorageBenchmark {
+    @Param({"1000", "100000"})
+    private int films;
+
+    @Param({"10000"})
+    private int users;
+
+    private InMemoryLikeStorage likeStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        likeStorage = new InMemoryLikeStorage();
+        for (int i = 0; i < films * 10; i++) {
+            toggleLike();
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean toggleLikeContended() {
+        return toggleLike();
+    }
+
+    @Benchmark
+    public int[] findTop10() {
+        return likeStorage.findMostLiked(10);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public boolean mixedToggleLike() {
+        return toggleLike();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int[] mixedFindTop10() {
+        return likeStorage.findMostLiked(10);
+    }
+
+    private boolean toggleLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double skewed = random.nextDouble();
+        int filmId = 1 + (int) (skewed * skewed * films);
+        int userId = random.nextInt(1, users + 1);
+        return likeStorage.addLike(filmId, userId) || likeStorage.removeLike(filmId, userId);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер поиска 10 самых похожих пользователей среди {@code users} пользователей,
+ * каждый из которых поставил {@code likesPerUser} лайков случайным фильмам из 100 000.
+ * Для миллиона пользователей нужна куча не меньше 2 ГБ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecommendationBenchmark {
+    private static final int FILMS = 100_000;
+
+    @Param({"100000", "1000000"})
+    private int users;
+
+    @Param({"20"})
+    private int likesPerUser;
+
+    private InMemoryLikeStorage likeStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        likeStorage = new InMemoryLikeStorage();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < likesPerUser; i++) {
+                likeStorage.addLike(random.nextInt(1, FILMS + 1), userId);
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] findSimilarUsers() {
+        return likeStorage.findSimilarUsers(ThreadLocalRandom.current().nextInt(1, users + 1), 10);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер задержки поиска по индексу из {@code films} фильмов. Название фильма - два слова, описание - восемь,
+ * слова выбираются из словаря в {@code VOCABULARY} слов с неравномерной частотой: слово с номером k
+ * встречается примерно в k раз реже самого частого. Запрос редкого слова находит единицы фильмов,
+ * частого - десятки тысяч, короткое начало слова раскрывается в десятки слов словаря.
+ * Индекс на 10 миллионов фильмов требует около 4 ГБ памяти.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FilmSearchBenchmark {
+    private static final int VOCABULARY = 100_000;
+    private static final String[] SYLLABLES = {"ка", "ро", "ми", "ле", "ту", "на", "со", "вё", "жи", "фу",
+            "ша", "до", "пе", "зы", "лю", "ги"};
+
+    @Param({"100000", "1000000", "10000000"})
+    private int films;
+
+    private FilmSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        searchIndex = new FilmSearchIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int id = 1; id <= films; id++) {
+            searchIndex.put(newFilm(id, random));
+        }
+    }
+
+    @Benchmark
+    public int[] searchRareWord() {
+        return searchIndex.search(word(VOCABULARY / 2 + ThreadLocalRandom.current().nextInt(1_000)), 10);
+    }
+
+    @Benchmark
+    public int[] searchCommonWord() {
+        return searchIndex.search(word(ThreadLocalRandom.current().nextInt(10)), 10);
+    }
+
+    @Benchmark
+    public int[] searchTwoWords() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return searchIndex.search(word(random.nextInt(10)) + " " + word(random.nextInt(100, 1_000)), 10);
+    }
+
+    @Benchmark
+    public int[] searchPrefix() {
+        String word = word(ThreadLocalRandom.current().nextInt(1_000, 10_000));
+        return searchIndex.search(word.substring(0, word.length() - 2), 10);
+    }
+
+    @Benchmark
+    public void updateFilm() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        searchIndex.put(newFilm(random.nextInt(1, films + 1), new SplittableRandom(random.nextLong())));
+    }
+
+    private static Film newFilm(int id, SplittableRandom random) {
+        Film film = new Film(word(skewed(random)) + " " + word(skewed(random)), description(random),
+                LocalDate.of(2000, 1, 1), 120);
+        film.setId(id);
+        return film;
+    }
+
+    private static String description(SplittableRandom random) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            description.append(word(skewed(random))).append(i == 7 ? "." : " ");
+        }
+        return description.toString();
+    }
+
+    /**
+     * Номер слова с частотой, обратно пропорциональной номеру.
+     */
+    private static int skewed(SplittableRandom random) {
+        return (int) Math.pow(VOCABULARY, random.nextDouble()) - 1;
+    }
+
+    private static String word(int number) {
+        StringBuilder word = new StringBuilder();
+        int rest = number;
+        do {
+            word.append(SYLLABLES[rest % SYLLABLES.length]);
+            rest /= SYLLABLES.length;
+        } while (rest > 0);
+        return word.append(SYLLABLES[number % 7]).toString();
+    }
+}
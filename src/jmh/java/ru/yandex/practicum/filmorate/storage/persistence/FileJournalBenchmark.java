@@ -0,0 +1,115 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер записи в журнал и восстановления хранилища фильмов. Запись идёт из 64 потоков, каждое добавление
+ * ждёт сброса журнала на диск. Восстановление сравнивает чтение журнала из {@code records} записей,
+ * время до первого ответа при ленивой загрузке снимка и полную загрузку снимка.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FileJournalBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class WriteState {
+        @Param({"true", "false"})
+        private boolean fsync;
+
+        private FileJournal<Film> journal;
+        private InMemoryFilmStorage filmStorage;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            journal = new FileJournal<>(Files.createTempDirectory("filmorate-journal"), "films", new FilmCodec(),
+                    fsync);
+            filmStorage = new InMemoryFilmStorage(journal);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            journal.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+        @Param({"1000000"})
+        private int records;
+
+        private Path journalDirectory;
+        private Path snapshotDirectory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            journalDirectory = Files.createTempDirectory("filmorate-journal");
+            snapshotDirectory = Files.createTempDirectory("filmorate-snapshot");
+            List<Film> films = new ArrayList<>(records);
+            for (int i = 0; i < records; i++) {
+                films.add(new Film("Фильм " + i, "Описание фильма", LocalDate.of(2000, 10, 10), 120));
+            }
+            try (FileJournal<Film> journal = newJournal(journalDirectory)) {
+                new InMemoryFilmStorage(journal).createAll(films);
+            }
+            try (FileJournal<Film> journal = newJournal(snapshotDirectory)) {
+                InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+                filmStorage.createAll(films);
+                journal.snapshot(filmStorage.findAll());
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(64)
+    public Film create(WriteState state) {
+        return state.filmStorage.create(new Film("Фильм", "Описание фильма", LocalDate.of(2000, 10, 10), 120));
+    }
+
+    @Benchmark
+    public int recoverFromJournal(RecoveryState state) throws IOException {
+        try (FileJournal<Film> journal = newJournal(state.journalDirectory)) {
+            return new InMemoryFilmStorage(journal).findAll().size();
+        }
+    }
+
+    /**
+     * Время от открытия хранилища до ответа на первый запрос фильма по Id, когда снимок загружается лениво.
+     */
+    @Benchmark
+    public Film firstRequestFromSnapshot(RecoveryState state) throws IOException {
+        try (FileJournal<Film> journal = newJournal(state.snapshotDirectory)) {
+            return new InMemoryFilmStorage(journal).findById(state.records / 2).orElseThrow();
+        }
+    }
+
+    /**
+     * Время от открытия хранилища до переноса в память всех фильмов снимка.
+     */
+    @Benchmark
+    public int fullSnapshotLoad(RecoveryState state) throws IOException {
+        try (FileJournal<Film> journal = newJournal(state.snapshotDirectory)) {
+            return new InMemoryFilmStorage(journal).findAll().size();
+        }
+    }
+
+    private static FileJournal<Film> newJournal(Path directory) {
+        return new FileJournal<>(directory, "films", new FilmCodec(), false);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение {@link FastEntityValidator} и {@link BeanEntityValidator} на корректных и некорректных данных.
+ * Выделение памяти на запрос показывает запуск с профилировщиком: {@code -Djmh.args="EntityValidator -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EntityValidatorBenchmark {
+    @Param({"fast", "bean"})
+    private String mode;
+
+    private EntityValidator entityValidator;
+    private Film film;
+    private Film invalidFilm;
+    private User user;
+    private User invalidUser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entityValidator = mode.equals("fast") ? new FastEntityValidator()
+                : new BeanEntityValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        film = new Film("Фильм", "Описание фильма", LocalDate.of(2000, 10, 10), 120);
+        invalidFilm = new Film("Фильм", "Описание фильма", LocalDate.of(1800, 10, 10), 120);
+        user = new User("user@ex.ru", "login", LocalDate.of(2000, 10, 10));
+        invalidUser = new User("user@ex", "login", LocalDate.of(2000, 10, 10));
+    }
+
+    @Benchmark
+    public String validFilm() {
+        return entityValidator.validate(film);
+    }
+
+    @Benchmark
+    public String invalidFilm() {
+        return entityValidator.validate(invalidFilm);
+    }
+
+    @Benchmark
+    public String validUser() {
+        return entityValidator.validate(user);
+    }
+
+    @Benchmark
+    public String invalidUser() {
+        return entityValidator.validate(invalidUser);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+/**
+ * Периодически сохраняет снимки хранилищ, чтобы журналы не росли бесконечно
+ * и восстановление при запуске не требовало чтения всей истории изменений.
+ * Хранилище без изменений с прошлого снимка не сохраняется, а сохранение не загружает снимок в память.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("${filmorate.persistence.enabled:false} and !${filmorate.partition.enabled:false}")
+public class JournalSnapshotTask {
+    private final InMemoryFilmStorage filmStorage;
+    private final InMemoryUserStorage userStorage;
+
+    @Scheduled(initialDelayString = "${filmorate.persistence.snapshot-interval:PT10M}",
+            fixedDelayString = "${filmorate.persistence.snapshot-interval:PT10M}")
+    public void snapshot() {
+        log.info("Сохранение снимков хранилищ.");
+        filmStorage.snapshot();
+        userStorage.snapshot();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+/**
+ * Метрики хранилищ. Время обработки запросов по каждому обработчику Spring MVC
+ * записывает сам в метрику {@code http.server.requests}, её перцентили настраиваются в application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public MeterBinder storageSizeMetrics(FilmStorage filmStorage, UserStorage userStorage) {
+        return registry -> {
+            Gauge.builder("filmorate.storage.size", filmStorage, FilmStorage::size)
+                    .tag("storage", "films")
+                    .description("Количество фильмов в хранилище")
+                    .register(registry);
+            Gauge.builder("filmorate.storage.size", userStorage, UserStorage::size)
+                    .tag("storage", "users")
+                    .description("Количество пользователей в хранилище")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.controller.ShardSecretFilter;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.partition.FilmShard;
+import ru.yandex.practicum.filmorate.storage.partition.LocalFilmShard;
+import ru.yandex.practicum.filmorate.storage.partition.LocalUserShard;
+import ru.yandex.practicum.filmorate.storage.partition.PartitionedFilmStorage;
+import ru.yandex.practicum.filmorate.storage.partition.PartitionedUserStorage;
+import ru.yandex.practicum.filmorate.storage.partition.RemoteFilmShard;
+import ru.yandex.practicum.filmorate.storage.partition.RemoteUserShard;
+import ru.yandex.practicum.filmorate.storage.partition.UserShard;
+import ru.yandex.practicum.filmorate.storage.persistence.FileJournal;
+import ru.yandex.practicum.filmorate.storage.persistence.FilmCodec;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+import ru.yandex.practicum.filmorate.storage.persistence.UserCodec;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Хранилища фильмов и пользователей, распределённые по шардам. Если заданы узлы данных, шардами служат они,
+ * иначе в этом процессе создаётся {@code shards} шардов, каждый со своими индексами и, при включённом
+ * сохранении на диск, своими журналом и снимками {@code films-N} и {@code users-N}.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(PartitionProperties.class)
+@ConditionalOnProperty(prefix = "filmorate.partition", name = "enabled", havingValue = "true")
+public class PartitionConfig {
+    @Bean(destroyMethod = "close")
+    public PartitionedFilmStorage partitionedFilmStorage(PartitionProperties properties,
+                                                         PersistenceProperties persistence,
+                                                         ObjectProvider<RestClient.Builder> restClientBuilder) {
+        List<FilmShard> shards = new ArrayList<>();
+        if (!properties.getNodes().isEmpty()) {
+            for (URI node : properties.getNodes()) {
+                shards.add(new RemoteFilmShard(shardClient(restClientBuilder, node, properties.getShardSecret())));
+            }
+        } else {
+            for (int i = 0; i < properties.getShards(); i++) {
+                shards.add(new LocalFilmShard(persistence.isEnabled()
+                        ? new FileJournal<>(persistence.getDirectory(), "films-" + i, new FilmCodec(),
+                        persistence.isFsync())
+                        : Journal.<Film>none()));
+            }
+        }
+        return new PartitionedFilmStorage(shards, properties.getVirtualNodes(), !properties.getNodes().isEmpty());
+    }
+
+    @Bean(destroyMethod = "close")
+    public PartitionedUserStorage partitionedUserStorage(PartitionProperties properties,
+                                                         PersistenceProperties persistence,
+                                                         ObjectProvider<RestClient.Builder> restClientBuilder) {
+        List<UserShard> shards = new ArrayList<>();
+        if (!properties.getNodes().isEmpty()) {
+            for (URI node : properties.getNodes()) {
+                shards.add(new RemoteUserShard(shardClient(restClientBuilder, node, properties.getShardSecret())));
+            }
+        } else {
+            for (int i = 0; i < properties.getShards(); i++) {
+                shards.add(new LocalUserShard(persistence.isEnabled()
+                        ? new FileJournal<>(persistence.getDirectory(), "users-" + i, new UserCodec(),
+                        persistence.isFsync())
+                        : Journal.<User>none()));
+            }
+        }
+        return new PartitionedUserStorage(shards, properties.getVirtualNodes(), !properties.getNodes().isEmpty());
+    }
+
+    /**
+     * Клиент API шарда узла. Builder из Spring Boot уже настроен на ObjectMapper приложения,
+     * а без него, например в реактивном режиме, используется builder с настройками по умолчанию.
+     * Каждый запрос несёт общий секрет узлов.
+     */
+    private static RestClient shardClient(ObjectProvider<RestClient.Builder> restClientBuilder, URI node,
+                                          String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("Для узлов данных нужен секрет filmorate.partition.shard-secret.");
+        }
+        log.info("Шард на узле {}.", node);
+        return restClientBuilder.getIfAvailable(RestClient::builder)
+                .baseUrl(node.resolve("/internal/shard").toString())
+                .defaultHeader(ShardSecretFilter.SECRET_HEADER, secret)
+                .build();
+    }
+}
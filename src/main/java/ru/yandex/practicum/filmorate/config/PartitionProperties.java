@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "filmorate.partition")
+public class PartitionProperties {
+    /**
+     * Распределять ли фильмы и пользователей по шардам. Узел с включённым распределением - маршрутизатор:
+     * он принимает запросы API и сам выдаёт Id, поэтому маршрутизатор должен быть один.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Число шардов в этом процессе. Не используется, если заданы {@link #nodes}.
+     */
+    private int shards = 4;
+
+    /**
+     * Адреса узлов данных, по одному шарду на узел, например {@code http://localhost:8081}.
+     * Порядок узлов определяет номера шардов на кольце и не должен меняться между запусками.
+     */
+    private List<URI> nodes = new ArrayList<>();
+
+    /**
+     * Число точек каждого шарда на кольце согласованного хеширования: чем больше, тем равномернее
+     * распределение Id по шардам.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Отдавать ли хранилища этого узла по API шарда {@code /internal/shard} - так запускаются узлы данных.
+     * Узел данных принимает изменения только от маршрутизатора, который выдаёт Id, поэтому API шарда
+     * требует {@link #shardSecret}, а порт узла данных не должен быть доступен клиентам.
+     */
+    private boolean shardApi = false;
+
+    /**
+     * Общий секрет маршрутизатора и узлов данных. Маршрутизатор передаёт его в заголовке
+     * {@code X-Shard-Secret}, узел данных отвечает 403 на запросы к API шарда без него и не запускается
+     * с пустым секретом. Нужен и узлам данных, и маршрутизатору с {@link #nodes}.
+     */
+    private String shardSecret = "";
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.yandex.practicum.filmorate.storage.partition.PartitionedFilmStorage;
+import ru.yandex.practicum.filmorate.storage.partition.PartitionedUserStorage;
+
+/**
+ * Периодически сохраняет снимки шардов в этом процессе, как {@link JournalSnapshotTask} для хранилищ
+ * без распределения. Узлы данных сохраняют свои снимки сами.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnExpression("${filmorate.persistence.enabled:false} and ${filmorate.partition.enabled:false}")
+public class PartitionSnapshotTask {
+    private final PartitionedFilmStorage filmStorage;
+    private final PartitionedUserStorage userStorage;
+
+    @Scheduled(initialDelayString = "${filmorate.persistence.snapshot-interval:PT10M}",
+            fixedDelayString = "${filmorate.persistence.snapshot-interval:PT10M}")
+    public void snapshot() {
+        log.info("Сохранение снимков шардов.");
+        filmStorage.snapshot();
+        userStorage.snapshot();
+    }
+}
@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.persistence.FileJournal;
+import ru.yandex.practicum.filmorate.storage.persistence.FilmCodec;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+import ru.yandex.practicum.filmorate.storage.persistence.UserCodec;
+
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class PersistenceConfig {
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnExpression("${filmorate.persistence.enabled:false} and !${filmorate.partition.enabled:false}")
+    static class FileJournalConfig {
+        @Bean(destroyMethod = "close")
+        public FileJournal<Film> filmJournal(PersistenceProperties properties) {
+            return new FileJournal<>(properties.getDirectory(), "films", new FilmCodec(), properties.isFsync());
+        }
+
+        @Bean(destroyMethod = "close")
+        public FileJournal<User> userJournal(PersistenceProperties properties) {
+            return new FileJournal<>(properties.getDirectory(), "users", new UserCodec(), properties.isFsync());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "filmorate.persistence", name = "enabled", havingValue = "false",
+            matchIfMissing = true)
+    static class NoJournalConfig {
+        @Bean
+        public Journal<Film> filmJournal() {
+            return Journal.none();
+        }
+
+        @Bean
+        public Journal<User> userJournal() {
+            return Journal.none();
+        }
+    }
+}
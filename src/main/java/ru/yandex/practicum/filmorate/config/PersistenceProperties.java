@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "filmorate.persistence")
+public class PersistenceProperties {
+    /**
+     * Сохранять ли данные хранилищ на диск.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Каталог для файлов журналов и снимков.
+     */
+    private Path directory = Path.of("data");
+
+    /**
+     * Подтверждать запись только после fsync. Без него данные переживут падение процесса,
+     * но не отключение питания.
+     */
+    private boolean fsync = true;
+
+    /**
+     * Пауза между сохранениями снимков.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+}
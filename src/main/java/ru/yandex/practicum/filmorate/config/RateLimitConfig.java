@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.ratelimit.ReactiveWriteRateLimitFilter;
+import ru.yandex.practicum.filmorate.ratelimit.WriteAdmission;
+import ru.yandex.practicum.filmorate.ratelimit.WriteRateLimitFilter;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "filmorate.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+    @Bean
+    public WriteAdmission writeAdmission(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new WriteAdmission(properties.getWritesPerSecond(), properties.getBurst(),
+                properties.getMaxConcurrentWrites(), properties.getMaxClients(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public WriteRateLimitFilter writeRateLimitFilter(WriteAdmission writeAdmission, RateLimitProperties properties,
+                                                     ObjectMapper objectMapper) {
+        return new WriteRateLimitFilter(writeAdmission, properties.getClientHeader(), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveWriteRateLimitFilter reactiveWriteRateLimitFilter(WriteAdmission writeAdmission,
+                                                                     RateLimitProperties properties,
+                                                                     ObjectMapper objectMapper) {
+        return new ReactiveWriteRateLimitFilter(writeAdmission, properties.getClientHeader(), objectMapper);
+    }
+}
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "filmorate.rate-limit")
+public class RateLimitProperties {
+    /**
+     * Ограничивать ли запросы на запись.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Средняя скорость записи одного клиента в запросах в секунду.
+     */
+    private double writesPerSecond = 20;
+
+    /**
+     * Сколько запросов на запись клиент может отправить подряд без ожидания. Столько же стоит
+     * самый дорогой пакетный запрос.
+     */
+    private int burst = 50;
+
+    /**
+     * Наибольшее число одновременно выполняющихся запросов на запись всех клиентов.
+     * Запросы сверх него отклоняются сразу, а не ждут в очереди.
+     */
+    private int maxConcurrentWrites = 256;
+
+    /**
+     * Сколько корзин клиентов хранить, прежде чем удалять полные.
+     */
+    private int maxClients = 100_000;
+
+    /**
+     * Заголовок с идентификатором клиента, например ключом API, выставляемым прокси. Пустое значение -
+     * клиент определяется адресом соединения. Заголовку можно доверять, только если его выставляет прокси.
+     */
+    private String clientHeader = "";
+}
@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Сервер для {@code spring.main.web-application-type=reactive}. Без этой настройки Spring Boot запускает
+ * WebFlux на Tomcat, который есть в зависимостях ради Spring MVC, и запросы по-прежнему обслуживает его пул
+ * из 200 потоков. Netty обслуживает все соединения циклами событий по числу ядер.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
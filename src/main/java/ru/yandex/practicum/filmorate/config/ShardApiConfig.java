@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.controller.ShardSecretFilter;
+
+@Configuration
+@EnableConfigurationProperties(PartitionProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnExpression("${filmorate.partition.shard-api:false} and !${filmorate.partition.enabled:false}")
+public class ShardApiConfig {
+    @Bean
+    public ShardSecretFilter shardSecretFilter(PartitionProperties properties, ObjectMapper objectMapper) {
+        return new ShardSecretFilter(properties.getShardSecret(), objectMapper);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.config;
+
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.validation.BeanEntityValidator;
+import ru.yandex.practicum.filmorate.validation.EntityValidator;
+import ru.yandex.practicum.filmorate.validation.FastEntityValidator;
+
+@Configuration
+public class ValidationConfig {
+    @Bean
+    @ConditionalOnProperty(prefix = "filmorate.validation", name = "mode", havingValue = "fast", matchIfMissing = true)
+    public EntityValidator fastEntityValidator() {
+        return new FastEntityValidator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "filmorate.validation", name = "mode", havingValue = "bean")
+    public EntityValidator beanEntityValidator(Validator validator) {
+        return new BeanEntityValidator(validator);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Частичное обновление сущности: поля из тела запроса PATCH записываются поверх копии текущего состояния,
+ * остальные поля не меняются. Id и версия из тела не применяются.
+ */
+final class EntityPatch {
+    private static final List<String> READ_ONLY_FIELDS = List.of("id", "version");
+
+    private EntityPatch() {
+    }
+
+    static <T> T apply(ObjectMapper objectMapper, T target, JsonNode patch) {
+        if (!(patch instanceof ObjectNode fields)) {
+            throw new ValidationException("Тело запроса должно быть объектом JSON.");
+        }
+        ObjectNode applicable = fields.deepCopy();
+        applicable.remove(READ_ONLY_FIELDS);
+        try {
+            return objectMapper.readerForUpdating(target).readValue(applicable);
+        } catch (IOException | RuntimeException e) {
+            throw new ValidationException("Тело запроса содержит некорректные значения полей.");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import ru.yandex.practicum.filmorate.exceptions.ConflictException;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.ErrorResponse;
+
+/**
+ * Переводит исключения обработчиков в ответы с кодами 400, 404 и 409 и считает их в метрике
+ * {@code filmorate.errors} с тегами типа ошибки и контроллера.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ErrorHandler {
+    static final String ERRORS_METRIC = "filmorate.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleValidation(ValidationException e, HandlerMethod handlerMethod) {
+        count("validation", handlerMethod);
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleArgumentNotValid(MethodArgumentNotValidException e, HandlerMethod handlerMethod) {
+        count("validation", handlerMethod);
+        FieldError fieldError = e.getBindingResult().getFieldError();
+        return new ErrorResponse(fieldError != null ? fieldError.getDefaultMessage() : "Некорректный запрос.");
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolation(ConstraintViolationException e, HandlerMethod handlerMethod) {
+        count("validation", handlerMethod);
+        return new ErrorResponse(e.getConstraintViolations().iterator().next().getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleNotFound(NotFoundException e, HandlerMethod handlerMethod) {
+        count("not_found", handlerMethod);
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(ConflictException e, HandlerMethod handlerMethod) {
+        count("conflict", handlerMethod);
+        return new ErrorResponse(e.getMessage());
+    }
+
+    private void count(String type, HandlerMethod handlerMethod) {
+        Counter.builder(ERRORS_METRIC)
+                .tag("type", type)
+                .tag("controller", handlerMethod.getBeanType().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,251 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Двоичный поколоночный формат выгрузки каталога фильмов. После заголовка {@code FLM1} идут число фильмов,
+ * словарь строк и колонки: Id приращениями к предыдущему Id, номера названий и описаний в словаре,
+ * даты выхода в днях от 1970-01-01, продолжительности и версии. Все числа записаны в формате varint,
+ * числа со знаком - в zigzag, поэтому типичный фильм без строк занимает около семи байт,
+ * а повторяющиеся названия и описания хранятся один раз.
+ */
+final class FilmColumns {
+    static final String MEDIA_TYPE = "application/x-filmorate-columns";
+
+    private static final int MAGIC = 0x464C4D31;
+    private static final String MALFORMED = "Тело запроса не соответствует формату выгрузки фильмов.";
+
+    private FilmColumns() {
+    }
+
+    static byte[] encode(Collection<Film> films) {
+        int count = films.size();
+        int[] ids = new int[count];
+        int[] names = new int[count];
+        int[] descriptions = new int[count];
+        long[] releaseDates = new long[count];
+        int[] durations = new int[count];
+        long[] versions = new long[count];
+        Dictionary dictionary = new Dictionary();
+        int i = 0;
+        for (Film film : films) {
+            if (i == count) {
+                break;
+            }
+            ids[i] = film.getId();
+            names[i] = dictionary.indexOf(film.getName());
+            descriptions[i] = dictionary.indexOf(film.getDescription());
+            releaseDates[i] = film.getReleaseDate().toEpochDay();
+            durations[i] = film.getDuration();
+            versions[i] = film.getVersion();
+            i++;
+        }
+        count = i;
+
+        Writer writer = new Writer(16 + dictionary.bytes + dictionary.strings.size() * 2 + count * 13);
+        writer.writeInt(MAGIC);
+        writer.writeVarInt(count);
+        writer.writeVarInt(dictionary.strings.size());
+        for (byte[] bytes : dictionary.strings) {
+            writer.writeVarInt(bytes.length);
+            writer.writeBytes(bytes);
+        }
+        int previousId = 0;
+        for (int j = 0; j < count; j++) {
+            writer.writeVarLong(zigzag((long) ids[j] - previousId));
+            previousId = ids[j];
+        }
+        for (int j = 0; j < count; j++) {
+            writer.writeVarInt(names[j]);
+        }
+        for (int j = 0; j < count; j++) {
+            writer.writeVarInt(descriptions[j]);
+        }
+        for (int j = 0; j < count; j++) {
+            writer.writeVarLong(zigzag(releaseDates[j]));
+        }
+        for (int j = 0; j < count; j++) {
+            writer.writeVarInt(durations[j]);
+        }
+        for (int j = 0; j < count; j++) {
+            writer.writeVarLong(versions[j]);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Читает фильмы из выгрузки. Некорректные данные приводят к {@link ValidationException}, а не к ответу 500.
+     */
+    static List<Film> decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new ValidationException(MALFORMED);
+            }
+            int count = lengthOf(buffer);
+            int dictionarySize = lengthOf(buffer);
+            String[] strings = new String[dictionarySize];
+            for (int i = 0; i < dictionarySize; i++) {
+                int length = lengthOf(buffer);
+                strings[i] = new String(bytes, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+            int[] ids = new int[count];
+            long id = 0;
+            for (int i = 0; i < count; i++) {
+                id += unzigzag(readVarLong(buffer));
+                ids[i] = (int) id;
+            }
+            String[] names = readStrings(buffer, strings, count);
+            String[] descriptions = readStrings(buffer, strings, count);
+            LocalDate[] releaseDates = new LocalDate[count];
+            for (int i = 0; i < count; i++) {
+                releaseDates[i] = LocalDate.ofEpochDay(unzigzag(readVarLong(buffer)));
+            }
+            List<Film> films = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Film film = new Film(names[i], descriptions[i], releaseDates[i], readVarInt(buffer));
+                film.setId(ids[i]);
+                films.add(film);
+            }
+            for (Film film : films) {
+                film.setVersion(readVarLong(buffer));
+            }
+            if (buffer.hasRemaining()) {
+                throw new ValidationException(MALFORMED);
+            }
+            return films;
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            throw new ValidationException(MALFORMED);
+        }
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, String[] dictionary, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int index = readVarInt(buffer);
+            if (index < 0 || index >= dictionary.length) {
+                throw new ValidationException(MALFORMED);
+            }
+            values[i] = dictionary[index];
+        }
+        return values;
+    }
+
+    /**
+     * Длина или количество: каждому элементу соответствует хотя бы один байт, поэтому значение больше остатка
+     * буфера означает повреждённые данные, и под него не выделяется память.
+     */
+    private static int lengthOf(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new ValidationException(MALFORMED);
+        }
+        return length;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        long value = readVarLong(buffer);
+        if (value >>> 32 != 0) {
+            throw new ValidationException(MALFORMED);
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new ValidationException(MALFORMED);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private int bytes;
+
+        private int indexOf(String value) {
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = strings.size();
+                indexes.put(value, index);
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                strings.add(encoded);
+                bytes += encoded.length;
+            }
+            return index;
+        }
+    }
+
+    private static final class Writer {
+        private byte[] bytes;
+        private int size;
+
+        private Writer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(4);
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) (value | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, size, value.length);
+            size += value.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -1,78 +1,291 @@
 package ru.yandex.practicum.filmorate.controller;
 
-import jakarta.validation.Valid;
-import lombok.Getter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.ratelimit.BatchCharge;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.validation.EntityValidator;
 
-import java.time.LocalDate;
-import java.time.Month;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/films")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class FilmController {
-    @Getter
-    private final Map<Integer, Film> films = new HashMap<>();
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10_000;
 
+    private final FilmStorage filmStorage;
+    private final FilmService filmService;
+    private final ObjectMapper objectMapper;
+    private final EntityValidator entityValidator;
+    private final JsonResponseCache responseCache;
+
+    /**
+     * Без параметров возвращает список всех фильмов. Сериализованный список кешируется до первого изменения
+     * хранилища, а запрос с текущим ETag в {@code If-None-Match} получает ответ 304 без тела.
+     * С {@code cursor} или {@code limit} возвращает страницу из {@code limit} фильмов (по умолчанию
+     * {@value #DEFAULT_PAGE_SIZE}) с Id больше {@code cursor}; курсор следующей страницы - Id последнего элемента,
+     * он же возвращается в заголовке {@value Pages#NEXT_CURSOR_HEADER}, если страница заполнена.
+     * Фильтры {@code fromYear}, {@code toYear}, {@code minDuration} и {@code maxDuration} включают границы;
+     * отфильтрованный список всегда отдаётся страницами.
+     */
     @GetMapping
-    public Collection<Film> findAll() {
-        log.info("Запрос на получение списка всех фильмов.");
-        return films.values();
+    public ResponseEntity<?> findAll(@RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) Integer cursor,
+                                     @RequestParam(required = false) Integer fromYear,
+                                     @RequestParam(required = false) Integer toYear,
+                                     @RequestParam(required = false) Integer minDuration,
+                                     @RequestParam(required = false) Integer maxDuration,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        int afterId = cursor == null ? 0 : cursor;
+        if (fromYear != null || toYear != null || minDuration != null || maxDuration != null) {
+            log.info("Запрос на получение отфильтрованного списка фильмов.");
+            yearValidation(fromYear);
+            yearValidation(toYear);
+            int pageSize = pageLimit(limit);
+            return Pages.of(filmService.findFiltered(fromYear, toYear, minDuration, maxDuration, afterId, pageSize),
+                    pageSize, Film::getId);
+        }
+        if (limit == null && cursor == null) {
+            log.info("Запрос на получение списка всех фильмов.");
+            return responseCache.cached("films", filmStorage.version(), ifNoneMatch, filmStorage::findAll);
+        }
+        log.info("Запрос на получение страницы списка фильмов.");
+        int pageSize = pageLimit(limit);
+        return Pages.of(filmStorage.findPage(afterId, pageSize), pageSize, Film::getId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> findById(@PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Запрос на получение фильма по Id.");
+        Film film = filmStorage.findById(id).orElseThrow(this::filmNotFound);
+        return responseCache.uncached(film.getVersion(), ifNoneMatch, film);
+    }
+
+    @GetMapping(params = "stream=true", produces = Ndjson.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Запрос на потоковое получение списка всех фильмов.");
+        return Ndjson.stream(objectMapper, filmStorage.findAll());
+    }
+
+    /**
+     * Выгрузка всего каталога в двоичном формате {@link FilmColumns}. Выгрузка строится один раз на версию
+     * хранилища, а следующие запросы получают тот же массив байт без копирования и перекодирования.
+     */
+    @GetMapping(path = "/export", produces = FilmColumns.MEDIA_TYPE)
+    public ResponseEntity<byte[]> export(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Запрос на выгрузку каталога фильмов.");
+        return responseCache.cached("films-export", filmStorage.version(), ifNoneMatch,
+                MediaType.parseMediaType(FilmColumns.MEDIA_TYPE), () -> FilmColumns.encode(filmStorage.findAll()));
+    }
+
+    @GetMapping("/popular")
+    public List<Film> getPopular(@RequestParam(defaultValue = "10") int count) {
+        log.info("Запрос на получение списка популярных фильмов.");
+        return filmService.getPopular(count);
+    }
+
+    @GetMapping("/search")
+    public List<Film> search(@RequestParam String query, @RequestParam(defaultValue = "10") int count) {
+        log.info("Запрос на поиск фильмов.");
+        return filmService.search(query, count);
+    }
+
+    @PutMapping("/{id}/like/{userId}")
+    public void addLike(@PathVariable int id, @PathVariable int userId) {
+        log.info("Запрос на добавление лайка фильму.");
+        filmService.addLike(id, userId);
+        log.info("Лайк фильму успешно добавлен.");
+    }
+
+    @DeleteMapping("/{id}/like/{userId}")
+    public void removeLike(@PathVariable int id, @PathVariable int userId) {
+        log.info("Запрос на удаление лайка фильму.");
+        filmService.removeLike(id, userId);
+        log.info("Лайк фильму успешно удалён.");
     }
 
     @PostMapping
-    public Film create(@Valid @RequestBody Film film) {
+    public Film create(@RequestBody Film film) {
         log.info("Запрос на добавление нового фильма.");
-        filmDateReleaseValidation(film.getReleaseDate());
-        film.setId(getNextId());
-        films.put(film.getId(), film);
+        filmValidation(film);
+        filmStorage.create(film);
         log.info("Новый фильм успешно добавлен.");
         return film;
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BatchItemResult> createBatch(@RequestBody List<Film> films) {
+        batchSizeValidation(films.size());
+        BatchCharge.charge(films.size());
+        log.info("Запрос на пакетное добавление {} фильмов.", films.size());
+        return createAll(films);
+    }
+
+    @PostMapping(path = "/batch", consumes = Ndjson.MEDIA_TYPE)
+    public List<BatchItemResult> createBatch(InputStream inputStream) {
+        return createBatch(Ndjson.read(objectMapper, inputStream, Film.class, MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Загрузка фильмов из выгрузки {@link FilmColumns}. Как и при пакетном добавлении в JSON,
+     * Id из выгрузки не сохраняются: фильмам назначаются новые Id.
+     */
+    @PostMapping(path = "/batch", consumes = FilmColumns.MEDIA_TYPE)
+    public List<BatchItemResult> createBatch(@RequestBody byte[] body) {
+        return createBatch(FilmColumns.decode(body));
+    }
+
+    /**
+     * Заменяет данные фильма целиком. С заголовком {@code If-Match} изменение выполняется, только если
+     * ETag совпадает с текущей версией, иначе возвращается 409.
+     */
     @PutMapping
-    public Film update(@Valid @RequestBody Film updatedFilm) {
+    public ResponseEntity<Film> update(@RequestBody Film updatedFilm,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Запрос на обновление данных фильма.");
+        filmValidation(updatedFilm);
         if (updatedFilm.getId() < 1) {
             log.error("Пользователь ввёл некорректный Id.");
             throw new ValidationException("Указан некорректный Id.");
         }
-        if (films.containsKey(updatedFilm.getId())) {
-            filmDateReleaseValidation(updatedFilm.getReleaseDate());
-            Film oldFilm = films.get(updatedFilm.getId());
-            oldFilm.setName(updatedFilm.getName());
-            oldFilm.setDescription(updatedFilm.getDescription());
-            oldFilm.setDuration(updatedFilm.getDuration());
-            oldFilm.setReleaseDate(updatedFilm.getReleaseDate());
-            log.info("Данные фильма успешно обновлены.");
-            return oldFilm;
+        Film film = filmStorage.update(updatedFilm.getId(), responseCache.expectedVersion(ifMatch), current -> updatedFilm)
+                .orElseThrow(this::filmNotFound);
+        log.info("Данные фильма успешно обновлены.");
+        return responseCache.tagged(film.getVersion(), film);
+    }
+
+    /**
+     * Изменяет только переданные поля фильма. Поля применяются к текущему состоянию под блокировкой
+     * фильма, поэтому одновременные частичные изменения разных полей не теряются.
+     * Заголовок {@code If-Match} проверяется так же, как при {@link #update}.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Film> patch(@PathVariable int id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Запрос на частичное обновление данных фильма.");
+        Film film = filmStorage.update(id, responseCache.expectedVersion(ifMatch), current -> {
+            Film patched = EntityPatch.apply(objectMapper, current, patch);
+            filmValidation(patched);
+            return patched;
+        }).orElseThrow(this::filmNotFound);
+        log.info("Данные фильма успешно обновлены.");
+        return responseCache.tagged(film.getVersion(), film);
+    }
+
+    @PutMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BatchItemResult> updateBatch(@RequestBody List<Film> updatedFilms) {
+        batchSizeValidation(updatedFilms.size());
+        BatchCharge.charge(updatedFilms.size());
+        log.info("Запрос на пакетное обновление {} фильмов.", updatedFilms.size());
+        List<BatchItemResult> results = new ArrayList<>(updatedFilms.size());
+        for (int i = 0; i < updatedFilms.size(); i++) {
+            Film updatedFilm = updatedFilms.get(i);
+            String error = batchItemValidation(updatedFilm);
+            if (error == null && updatedFilm.getId() < 1) {
+                error = "Указан некорректный Id.";
+            }
+            if (error == null && filmStorage.update(updatedFilm).isEmpty()) {
+                error = "Такого фильма не существует.";
+            }
+            results.add(error == null ? BatchItemResult.success(i, updatedFilm.getId())
+                    : BatchItemResult.failure(i, error));
+        }
+        log.info("Пакетное обновление фильмов завершено.");
+        return results;
+    }
+
+    @PutMapping(path = "/batch", consumes = Ndjson.MEDIA_TYPE)
+    public List<BatchItemResult> updateBatch(InputStream inputStream) {
+        return updateBatch(Ndjson.read(objectMapper, inputStream, Film.class, MAX_BATCH_SIZE));
+    }
+
+    private List<BatchItemResult> createAll(List<Film> films) {
+        BatchItemResult[] results = new BatchItemResult[films.size()];
+        List<Film> validFilms = new ArrayList<>(films.size());
+        List<Integer> validIndexes = new ArrayList<>(films.size());
+        for (int i = 0; i < films.size(); i++) {
+            String error = batchItemValidation(films.get(i));
+            if (error == null) {
+                validFilms.add(films.get(i));
+                validIndexes.add(i);
+            } else {
+                results[i] = BatchItemResult.failure(i, error);
+            }
+        }
+        filmStorage.createAll(validFilms);
+        for (int i = 0; i < validFilms.size(); i++) {
+            results[validIndexes.get(i)] = BatchItemResult.success(validIndexes.get(i), validFilms.get(i).getId());
+        }
+        log.info("Пакетное добавление фильмов завершено, добавлено {} из {}.", validFilms.size(), films.size());
+        return Arrays.asList(results);
+    }
+
+    private String batchItemValidation(Film film) {
+        if (film == null) {
+            return "Элемент пакета не может быть пустым.";
+        }
+        return entityValidator.validate(film);
+    }
+
+    private void filmValidation(Film film) {
+        String error = entityValidator.validate(film);
+        if (error != null) {
+            log.error("Пользователь ввёл некорректные данные фильма: {}", error);
+            throw new ValidationException(error);
+        }
+    }
+
+    private void batchSizeValidation(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            log.error("Пользователь отправил слишком большой пакет.");
+            throw new ValidationException("Пакет должен содержать не больше " + MAX_BATCH_SIZE + " элементов.");
         }
-        log.error("Пользователь ввёл несуществующий Id.");
-        throw new NotFoundException("Такого фильма не существует.");
     }
 
-    private int getNextId() {
-        int currentMaxId = films.keySet()
-                .stream()
-                .mapToInt(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+    private int pageLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            log.error("Пользователь ввёл некорректный размер страницы.");
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
     }
 
-    private void filmDateReleaseValidation(LocalDate dateRelease) {
-        LocalDate earlyDateRelease = LocalDate.of(1895, Month.DECEMBER, 28);
-        if (dateRelease.isBefore(earlyDateRelease)) {
-            log.error("Пользователь ввёл некорректную дату релиза фильма.");
-            throw new ValidationException("Дата релиза не раньше " + earlyDateRelease.getDayOfMonth()
-                    + " " + earlyDateRelease.getMonth() + " " + earlyDateRelease.getYear() + " года.");
+    private void yearValidation(Integer year) {
+        if (year != null && (year < Year.MIN_VALUE || year > Year.MAX_VALUE)) {
+            log.error("Пользователь ввёл некорректный год выхода фильма.");
+            throw new ValidationException("Указан некорректный год выхода фильма.");
         }
     }
+
+    private NotFoundException filmNotFound() {
+        log.error("Пользователь ввёл несуществующий Id.");
+        return new NotFoundException("Такого фильма не существует.");
+    }
 }
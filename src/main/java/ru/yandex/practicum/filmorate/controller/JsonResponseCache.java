@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Ответы в JSON с ETag, привязанным к версии хранилища. ETag состоит из случайного идентификатора запуска
+ * и версии, поэтому после перезапуска приложения ETag прежних ответов не совпадают с новыми.
+ * <p>
+ * Если клиент прислал в {@code If-None-Match} текущий ETag, ответ 304 отдаётся без сериализации.
+ * Сериализованные байты коллекций кешируются до смены версии: при промахе ответ сериализует один поток,
+ * а остальные запросы того же ключа ждут его и получают готовые байты. Кроме JSON так же кешируются
+ * ответы в других форматах, байты которых строит переданная функция.
+ * <p>
+ * Для отдельных сущностей ETag строится из версии самой сущности, а {@link #expectedVersion(String)}
+ * переводит заголовок {@code If-Match} обратно в версию, которую сущность должна иметь для изменения.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonResponseCache {
+    private final String bootId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Ответ с коллекцией, байты которой кешируются под ключом {@code key} до смены версии.
+     * Версию нужно прочитать до вызова {@code body}.
+     */
+    ResponseEntity<byte[]> cached(String key, long version, String ifNoneMatch, Supplier<?> body) {
+        return cached(key, version, ifNoneMatch, MediaType.APPLICATION_JSON, () -> serialize(body.get()));
+    }
+
+    /**
+     * Ответ с типом {@code contentType}, байты которого строит {@code encoder} и которые кешируются
+     * под ключом {@code key} до смены версии.
+     */
+    ResponseEntity<byte[]> cached(String key, long version, String ifNoneMatch, MediaType contentType,
+                                  Supplier<byte[]> encoder) {
+        String etag = etag(version);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        Entry entry = slot.entry;
+        if (entry == null || entry.version != version) {
+            slot.lock.lock();
+            try {
+                entry = slot.entry;
+                if (entry == null || entry.version != version) {
+                    entry = new Entry(version, encoder.get());
+                    slot.entry = entry;
+                }
+            } finally {
+                slot.lock.unlock();
+            }
+        }
+        return ok(etag(entry.version), contentType, entry.body);
+    }
+
+    /**
+     * Ответ с одним объектом: он сериализуется заново при каждом запросе без подходящего ETag.
+     * Версия должна соответствовать объекту: это версия самой сущности или версия хранилища,
+     * прочитанная до объекта, иначе ETag может оказаться новее его данных.
+     */
+    ResponseEntity<byte[]> uncached(long version, String ifNoneMatch, Object body) {
+        String etag = etag(version);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ok(etag, MediaType.APPLICATION_JSON, serialize(body));
+    }
+
+    /**
+     * Ответ на изменение сущности с ETag её новой версии.
+     */
+    <T> ResponseEntity<T> tagged(long version, T body) {
+        return ResponseEntity.ok().eTag(etag(version)).body(body);
+    }
+
+    /**
+     * Версия из заголовка {@code If-Match}: -1 ({@code ANY_VERSION} хранилищ), если заголовка нет или в нём
+     * {@code *}, иначе версия из первого сильного ETag этого запуска. Для слабых, чужих и прежних ETag
+     * возвращается 0 - версия, которой нет ни у одной сущности, поэтому изменение получит конфликт.
+     */
+    long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return -1;
+        }
+        String prefix = "\"" + bootId + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*")) {
+                return -1;
+            }
+            if (trimmed.startsWith(prefix) && trimmed.endsWith("\"") && trimmed.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(trimmed.substring(prefix.length(), trimmed.length() - 1));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private String etag(long version) {
+        return "\"" + bootId + "-" + version + "\"";
+    }
+
+    /**
+     * Проверяет, есть ли ETag в списке {@code If-None-Match}. Слабые ETag сравниваются без префикса {@code W/}.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)
+                    || trimmed.startsWith("W/") && trimmed.substring(2).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> ok(String etag, MediaType contentType, byte[] body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(contentType)
+                .body(body);
+    }
+
+    private static ResponseEntity<byte[]> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private static final class Slot {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Entry entry;
+    }
+
+    private record Entry(long version, byte[] body) {
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Чтение и запись коллекций в построчном формате NDJSON. При записи каждый элемент сериализуется
+ * сразу в поток ответа, поэтому память на запрос не зависит от размера коллекции.
+ */
+final class Ndjson {
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private Ndjson() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, Iterable<?> values) {
+        StreamingResponseBody body = outputStream -> {
+            boolean empty = true;
+            try (SequenceWriter sequenceWriter = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                for (Object value : values) {
+                    sequenceWriter.write(value);
+                    empty = false;
+                }
+            }
+            if (!empty) {
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Читает элементы по одному из потока запроса. Если элементов больше {@code maxItems}, чтение прекращается
+     * на первом лишнем элементе, не дочитывая тело, и выбрасывается ValidationException, поэтому память
+     * на запрос ограничена {@code maxItems} элементами, а не размером тела.
+     */
+    static <T> List<T> read(ObjectMapper objectMapper, InputStream inputStream, Class<T> type, int maxItems) {
+        try (MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(inputStream)) {
+            List<T> values = new ArrayList<>();
+            while (iterator.hasNextValue()) {
+                if (values.size() == maxItems) {
+                    throw new ValidationException("Пакет должен содержать не больше " + maxItems + " элементов.");
+                }
+                values.add(iterator.nextValue());
+            }
+            return values;
+        } catch (IOException e) {
+            throw new ValidationException("Тело запроса не соответствует формату NDJSON.");
+        }
+    }
+}
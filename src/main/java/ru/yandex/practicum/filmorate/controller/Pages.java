@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ответы со страницей списка по курсору. Если страница заполнена целиком, за ней могут быть ещё элементы,
+ * и курсор следующей страницы - Id её последнего элемента - передаётся в заголовке {@value #NEXT_CURSOR_HEADER}.
+ * Неполная страница - последняя, и заголовка у неё нет.
+ */
+final class Pages {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private Pages() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(List<T> page, int limit, ToIntFunction<T> idOf) {
+        return withCursor(page, limit, idOf).body(page);
+    }
+
+    /**
+     * То же, что {@link #of}, для реактивных контроллеров: страница отдаётся потоком, как и полный список.
+     */
+    static <T> ResponseEntity<Flux<T>> flux(List<T> page, int limit, ToIntFunction<T> idOf) {
+        return withCursor(page, limit, idOf).body(Flux.fromIterable(page));
+    }
+
+    private static <T> ResponseEntity.BodyBuilder withCursor(List<T> page, int limit, ToIntFunction<T> idOf) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() >= limit) {
+            builder.header(NEXT_CURSOR_HEADER, Integer.toString(idOf.applyAsInt(page.get(page.size() - 1))));
+        }
+        return builder;
+    }
+}
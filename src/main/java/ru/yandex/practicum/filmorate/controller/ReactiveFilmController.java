@@ -0,0 +1,223 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.validation.EntityValidator;
+
+import java.time.Year;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Неблокирующий вариант {@link FilmController} для {@code spring.main.web-application-type=reactive}.
+ * Хранилище может блокировать поток: при первом чтении оно загружает записи снимка с диска, запись ждёт
+ * сброса журнала, а в партиционированном режиме каждое обращение - HTTP-запрос к узлу данных. Поэтому
+ * поток обработки событий только разбирает запрос и проверяет данные, а хранилище и сервисы вызываются
+ * в {@link Schedulers#boundedElastic()}. Списки отдаются потоком {@link Flux} по мере запроса элементов клиентом.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/films")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveFilmController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final FilmStorage filmStorage;
+    private final FilmService filmService;
+    private final ObjectMapper objectMapper;
+    private final EntityValidator entityValidator;
+    private final JsonResponseCache responseCache;
+
+    /**
+     * Параметры те же, что у {@link FilmController#findAll}, включая заголовок с курсором следующей страницы.
+     * Список отдаётся массивом JSON или, при {@code Accept: application/x-ndjson}, построчно.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<Film>>> findAll(@RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) Integer cursor,
+                                                    @RequestParam(required = false) Integer fromYear,
+                                                    @RequestParam(required = false) Integer toYear,
+                                                    @RequestParam(required = false) Integer minDuration,
+                                                    @RequestParam(required = false) Integer maxDuration) {
+        int afterId = cursor == null ? 0 : cursor;
+        if (fromYear != null || toYear != null || minDuration != null || maxDuration != null) {
+            log.info("Запрос на получение отфильтрованного списка фильмов.");
+            yearValidation(fromYear);
+            yearValidation(toYear);
+            int pageSize = pageLimit(limit);
+            return blocking(() -> Pages.flux(filmService.findFiltered(fromYear, toYear, minDuration, maxDuration,
+                    afterId, pageSize), pageSize, Film::getId));
+        }
+        if (limit == null && cursor == null) {
+            log.info("Запрос на получение списка всех фильмов.");
+            return Mono.just(ResponseEntity.ok(allFilms()));
+        }
+        log.info("Запрос на получение страницы списка фильмов.");
+        int pageSize = pageLimit(limit);
+        return blocking(() -> Pages.flux(filmStorage.findPage(afterId, pageSize), pageSize, Film::getId));
+    }
+
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Film> streamAll() {
+        log.info("Запрос на потоковое получение списка всех фильмов.");
+        return allFilms();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> findById(@PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Запрос на получение фильма по Id.");
+        return blocking(() -> {
+            Film film = filmStorage.findById(id).orElseThrow(this::filmNotFound);
+            return responseCache.uncached(film.getVersion(), ifNoneMatch, film);
+        });
+    }
+
+    @GetMapping(path = "/export", produces = FilmColumns.MEDIA_TYPE)
+    public Mono<ResponseEntity<byte[]>> export(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Запрос на выгрузку каталога фильмов.");
+        return blocking(() -> responseCache.cached("films-export", filmStorage.version(), ifNoneMatch,
+                MediaType.parseMediaType(FilmColumns.MEDIA_TYPE), () -> FilmColumns.encode(filmStorage.findAll())));
+    }
+
+    @GetMapping("/popular")
+    public Mono<List<Film>> getPopular(@RequestParam(defaultValue = "10") int count) {
+        log.info("Запрос на получение списка популярных фильмов.");
+        return blocking(() -> filmService.getPopular(count));
+    }
+
+    @GetMapping("/search")
+    public Mono<List<Film>> search(@RequestParam String query, @RequestParam(defaultValue = "10") int count) {
+        log.info("Запрос на поиск фильмов.");
+        return blocking(() -> filmService.search(query, count));
+    }
+
+    @PutMapping("/{id}/like/{userId}")
+    public Mono<Void> addLike(@PathVariable int id, @PathVariable int userId) {
+        log.info("Запрос на добавление лайка фильму.");
+        return blocking(() -> {
+            filmService.addLike(id, userId);
+            log.info("Лайк фильму успешно добавлен.");
+            return null;
+        });
+    }
+
+    @DeleteMapping("/{id}/like/{userId}")
+    public Mono<Void> removeLike(@PathVariable int id, @PathVariable int userId) {
+        log.info("Запрос на удаление лайка фильму.");
+        return blocking(() -> {
+            filmService.removeLike(id, userId);
+            log.info("Лайк фильму успешно удалён.");
+            return null;
+        });
+    }
+
+    @PostMapping
+    public Mono<Film> create(@RequestBody Film film) {
+        log.info("Запрос на добавление нового фильма.");
+        filmValidation(film);
+        return blocking(() -> {
+            filmStorage.create(film);
+            log.info("Новый фильм успешно добавлен.");
+            return film;
+        });
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<Film>> update(@RequestBody Film updatedFilm,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Запрос на обновление данных фильма.");
+        filmValidation(updatedFilm);
+        if (updatedFilm.getId() < 1) {
+            log.error("Пользователь ввёл некорректный Id.");
+            throw new ValidationException("Указан некорректный Id.");
+        }
+        long expectedVersion = responseCache.expectedVersion(ifMatch);
+        return blocking(() -> {
+            Film film = filmStorage.update(updatedFilm.getId(), expectedVersion, current -> updatedFilm)
+                    .orElseThrow(this::filmNotFound);
+            log.info("Данные фильма успешно обновлены.");
+            return responseCache.tagged(film.getVersion(), film);
+        });
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Film>> patch(@PathVariable int id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Запрос на частичное обновление данных фильма.");
+        long expectedVersion = responseCache.expectedVersion(ifMatch);
+        return blocking(() -> {
+            Film film = filmStorage.update(id, expectedVersion, current -> {
+                Film patched = EntityPatch.apply(objectMapper, current, patch);
+                filmValidation(patched);
+                return patched;
+            }).orElseThrow(this::filmNotFound);
+            log.info("Данные фильма успешно обновлены.");
+            return responseCache.tagged(film.getVersion(), film);
+        });
+    }
+
+    /**
+     * Все фильмы потоком. Запросы элементов тоже выполняются в {@link Schedulers#boundedElastic()}: обход списка
+     * шардов на других узлах запрашивает их страницы по мере чтения.
+     */
+    private Flux<Film> allFilms() {
+        return Flux.defer(() -> Flux.fromIterable(filmStorage.findAll())).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Вызов хранилища или сервиса вне потока обработки событий.
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void filmValidation(Film film) {
+        String error = entityValidator.validate(film);
+        if (error != null) {
+            log.error("Пользователь ввёл некорректные данные фильма: {}", error);
+            throw new ValidationException(error);
+        }
+    }
+
+    private int pageLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            log.error("Пользователь ввёл некорректный размер страницы.");
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
+    }
+
+    private void yearValidation(Integer year) {
+        if (year != null && (year < Year.MIN_VALUE || year > Year.MAX_VALUE)) {
+            log.error("Пользователь ввёл некорректный год выхода фильма.");
+            throw new ValidationException("Указан некорректный год выхода фильма.");
+        }
+    }
+
+    private NotFoundException filmNotFound() {
+        log.error("Пользователь ввёл несуществующий Id.");
+        return new NotFoundException("Такого фильма не существует.");
+    }
+}
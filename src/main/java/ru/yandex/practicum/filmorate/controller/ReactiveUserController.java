@@ -0,0 +1,201 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.RecommendationService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+import ru.yandex.practicum.filmorate.validation.EntityValidator;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Неблокирующий вариант {@link UserController} для {@code spring.main.web-application-type=reactive}.
+ * Устроен так же, как {@link ReactiveFilmController}: хранилища и сервисы вызываются
+ * в {@link Schedulers#boundedElastic()}, а не в потоке обработки событий.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final UserStorage userStorage;
+    private final UserService userService;
+    private final RecommendationService recommendationService;
+    private final ObjectMapper objectMapper;
+    private final EntityValidator entityValidator;
+    private final JsonResponseCache responseCache;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<User>>> findAll(@RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) Integer cursor) {
+        if (limit == null && cursor == null) {
+            log.info("Запрос на получение списка всех пользователей.");
+            return Mono.just(ResponseEntity.ok(allUsers()));
+        }
+        log.info("Запрос на получение страницы списка пользователей.");
+        int pageSize = pageLimit(limit);
+        return blocking(() -> Pages.flux(userStorage.findPage(cursor == null ? 0 : cursor, pageSize), pageSize,
+                User::getId));
+    }
+
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<User> streamAll() {
+        log.info("Запрос на потоковое получение списка всех пользователей.");
+        return allUsers();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> findById(@PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Запрос на получение пользователя по Id.");
+        return blocking(() -> {
+            User user = userStorage.findById(id).orElseThrow(this::userNotFound);
+            return responseCache.uncached(user.getVersion(), ifNoneMatch, user);
+        });
+    }
+
+    @GetMapping("/{id}/friends")
+    public Mono<List<User>> getFriends(@PathVariable int id) {
+        log.info("Запрос на получение списка друзей пользователя.");
+        return blocking(() -> userService.getFriends(id));
+    }
+
+    @GetMapping("/{id}/friends/common/{otherId}")
+    public Mono<List<User>> getCommonFriends(@PathVariable int id, @PathVariable int otherId) {
+        log.info("Запрос на получение списка общих друзей пользователей.");
+        return blocking(() -> userService.getCommonFriends(id, otherId));
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public Mono<List<Film>> getRecommendations(@PathVariable int id, @RequestParam(defaultValue = "10") int count) {
+        log.info("Запрос на получение рекомендаций фильмов для пользователя.");
+        return blocking(() -> recommendationService.getRecommendations(id, count));
+    }
+
+    @PutMapping("/{id}/friends/{friendId}")
+    public Mono<Void> addFriend(@PathVariable int id, @PathVariable int friendId) {
+        log.info("Запрос на добавление пользователя в друзья.");
+        return blocking(() -> {
+            userService.addFriend(id, friendId);
+            log.info("Пользователь успешно добавлен в друзья.");
+            return null;
+        });
+    }
+
+    @DeleteMapping("/{id}/friends/{friendId}")
+    public Mono<Void> removeFriend(@PathVariable int id, @PathVariable int friendId) {
+        log.info("Запрос на удаление пользователя из друзей.");
+        return blocking(() -> {
+            userService.removeFriend(id, friendId);
+            log.info("Пользователь успешно удалён из друзей.");
+            return null;
+        });
+    }
+
+    @PostMapping
+    public Mono<User> create(@RequestBody User user) {
+        log.info("Запрос на добавление нового пользователя.");
+        userValidation(user);
+        userNameValidation(user);
+        return blocking(() -> {
+            userStorage.create(user);
+            log.info("Новый пользователь успешно добавлен.");
+            return user;
+        });
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<User>> update(@RequestBody User updatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Запрос на обновление данных пользователя.");
+        userValidation(updatedUser);
+        if (updatedUser.getId() < 1) {
+            log.error("Пользователь ввёл некорректный Id.");
+            throw new ValidationException("Указан некорректный Id.");
+        }
+        userNameValidation(updatedUser);
+        long expectedVersion = responseCache.expectedVersion(ifMatch);
+        return blocking(() -> {
+            User user = userStorage.update(updatedUser.getId(), expectedVersion, current -> updatedUser)
+                    .orElseThrow(this::userNotFound);
+            log.info("Данные пользователя успешно обновлены.");
+            return responseCache.tagged(user.getVersion(), user);
+        });
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<User>> patch(@PathVariable int id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Запрос на частичное обновление данных пользователя.");
+        long expectedVersion = responseCache.expectedVersion(ifMatch);
+        return blocking(() -> {
+            User user = userStorage.update(id, expectedVersion, current -> {
+                User patched = EntityPatch.apply(objectMapper, current, patch);
+                userValidation(patched);
+                userNameValidation(patched);
+                return patched;
+            }).orElseThrow(this::userNotFound);
+            log.info("Данные пользователя успешно обновлены.");
+            return responseCache.tagged(user.getVersion(), user);
+        });
+    }
+
+    private Flux<User> allUsers() {
+        return Flux.defer(() -> Flux.fromIterable(userStorage.findAll())).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void userValidation(User user) {
+        String error = entityValidator.validate(user);
+        if (error != null) {
+            log.error("Пользователь ввёл некорректные данные пользователя: {}", error);
+            throw new ValidationException(error);
+        }
+    }
+
+    private int pageLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            log.error("Пользователь ввёл некорректный размер страницы.");
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
+    }
+
+    private NotFoundException userNotFound() {
+        log.error("Пользователь ввёл несуществующий Id.");
+        return new NotFoundException("Такого пользователя не существует.");
+    }
+
+    private void userNameValidation(User user) {
+        if (user.getName() == null || user.getName().isEmpty() || user.getName().isBlank()) {
+            user.setName(user.getLogin());
+            log.info("Пользователь ввёл пустое имя, его именем установлен логин.");
+        }
+    }
+}
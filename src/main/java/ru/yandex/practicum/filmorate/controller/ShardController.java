@@ -0,0 +1,143 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeIndex;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.partition.FilmShard;
+import ru.yandex.practicum.filmorate.storage.partition.LocalFilmShard;
+import ru.yandex.practicum.filmorate.storage.partition.LocalUserShard;
+import ru.yandex.practicum.filmorate.storage.partition.ShardStats;
+import ru.yandex.practicum.filmorate.storage.partition.UserShard;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API шарда узла данных для маршрутизатора с {@code filmorate.partition.nodes}. Отдаёт хранилища узла как есть:
+ * без проверки данных, которую уже выполнил маршрутизатор, и с Id, которые выдал маршрутизатор.
+ * Изменение принимает новое состояние целиком и применяет его, только если версия сущности равна
+ * {@code expectedVersion}. Снимки хранилищ узел сохраняет сам, как обычно.
+ * Запросы без общего секрета узлов отклоняет {@link ShardSecretFilter}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/shard")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnExpression("${filmorate.partition.shard-api:false} and !${filmorate.partition.enabled:false}")
+public class ShardController {
+    private static final int MAX_LIMIT = 1000;
+
+    private final FilmShard filmShard;
+    private final UserShard userShard;
+
+    public ShardController(InMemoryFilmStorage filmStorage, FilmSearchIndex searchIndex, FilmRangeIndex rangeIndex,
+                           InMemoryUserStorage userStorage) {
+        filmShard = new LocalFilmShard(filmStorage, searchIndex, rangeIndex, Journal.none());
+        userShard = new LocalUserShard(userStorage, Journal.none());
+    }
+
+    @GetMapping("/films")
+    public List<Film> findFilms(@RequestParam(defaultValue = "0") int afterId, @RequestParam int limit) {
+        return filmShard.findPage(afterId, limit);
+    }
+
+    @GetMapping("/films/{id}")
+    public Film findFilm(@PathVariable int id) {
+        return filmShard.findById(id).orElseThrow(() -> new NotFoundException("Фильм с Id " + id + " не найден."));
+    }
+
+    @PostMapping("/films")
+    public void insertFilms(@RequestBody List<Film> films) {
+        log.debug("Шард получил {} фильмов.", films.size());
+        filmShard.insertAll(films);
+    }
+
+    @PutMapping("/films/{id}")
+    public Film updateFilm(@PathVariable int id, @RequestParam long expectedVersion, @RequestBody Film film) {
+        return filmShard.update(id, expectedVersion, current -> film)
+                .orElseThrow(() -> new NotFoundException("Фильм с Id " + id + " не найден."));
+    }
+
+    @GetMapping("/films/stats")
+    public ShardStats filmStats() {
+        return filmShard.stats();
+    }
+
+    @GetMapping("/films/search")
+    public long[] searchFilms(@RequestParam String query, @RequestParam int limit) {
+        limitValidation(limit);
+        return filmShard.searchRanked(query, limit);
+    }
+
+    @GetMapping("/films/range")
+    public int[] findFilmIds(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                             LocalDate releasedFrom,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                             LocalDate releasedTo,
+                             @RequestParam(required = false) Integer minDuration,
+                             @RequestParam(required = false) Integer maxDuration,
+                             @RequestParam(defaultValue = "0") int afterId,
+                             @RequestParam int limit) {
+        limitValidation(limit);
+        return filmShard.findIds(releasedFrom, releasedTo, minDuration, maxDuration, afterId, limit);
+    }
+
+    @GetMapping("/users")
+    public List<User> findUsers(@RequestParam(defaultValue = "0") int afterId, @RequestParam int limit) {
+        return userShard.findPage(afterId, limit);
+    }
+
+    @GetMapping("/users/{id}")
+    public User findUser(@PathVariable int id) {
+        return userShard.findById(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь с Id " + id + " не найден."));
+    }
+
+    @PostMapping("/users")
+    public void insertUsers(@RequestBody List<User> users) {
+        log.debug("Шард получил {} пользователей.", users.size());
+        userShard.insertAll(users);
+    }
+
+    /**
+     * Id владельцев Email из тела запроса, по которым маршрутизатор проверяет уникальность Email перед записью.
+     */
+    @PostMapping("/users/emails")
+    public Map<String, Integer> findEmailOwners(@RequestBody List<String> emails) {
+        return userShard.findEmailOwners(emails);
+    }
+
+    @PutMapping("/users/{id}")
+    public User updateUser(@PathVariable int id, @RequestParam long expectedVersion, @RequestBody User user) {
+        return userShard.update(id, expectedVersion, current -> user)
+                .orElseThrow(() -> new NotFoundException("Пользователь с Id " + id + " не найден."));
+    }
+
+    @GetMapping("/users/stats")
+    public ShardStats userStats() {
+        return userShard.stats();
+    }
+
+    /**
+     * Маршрутизатор ищет и выбирает по промежутку не больше фильмов, чем отдаёт клиенту за один ответ,
+     * поэтому больший лимит - ошибка.
+     */
+    private void limitValidation(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            log.error("Шард получил некорректный лимит {}.", limit);
+            throw new ValidationException("Лимит должен быть от 1 до " + MAX_LIMIT + ".");
+        }
+    }
+}
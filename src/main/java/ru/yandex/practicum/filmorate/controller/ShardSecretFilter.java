@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import ru.yandex.practicum.filmorate.model.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Пропускает к API шарда {@code /internal/shard} только запросы с общим секретом узлов в заголовке
+ * {@link #SECRET_HEADER}, остальные получают ответ 403. API шарда пишет в хранилища без проверок,
+ * поэтому без секрета узел данных не запускается.
+ */
+@Slf4j
+public class ShardSecretFilter extends OncePerRequestFilter {
+    public static final String SECRET_HEADER = "X-Shard-Secret";
+    private static final String SHARD_API_PATH = "/internal/shard";
+
+    private final byte[] secret;
+    private final ObjectMapper objectMapper;
+
+    public ShardSecretFilter(String secret, ObjectMapper objectMapper) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("Для API шарда нужен секрет filmorate.partition.shard-secret.");
+        }
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Путь сравнивается после декодирования и удаления параметров пути, как его видит Spring MVC:
+     * по исходному URI запрос вида {@code /internal/shar%64} или {@code /internal/shard;x=1} прошёл бы без секрета.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !UrlPathHelper.defaultInstance.getPathWithinApplication(request).startsWith(SHARD_API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(SECRET_HEADER);
+        if (header == null || !MessageDigest.isEqual(secret, header.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Запрос к API шарда без верного секрета с адреса {}.", request.getRemoteAddr());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Доступ к API шарда запрещён."));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
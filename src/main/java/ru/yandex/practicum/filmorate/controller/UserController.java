@@ -1,85 +1,273 @@
 package ru.yandex.practicum.filmorate.controller;
 
-import jakarta.validation.Valid;
-import lombok.Getter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.validation.annotation.Validated;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.ratelimit.BatchCharge;
+import ru.yandex.practicum.filmorate.service.RecommendationService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+import ru.yandex.practicum.filmorate.validation.EntityValidator;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/users")
-@Validated
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
-    @Getter
-    private final Map<Integer, User> users = new HashMap<>();
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10_000;
 
+    private final UserStorage userStorage;
+    private final UserService userService;
+    private final RecommendationService recommendationService;
+    private final ObjectMapper objectMapper;
+    private final EntityValidator entityValidator;
+    private final JsonResponseCache responseCache;
+
+    /**
+     * Без параметров возвращает список всех пользователей. Сериализованный список кешируется до первого изменения
+     * хранилища, а запрос с текущим ETag в {@code If-None-Match} получает ответ 304 без тела.
+     * С {@code cursor} или {@code limit} возвращает страницу из {@code limit} пользователей (по умолчанию
+     * {@value #DEFAULT_PAGE_SIZE}) с Id больше {@code cursor}; курсор следующей страницы - Id последнего элемента,
+     * он же возвращается в заголовке {@value Pages#NEXT_CURSOR_HEADER}, если страница заполнена.
+     */
     @GetMapping
-    public Collection<User> findAll() {
-        log.info("Запрос на получение списка всех пользователей.");
-        return users.values();
+    public ResponseEntity<?> findAll(@RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) Integer cursor,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (limit == null && cursor == null) {
+            log.info("Запрос на получение списка всех пользователей.");
+            return responseCache.cached("users", userStorage.version(), ifNoneMatch, userStorage::findAll);
+        }
+        log.info("Запрос на получение страницы списка пользователей.");
+        int pageSize = pageLimit(limit);
+        return Pages.of(userStorage.findPage(cursor == null ? 0 : cursor, pageSize), pageSize, User::getId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> findById(@PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Запрос на получение пользователя по Id.");
+        User user = userStorage.findById(id).orElseThrow(this::userNotFound);
+        return responseCache.uncached(user.getVersion(), ifNoneMatch, user);
+    }
+
+    @GetMapping(params = "stream=true", produces = Ndjson.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Запрос на потоковое получение списка всех пользователей.");
+        return Ndjson.stream(objectMapper, userStorage.findAll());
+    }
+
+    @GetMapping("/{id}/friends")
+    public List<User> getFriends(@PathVariable int id) {
+        log.info("Запрос на получение списка друзей пользователя.");
+        return userService.getFriends(id);
+    }
+
+    @GetMapping("/{id}/friends/common/{otherId}")
+    public List<User> getCommonFriends(@PathVariable int id, @PathVariable int otherId) {
+        log.info("Запрос на получение списка общих друзей пользователей.");
+        return userService.getCommonFriends(id, otherId);
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public List<Film> getRecommendations(@PathVariable int id, @RequestParam(defaultValue = "10") int count) {
+        log.info("Запрос на получение рекомендаций фильмов для пользователя.");
+        return recommendationService.getRecommendations(id, count);
+    }
+
+    @PutMapping("/{id}/friends/{friendId}")
+    public void addFriend(@PathVariable int id, @PathVariable int friendId) {
+        log.info("Запрос на добавление пользователя в друзья.");
+        userService.addFriend(id, friendId);
+        log.info("Пользователь успешно добавлен в друзья.");
+    }
+
+    @DeleteMapping("/{id}/friends/{friendId}")
+    public void removeFriend(@PathVariable int id, @PathVariable int friendId) {
+        log.info("Запрос на удаление пользователя из друзей.");
+        userService.removeFriend(id, friendId);
+        log.info("Пользователь успешно удалён из друзей.");
     }
 
     @PostMapping
-    public User create(@Valid @RequestBody User user) {
+    public User create(@RequestBody User user) {
         log.info("Запрос на добавление нового пользователя.");
-        userEmailValidation(user);
+        userValidation(user);
         userNameValidation(user);
-        user.setId(getNextId());
-        users.put(user.getId(), user);
+        userStorage.create(user);
         log.info("Новый пользователь успешно добавлен.");
         return user;
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BatchItemResult> createBatch(@RequestBody List<User> users) {
+        batchSizeValidation(users.size());
+        BatchCharge.charge(users.size());
+        log.info("Запрос на пакетное добавление {} пользователей.", users.size());
+        return createAll(users);
+    }
+
+    @PostMapping(path = "/batch", consumes = Ndjson.MEDIA_TYPE)
+    public List<BatchItemResult> createBatch(InputStream inputStream) {
+        return createBatch(Ndjson.read(objectMapper, inputStream, User.class, MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Заменяет данные пользователя целиком. С заголовком {@code If-Match} изменение выполняется, только если
+     * ETag совпадает с текущей версией, иначе возвращается 409.
+     */
     @PutMapping
-    public User update(@Valid @RequestBody User updatedUser) {
+    public ResponseEntity<User> update(@RequestBody User updatedUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Запрос на обновление данных пользователя.");
+        userValidation(updatedUser);
         if (updatedUser.getId() < 1) {
             log.error("Пользователь ввёл некорректный Id.");
             throw new ValidationException("Указан некорректный Id.");
         }
-        if (users.containsKey(updatedUser.getId())) {
-            userEmailValidation(updatedUser);
-            userNameValidation(updatedUser);
-            User oldUser = users.get(updatedUser.getId());
-            oldUser.setName(updatedUser.getName());
-            oldUser.setBirthday(updatedUser.getBirthday());
-            oldUser.setLogin(updatedUser.getLogin());
-            oldUser.setEmail(updatedUser.getEmail());
-            log.info("Данные пользователя успешно обновлены.");
-            return oldUser;
+        userNameValidation(updatedUser);
+        User user = userStorage.update(updatedUser.getId(), responseCache.expectedVersion(ifMatch), current -> updatedUser)
+                .orElseThrow(this::userNotFound);
+        log.info("Данные пользователя успешно обновлены.");
+        return responseCache.tagged(user.getVersion(), user);
+    }
+
+    /**
+     * Изменяет только переданные поля пользователя. Поля применяются к текущему состоянию под блокировкой
+     * пользователя, поэтому одновременные частичные изменения разных полей не теряются.
+     * Заголовок {@code If-Match} проверяется так же, как при {@link #update}.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<User> patch(@PathVariable int id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Запрос на частичное обновление данных пользователя.");
+        User user = userStorage.update(id, responseCache.expectedVersion(ifMatch), current -> {
+            User patched = EntityPatch.apply(objectMapper, current, patch);
+            userValidation(patched);
+            userNameValidation(patched);
+            return patched;
+        }).orElseThrow(this::userNotFound);
+        log.info("Данные пользователя успешно обновлены.");
+        return responseCache.tagged(user.getVersion(), user);
+    }
+
+    @PutMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BatchItemResult> updateBatch(@RequestBody List<User> updatedUsers) {
+        batchSizeValidation(updatedUsers.size());
+        BatchCharge.charge(updatedUsers.size());
+        log.info("Запрос на пакетное обновление {} пользователей.", updatedUsers.size());
+        List<BatchItemResult> results = new ArrayList<>(updatedUsers.size());
+        for (int i = 0; i < updatedUsers.size(); i++) {
+            User updatedUser = updatedUsers.get(i);
+            String error = batchItemValidation(updatedUser);
+            if (error == null && updatedUser.getId() < 1) {
+                error = "Указан некорректный Id.";
+            }
+            if (error == null) {
+                userNameValidation(updatedUser);
+                try {
+                    if (userStorage.update(updatedUser).isEmpty()) {
+                        error = "Такого пользователя не существует.";
+                    }
+                } catch (ValidationException e) {
+                    error = e.getMessage();
+                }
+            }
+            results.add(error == null ? BatchItemResult.success(i, updatedUser.getId())
+                    : BatchItemResult.failure(i, error));
+        }
+        log.info("Пакетное обновление пользователей завершено.");
+        return results;
+    }
+
+    @PutMapping(path = "/batch", consumes = Ndjson.MEDIA_TYPE)
+    public List<BatchItemResult> updateBatch(InputStream inputStream) {
+        return updateBatch(Ndjson.read(objectMapper, inputStream, User.class, MAX_BATCH_SIZE));
+    }
+
+    private List<BatchItemResult> createAll(List<User> users) {
+        BatchItemResult[] results = new BatchItemResult[users.size()];
+        List<User> validUsers = new ArrayList<>(users.size());
+        List<Integer> validIndexes = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            String error = batchItemValidation(users.get(i));
+            if (error == null) {
+                userNameValidation(users.get(i));
+                validUsers.add(users.get(i));
+                validIndexes.add(i);
+            } else {
+                results[i] = BatchItemResult.failure(i, error);
+            }
         }
-        log.error("Пользователь ввёл несуществующий Id.");
-        throw new NotFoundException("Такого пользователя не существует.");
+        int createdCount = userStorage.createAll(validUsers).size();
+        for (int i = 0; i < validUsers.size(); i++) {
+            int index = validIndexes.get(i);
+            int id = validUsers.get(i).getId();
+            results[index] = id == 0 ? BatchItemResult.failure(index, "Такой Email уже используется.")
+                    : BatchItemResult.success(index, id);
+        }
+        log.info("Пакетное добавление пользователей завершено, добавлено {} из {}.", createdCount, users.size());
+        return Arrays.asList(results);
     }
 
-    private int getNextId() {
-        int currentMaxId = users.keySet()
-                .stream()
-                .mapToInt(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+    private String batchItemValidation(User user) {
+        if (user == null) {
+            return "Элемент пакета не может быть пустым.";
+        }
+        return entityValidator.validate(user);
     }
 
-    private void userEmailValidation(User user) {
-        Optional<User> userOpt = users.values().stream()
-                .filter(user1 -> user1.getEmail().equals(user.getEmail()))
-                .findFirst();
-        if (userOpt.isPresent() && userOpt.get().getId() != user.getId()) {
-            log.error("Пользователь ввёл Email, который уже используется.");
-            throw new ValidationException("Такой Email уже используется.");
+    private void userValidation(User user) {
+        String error = entityValidator.validate(user);
+        if (error != null) {
+            log.error("Пользователь ввёл некорректные данные пользователя: {}", error);
+            throw new ValidationException(error);
         }
     }
 
+    private void batchSizeValidation(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            log.error("Пользователь отправил слишком большой пакет.");
+            throw new ValidationException("Пакет должен содержать не больше " + MAX_BATCH_SIZE + " элементов.");
+        }
+    }
+
+    private int pageLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            log.error("Пользователь ввёл некорректный размер страницы.");
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
+    }
+
+    private NotFoundException userNotFound() {
+        log.error("Пользователь ввёл несуществующий Id.");
+        return new NotFoundException("Такого пользователя не существует.");
+    }
+
     private void userNameValidation(User user) {
         if (user.getName() == null || user.getName().isEmpty() || user.getName().isBlank()) {
             user.setName(user.getLogin());
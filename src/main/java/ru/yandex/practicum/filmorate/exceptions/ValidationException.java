@@ -1,7 +1,11 @@
 package ru.yandex.practicum.filmorate.exceptions;
 
+/**
+ * Ошибка в данных запроса. Стек вызовов не заполняется: исключение описывает ответ 400,
+ * а не сбой, и создаётся на каждый некорректный запрос.
+ */
 public class ValidationException extends RuntimeException {
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+/**
+ * Результат обработки одного элемента пакетного запроса.
+ * Для успешно обработанного элемента заполнен Id, для отклонённого - текст ошибки.
+ */
+@Data
+public class BatchItemResult {
+    private final int index;
+    private final Integer id;
+    private final String error;
+
+    public static BatchItemResult success(int index, int id) {
+        return new BatchItemResult(index, id, null);
+    }
+
+    public static BatchItemResult failure(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+}
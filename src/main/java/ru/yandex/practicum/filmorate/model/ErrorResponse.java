@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+
+@Data
+public class ErrorResponse {
+    private final String error;
+}
@@ -32,4 +32,16 @@ public class Film {
     @NotNull(message = "Продолжительность фильма не может быть пустой.")
     @Positive(message = "Продолжительность фильма не может быть нулевой или отрицательной.")
     private int duration;
+
+    /**
+     * Номер состояния фильма: 1 после добавления, увеличивается при каждом изменении.
+     */
+    private long version;
+
+    public Film copy() {
+        Film copy = new Film(name, description, releaseDate, duration);
+        copy.id = id;
+        copy.version = version;
+        return copy;
+    }
 }
@@ -35,4 +35,17 @@ public class User {
     @Past(message = "Дата рождения не может быть в будущем.")
     @Valid
     private LocalDate birthday;
+
+    /**
+     * Номер состояния пользователя: 1 после добавления, увеличивается при каждом изменении.
+     */
+    private long version;
+
+    public User copy() {
+        User copy = new User(email, login, birthday);
+        copy.id = id;
+        copy.name = name;
+        copy.version = version;
+        return copy;
+    }
 }
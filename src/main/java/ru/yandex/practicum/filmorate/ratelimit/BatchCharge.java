@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Доплата за пакетный запрос. {@link WriteRateLimitFilter} оставляет её в атрибутах допущенного запроса,
+ * а контроллер после разбора пакета вызывает {@link #charge(int)} с числом элементов. Вне запроса
+ * и при выключенном ограничении записи вызов ничего не делает.
+ */
+public final class BatchCharge {
+    static final String ATTRIBUTE = BatchCharge.class.getName();
+
+    private final WriteAdmission admission;
+    private final String client;
+    private final HttpServletResponse response;
+
+    BatchCharge(WriteAdmission admission, String client, HttpServletResponse response) {
+        this.admission = admission;
+        this.client = client;
+        this.response = response;
+    }
+
+    /**
+     * Берёт с клиента текущего запроса токены за {@code items} элементов пакета, при нехватке - в долг.
+     * Если из-за долга клиент не сможет сразу писать снова, ответ получает заголовок {@code Retry-After}.
+     */
+    public static void charge(int items) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null
+                || !(attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof BatchCharge batch)) {
+            return;
+        }
+        long retryAfterSeconds = batch.admission.chargeBatch(batch.client, items);
+        if (retryAfterSeconds > 0) {
+            batch.response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.ErrorResponse;
+
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Вариант {@link WriteRateLimitFilter} для {@code spring.main.web-application-type=reactive}.
+ * Допущенная запись считается выполняющейся до завершения ответа, в том числе ошибкой или отменой.
+ */
+@RequiredArgsConstructor
+public class ReactiveWriteRateLimitFilter implements WebFilter {
+    private final WriteAdmission admission;
+    private final String clientHeader;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!WriteAdmission.isLimited(request.getMethod().name(), pathOf(request))) {
+            return chain.filter(exchange);
+        }
+        WriteAdmission.Rejection rejection = admission.tryAdmit(clientOf(request));
+        if (rejection != null) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(rejection.retryAfterSeconds()));
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(serialize(rejection))));
+        }
+        return chain.filter(exchange).doFinally(signal -> admission.complete());
+    }
+
+    /**
+     * Путь внутри приложения из декодированных сегментов без параметров - так его сопоставляет WebFlux.
+     */
+    private static String pathOf(ServerHttpRequest request) {
+        StringBuilder path = new StringBuilder();
+        for (PathContainer.Element element : request.getPath().pathWithinApplication().elements()) {
+            path.append(element instanceof PathContainer.PathSegment segment ? segment.valueToMatch()
+                    : element.value());
+        }
+        return path.toString();
+    }
+
+    private String clientOf(ServerHttpRequest request) {
+        String client = clientHeader.isEmpty() ? null : request.getHeaders().getFirst(clientHeader);
+        if (client != null && !client.isBlank()) {
+            return client;
+        }
+        InetSocketAddress address = request.getRemoteAddress();
+        return address == null ? "unknown" : address.getHostString();
+    }
+
+    private byte[] serialize(WriteAdmission.Rejection rejection) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(rejection.message()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок. Вместо числа токенов хранится одно число - момент, когда корзина снова
+ * станет полной (алгоритм GCRA): каждый запрос сдвигает его на {@code interval}, и запрос отклоняется,
+ * если момент ушёл дальше чем на {@code burst} интервалов вперёд. Поэтому пропуск запроса - одна операция
+ * compare-and-set, а корзина не требует фонового пополнения.
+ */
+final class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param intervalNanos время восстановления одного токена
+     * @param burst         ёмкость корзины: столько запросов подряд проходит без ожидания
+     */
+    TokenBucket(long intervalNanos, int burst, long now) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Забирает токен. Возвращает 0, если токен получен, иначе время до появления токена в наносекундах.
+     */
+    long tryAcquire(long now) {
+        return tryAcquire(now, 1);
+    }
+
+    /**
+     * Забирает {@code permits} токенов сразу или ни одного. Возвращает 0, если токены получены, иначе время
+     * до появления нужного числа токенов в наносекундах. Больше {@code burst} токенов получить нельзя.
+     */
+    long tryAcquire(long now, int permits) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos * permits;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Забирает {@code permits} токенов, даже если их не хватает: недостача становится долгом, момент полной
+     * корзины уходит дальше {@code burst} интервалов вперёд, и корзина не выдаёт токенов, пока долг
+     * не восстановится. Возвращает время до появления следующего токена в наносекундах, 0 - если он уже есть.
+     */
+    long charge(long now, int permits) {
+        long next = fullAt.accumulateAndGet(now, (current, time) -> Math.max(current, time) + intervalNanos * permits);
+        return Math.max(0, next + intervalNanos - now - burstNanos);
+    }
+
+    /**
+     * Корзина полна, и удаление её ничего не меняет: новая корзина клиента будет такой же.
+     */
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Допуск запросов на запись. Запрос отклоняется, если уже выполняется {@code maxConcurrent} записей
+ * (сброс нагрузки: очередь к журналу и блокировкам не растёт, а чтение не ждёт за ней) или если клиент
+ * исчерпал свою корзину токенов. Отклонённые запросы считаются в метрике {@code filmorate.throttled}
+ * с тегом причины, число выполняющихся записей - в {@code filmorate.writes.in.flight}.
+ * <p>
+ * Корзины клиентов создаются при первом запросе. Когда их больше {@code maxClients}, полные корзины
+ * удаляются: у клиента, который давно не писал, корзина всё равно полна. Запрос, одновременный с удалением
+ * корзины, может получить новую полную корзину, то есть клиент изредка получает лишний токен.
+ * <p>
+ * Ограничиваются запросы POST, PUT, PATCH и DELETE к {@code /films} и {@code /users}. API шарда
+ * не ограничивается: в него пишет только маршрутизатор, который уже ограничил своих клиентов.
+ * Пакетный запрос из n элементов стоит n токенов: один берётся при допуске, остальные - через
+ * {@link #chargeBatch} после разбора пакета, когда число элементов известно. Их клиент берёт в долг:
+ * пакет выполняется, а следующие записи клиента отклоняются, пока долг не восстановится, поэтому
+ * пакет любого размера расходует лимит по числу элементов.
+ */
+@Slf4j
+public class WriteAdmission {
+    static final String THROTTLED_METRIC = "filmorate.throttled";
+    static final String IN_FLIGHT_METRIC = "filmorate.writes.in.flight";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final long intervalNanos;
+    private final int burst;
+    private final int maxConcurrent;
+    private final int maxClients;
+    private final LongSupplier clock;
+    private final Counter rateThrottled;
+    private final Counter overloadThrottled;
+
+    public WriteAdmission(double writesPerSecond, int burst, int maxConcurrent, int maxClients,
+                          MeterRegistry meterRegistry) {
+        this(writesPerSecond, burst, maxConcurrent, maxClients, meterRegistry, System::nanoTime);
+    }
+
+    WriteAdmission(double writesPerSecond, int burst, int maxConcurrent, int maxClients,
+                   MeterRegistry meterRegistry, LongSupplier clock) {
+        if (writesPerSecond <= 0 || burst < 1 || maxConcurrent < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("Ограничения записи должны быть положительными.");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / writesPerSecond));
+        this.burst = burst;
+        this.maxConcurrent = maxConcurrent;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        rateThrottled = throttledCounter(meterRegistry, "rate");
+        overloadThrottled = throttledCounter(meterRegistry, "overload");
+        Gauge.builder(IN_FLIGHT_METRIC, inFlight, AtomicInteger::get)
+                .description("Количество выполняющихся запросов на запись")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Пытается допустить запрос клиента {@code client}. Возвращает null, если запрос допущен, - тогда после
+     * его выполнения нужно вызвать {@link #complete()}. Иначе возвращает причину отказа.
+     */
+    public Rejection tryAdmit(String client) {
+        if (inFlight.incrementAndGet() > maxConcurrent) {
+            inFlight.decrementAndGet();
+            overloadThrottled.increment();
+            log.warn("Запрос на запись отклонён: выполняется слишком много записей.");
+            return new Rejection("Сервер перегружен, повторите запрос позже.", 1);
+        }
+        long now = clock.getAsLong();
+        long wait = bucketOf(client, now).tryAcquire(now);
+        if (wait > 0) {
+            inFlight.decrementAndGet();
+            return rateRejection(client, wait);
+        }
+        return null;
+    }
+
+    /**
+     * Доплата за пакет из {@code items} элементов, уже допущенный через {@link #tryAdmit}: недостающие токены
+     * берутся в долг. Возвращает, через сколько секунд клиент снова сможет писать, или 0, если уже может.
+     */
+    public long chargeBatch(String client, int items) {
+        if (items < 2) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        long wait = bucketOf(client, now).charge(now, items - 1);
+        if (wait > 0) {
+            log.debug("Пакет из {} элементов клиента {} взят в долг.", items, client);
+        }
+        return toSeconds(wait);
+    }
+
+    /**
+     * Проверяет, относится ли запрос к ограничиваемым запросам на запись. {@code path} - путь внутри
+     * приложения, уже декодированный и без параметров пути.
+     */
+    public static boolean isLimited(String method, String path) {
+        return switch (method) {
+            case "POST", "PUT", "PATCH", "DELETE" -> path.equals("/films") || path.startsWith("/films/")
+                    || path.equals("/users") || path.startsWith("/users/");
+            default -> false;
+        };
+    }
+
+    public void complete() {
+        inFlight.decrementAndGet();
+    }
+
+    int clients() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketOf(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients && sweeping.compareAndSet(false, true)) {
+            try {
+                buckets.values().removeIf(idle -> idle.isFull(now));
+            } finally {
+                sweeping.set(false);
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(intervalNanos, burst, now));
+    }
+
+    private Rejection rateRejection(String client, long waitNanos) {
+        rateThrottled.increment();
+        log.warn("Запрос на запись клиента {} отклонён: превышен лимит запросов.", client);
+        return new Rejection("Превышен лимит запросов на запись, повторите запрос позже.",
+                Math.max(1, toSeconds(waitNanos)));
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(THROTTLED_METRIC)
+                .tag("reason", reason)
+                .description("Количество отклонённых запросов на запись")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отказ в допуске: сообщение для клиента и через сколько секунд повторить запрос.
+     */
+    public record Rejection(String message, long retryAfterSeconds) {
+    }
+}
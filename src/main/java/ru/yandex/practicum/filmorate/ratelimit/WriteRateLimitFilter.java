@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import ru.yandex.practicum.filmorate.model.ErrorResponse;
+
+import java.io.IOException;
+
+/**
+ * Фильтр Spring MVC перед контроллерами: запросы на запись сверх лимита получают ответ 429
+ * с заголовком {@code Retry-After}, не доходя до разбора тела и хранилищ. Пакетные запросы доплачивают
+ * за элементы через {@link BatchCharge}, который фильтр оставляет в атрибутах запроса: пакет выполняется,
+ * а его долг отклоняет следующие записи клиента.
+ * Клиент определяется заголовком {@code clientHeader}, если он задан и есть в запросе, иначе адресом.
+ */
+@RequiredArgsConstructor
+public class WriteRateLimitFilter extends OncePerRequestFilter {
+    private final WriteAdmission admission;
+    private final String clientHeader;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Путь берётся декодированным и без параметров пути, как его сопоставляет Spring MVC, иначе запись
+     * по адресу вида {@code /film%73} или {@code /films;x=1} дошла бы до контроллера мимо ограничения.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !WriteAdmission.isLimited(request.getMethod(),
+                UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        WriteAdmission.Rejection rejection = admission.tryAdmit(client);
+        if (rejection != null) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rejection.retryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(rejection.message()));
+            return;
+        }
+        request.setAttribute(BatchCharge.ATTRIBUTE, new BatchCharge(admission, client, response));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admission.complete();
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = clientHeader.isEmpty() ? null : request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.IntHashSet;
+import ru.yandex.practicum.filmorate.storage.LikeStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeSearch;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearch;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FilmService {
+    private static final int MAX_COUNT = 1000;
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final LikeStorage likeStorage;
+    private final FilmSearch searchIndex;
+    private final FilmRangeSearch rangeIndex;
+
+    public void addLike(int filmId, int userId) {
+        checkFilmAndUser(filmId, userId);
+        likeStorage.addLike(filmId, userId);
+    }
+
+    public void removeLike(int filmId, int userId) {
+        checkFilmAndUser(filmId, userId);
+        likeStorage.removeLike(filmId, userId);
+    }
+
+    /**
+     * Возвращает {@code count} самых популярных фильмов. Если фильмов с лайками меньше,
+     * список дополняется фильмами без лайков в порядке возрастания Id.
+     * <p>
+     * В этом случае все фильмы с лайками уже в списке, поэтому среди первых {@code count + filmIds.length}
+     * фильмов хватает фильмов без лайков: читается одна ограниченная страница, а лайки отдельных фильмов
+     * не проверяются.
+     */
+    public List<Film> getPopular(int count) {
+        countValidation(count);
+        int[] filmIds = likeStorage.findMostLiked(count);
+        List<Film> films = new ArrayList<>(count);
+        for (int filmId : filmIds) {
+            filmStorage.findById(filmId).ifPresent(films::add);
+        }
+        if (films.size() < count) {
+            IntHashSet likedFilmIds = new IntHashSet();
+            for (int filmId : filmIds) {
+                likedFilmIds.add(filmId);
+            }
+            for (Film film : filmStorage.findPage(0, count + filmIds.length)) {
+                if (films.size() == count) {
+                    break;
+                }
+                if (!likedFilmIds.contains(film.getId())) {
+                    films.add(film);
+                }
+            }
+        }
+        return films;
+    }
+
+    /**
+     * Возвращает не более {@code count} фильмов, в названии или описании которых есть каждое слово запроса
+     * целиком или его начало, начиная с самых подходящих.
+     */
+    public List<Film> search(String query, int count) {
+        countValidation(count);
+        int[] filmIds = searchIndex.search(query, count);
+        List<Film> films = new ArrayList<>(filmIds.length);
+        for (int filmId : filmIds) {
+            filmStorage.findById(filmId).ifPresent(films::add);
+        }
+        return films;
+    }
+
+    /**
+     * Возвращает по возрастанию Id не более {@code limit} фильмов с Id больше {@code afterId},
+     * вышедших в промежутке лет и с продолжительностью в промежутке. Пустая граница не ограничивает.
+     * Курсор и лимит передаются индексу, поэтому он читает только Id этой страницы.
+     */
+    public List<Film> findFiltered(Integer fromYear, Integer toYear, Integer minDuration, Integer maxDuration,
+                                   int afterId, int limit) {
+        LocalDate releasedFrom = fromYear == null ? null : LocalDate.of(fromYear, 1, 1);
+        LocalDate releasedTo = toYear == null ? null : LocalDate.of(toYear, 12, 31);
+        int[] filmIds = rangeIndex.findIds(releasedFrom, releasedTo, minDuration, maxDuration, afterId, limit);
+        List<Film> films = new ArrayList<>(filmIds.length);
+        for (int filmId : filmIds) {
+            filmStorage.findById(filmId).ifPresent(films::add);
+        }
+        return films;
+    }
+
+    private void countValidation(int count) {
+        if (count < 1 || count > MAX_COUNT) {
+            log.error("Пользователь ввёл некорректное количество фильмов.");
+            throw new ValidationException("Количество фильмов должно быть от 1 до " + MAX_COUNT + ".");
+        }
+    }
+
+    private void checkFilmAndUser(int filmId, int userId) {
+        if (filmStorage.findById(filmId).isEmpty()) {
+            log.error("Пользователь ввёл несуществующий Id фильма.");
+            throw new NotFoundException("Такого фильма не существует.");
+        }
+        if (userStorage.findById(userId).isEmpty()) {
+            log.error("Пользователь ввёл несуществующий Id пользователя.");
+            throw new NotFoundException("Такого пользователя не существует.");
+        }
+    }
+}
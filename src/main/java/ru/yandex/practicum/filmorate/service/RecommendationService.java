@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.LikeStorage;
+import ru.yandex.practicum.filmorate.storage.TopK;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Рекомендации фильмов по лайкам похожих пользователей. Похожие пользователи - те, у кого больше всего
+ * общих лайков с пользователем. Рекомендуются фильмы, которые они лайкнули, а пользователь ещё нет;
+ * фильм выше в списке, если его лайкнуло больше похожих пользователей, при равенстве - с меньшим Id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecommendationService {
+    static final int SIMILAR_USERS = 10;
+    private static final int MAX_COUNT = 1000;
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final LikeStorage likeStorage;
+
+    public List<Film> getRecommendations(int userId, int count) {
+        if (userStorage.findById(userId).isEmpty()) {
+            log.error("Пользователь ввёл несуществующий Id пользователя.");
+            throw new NotFoundException("Такого пользователя не существует.");
+        }
+        if (count < 1 || count > MAX_COUNT) {
+            log.error("Пользователь ввёл некорректное количество фильмов.");
+            throw new ValidationException("Количество фильмов должно быть от 1 до " + MAX_COUNT + ".");
+        }
+        int[] likedFilmIds = likeStorage.findLikedFilmIds(userId);
+        int[] candidates = new int[0];
+        int candidateCount = 0;
+        for (int similarUserId : likeStorage.findSimilarUsers(userId, SIMILAR_USERS)) {
+            for (int filmId : likeStorage.findLikedFilmIds(similarUserId)) {
+                if (Arrays.binarySearch(likedFilmIds, filmId) < 0) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, Math.max(16, candidateCount * 2));
+                    }
+                    candidates[candidateCount++] = filmId;
+                }
+            }
+        }
+        List<Film> films = new ArrayList<>();
+        for (int filmId : rankCandidates(candidates, candidateCount, count)) {
+            filmStorage.findById(filmId).ifPresent(films::add);
+        }
+        return films;
+    }
+
+    /**
+     * Считает, сколько раз встречается каждый фильм, и возвращает не более {@code count} самых частых.
+     * Частоты проходят через ограниченную кучу, поэтому сортируются только отобранные фильмы.
+     */
+    private static int[] rankCandidates(int[] candidates, int candidateCount, int count) {
+        Arrays.sort(candidates, 0, candidateCount);
+        TopK top = new TopK(Math.min(count, candidateCount));
+        for (int i = 0; i < candidateCount; ) {
+            int j = i;
+            while (j < candidateCount && candidates[j] == candidates[i]) {
+                j++;
+            }
+            top.offer(j - i, candidates[i]);
+            i = j;
+        }
+        return top.toIds();
+    }
+}
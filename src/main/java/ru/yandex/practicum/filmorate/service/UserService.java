@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FriendStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserService {
+    private final UserStorage userStorage;
+    private final FriendStorage friendStorage;
+
+    public void addFriend(int userId, int friendId) {
+        checkFriendPair(userId, friendId);
+        friendStorage.addFriend(userId, friendId);
+    }
+
+    public void removeFriend(int userId, int friendId) {
+        checkFriendPair(userId, friendId);
+        friendStorage.removeFriend(userId, friendId);
+    }
+
+    public List<User> getFriends(int userId) {
+        checkUser(userId);
+        return toUsers(friendStorage.findFriendIds(userId));
+    }
+
+    public List<User> getCommonFriends(int userId, int otherId) {
+        checkUser(userId);
+        checkUser(otherId);
+        return toUsers(friendStorage.findCommonFriendIds(userId, otherId));
+    }
+
+    private List<User> toUsers(int[] userIds) {
+        List<User> users = new ArrayList<>(userIds.length);
+        for (int userId : userIds) {
+            userStorage.findById(userId).ifPresent(users::add);
+        }
+        return users;
+    }
+
+    private void checkFriendPair(int userId, int friendId) {
+        if (userId == friendId) {
+            log.error("Пользователь попытался добавить в друзья самого себя.");
+            throw new ValidationException("Пользователь не может быть другом самому себе.");
+        }
+        checkUser(userId);
+        checkUser(friendId);
+    }
+
+    private void checkUser(int userId) {
+        if (userStorage.findById(userId).isEmpty()) {
+            log.error("Пользователь ввёл несуществующий Id пользователя.");
+            throw new NotFoundException("Такого пользователя не существует.");
+        }
+    }
+}
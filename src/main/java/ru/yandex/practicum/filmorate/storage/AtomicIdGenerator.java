@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор идентификаторов на атомарном счётчике: выдача Id и резервирование диапазона
+ * выполняются за O(1) независимо от количества уже сохранённых сущностей.
+ */
+public class AtomicIdGenerator implements IdGenerator {
+    private final AtomicInteger lastId;
+
+    public AtomicIdGenerator() {
+        this(0);
+    }
+
+    /**
+     * Создаёт генератор, продолжающий нумерацию после уже выданного {@code lastId}.
+     */
+    public AtomicIdGenerator(int lastId) {
+        this.lastId = new AtomicInteger(lastId);
+    }
+
+    @Override
+    public int nextId() {
+        return reserve(1);
+    }
+
+    @Override
+    public int reserve(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Количество резервируемых Id должно быть положительным.");
+        }
+        return lastId.getAndUpdate(current -> Math.addExact(current, count)) + 1;
+    }
+}
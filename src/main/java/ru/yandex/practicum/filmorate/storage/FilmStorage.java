@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+public interface FilmStorage {
+    /**
+     * Ожидаемая версия, при которой обновление выполняется без проверки версии.
+     */
+    long ANY_VERSION = -1;
+
+    /**
+     * Возвращает все фильмы в порядке возрастания Id. Коллекция не копируется,
+     * поэтому её можно обходить по мере записи ответа.
+     */
+    Collection<Film> findAll();
+
+    /**
+     * Возвращает не более {@code limit} фильмов с Id больше {@code afterId} в порядке возрастания Id.
+     */
+    List<Film> findPage(int afterId, int limit);
+
+    Optional<Film> findById(int id);
+
+    Film create(Film film);
+
+    /**
+     * Добавляет фильмы, выделяя им Id одним непрерывным диапазоном.
+     */
+    List<Film> createAll(List<Film> films);
+
+    /**
+     * Обновляет данные существующего фильма без проверки версии.
+     * Возвращает новое состояние фильма или пустой Optional, если фильма с таким Id нет.
+     */
+    Optional<Film> update(Film film);
+
+    /**
+     * Заменяет фильм состоянием, которое {@code change} строит из копии текущего, и увеличивает версию.
+     * Сохранённые фильмы не изменяются, поэтому при чтении фильм виден целиком в прежнем или в новом состоянии.
+     * Если {@code expectedVersion} не {@link #ANY_VERSION} и не совпадает с версией фильма, выбрасывает
+     * ConflictException. Возвращает новое состояние фильма или пустой Optional, если фильма с таким Id нет.
+     */
+    Optional<Film> update(int id, long expectedVersion, UnaryOperator<Film> change);
+
+    int size();
+
+    /**
+     * Версия данных хранилища. Увеличивается при каждом добавлении и изменении после того, как изменение
+     * стало видно при чтении, поэтому совпадение версий гарантирует, что данные не менялись.
+     */
+    long version();
+}
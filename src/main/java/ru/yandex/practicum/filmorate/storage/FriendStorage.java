@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.storage;
+
+/**
+ * Взаимная дружба пользователей: если пользователь A в друзьях у B, то и B в друзьях у A.
+ */
+public interface FriendStorage {
+    /**
+     * Добавляет дружбу между пользователями. Возвращает false, если они уже друзья.
+     */
+    boolean addFriend(int userId, int friendId);
+
+    /**
+     * Удаляет дружбу между пользователями. Возвращает false, если они не были друзьями.
+     */
+    boolean removeFriend(int userId, int friendId);
+
+    /**
+     * Возвращает Id друзей пользователя в порядке возрастания.
+     */
+    int[] findFriendIds(int userId);
+
+    /**
+     * Возвращает Id общих друзей двух пользователей в порядке возрастания.
+     */
+    int[] findCommonFriendIds(int userId, int otherId);
+}
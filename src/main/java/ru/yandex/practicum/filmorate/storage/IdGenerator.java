@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.storage;
+
+/**
+ * Источник идентификаторов сущностей.
+ * Реализации обязаны выдавать уникальные значения при вызове из нескольких потоков.
+ */
+public interface IdGenerator {
+    /**
+     * Выдаёт следующий свободный идентификатор.
+     */
+    int nextId();
+
+    /**
+     * Резервирует непрерывный диапазон из {@code count} идентификаторов
+     * и возвращает первый из них. Используется при пакетной вставке.
+     */
+    int reserve(int count);
+}
@@ -0,0 +1,239 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.ConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.index.FilmIndex;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+import ru.yandex.practicum.filmorate.storage.persistence.Snapshot;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранилище фильмов в памяти, упорядоченное по Id. Чтение выполняется без блокировок,
+ * изменения одного фильма выполняются по очереди под блокировкой его Id. Сохранённый фильм не изменяется:
+ * изменение заменяет его новым объектом, поэтому читатели не видят частично изменённых фильмов.
+ * Каждое изменение записывается в журнал в том же порядке, в каком применяется к данным,
+ * и подтверждается только после сброса журнала на диск.
+ * Фильмы из последнего снимка при запуске не загружаются, а переносятся в память при первом обращении.
+ * <p>
+ * Вторичные индексы обновляются под той же блокировкой Id, что и сам фильм. Фильмы из снимка
+ * попадают в индексы в фоновом потоке, поэтому сразу после запуска поиск по индексам может быть неполным.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "filmorate.partition", name = "enabled", havingValue = "false",
+        matchIfMissing = true)
+public class InMemoryFilmStorage implements FilmStorage {
+    @Getter
+    private final NavigableMap<Integer, Film> films = new ConcurrentSkipListMap<>();
+    private final StripedLocks locks = new StripedLocks(64);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long snapshotVersion;
+    private final Journal<Film> journal;
+    private final IdGenerator idGenerator;
+    private final LazySnapshot<Film> snapshot;
+    private final int snapshotMaxId;
+    private final List<FilmIndex> indexes;
+
+    public InMemoryFilmStorage() {
+        this(Journal.none());
+    }
+
+    public InMemoryFilmStorage(Journal<Film> journal) {
+        this(journal, List.of());
+    }
+
+    @Autowired
+    public InMemoryFilmStorage(Journal<Film> journal, List<FilmIndex> indexes) {
+        this.journal = journal;
+        this.indexes = List.copyOf(indexes);
+        Snapshot<Film> lastSnapshot = journal.openSnapshot();
+        journal.replay(film -> {
+            films.put(film.getId(), film);
+            index(film);
+        });
+        snapshot = new LazySnapshot<>(lastSnapshot, films, Film::getId);
+        snapshotVersion = films.isEmpty() ? 0 : -1;
+        snapshotMaxId = lastSnapshot.maxId();
+        idGenerator = new AtomicIdGenerator(maxId());
+        if (!this.indexes.isEmpty() && lastSnapshot.size() > 0) {
+            Thread.ofPlatform().name("film-snapshot-indexer").daemon().start(() -> indexSnapshot(lastSnapshot));
+        }
+    }
+
+    @Override
+    public Collection<Film> findAll() {
+        snapshot.loadAll();
+        return Collections.unmodifiableCollection(films.values());
+    }
+
+    @Override
+    public List<Film> findPage(int afterId, int limit) {
+        snapshot.loadAll();
+        return films.tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Optional<Film> findById(int id) {
+        return Optional.ofNullable(snapshot.get(id));
+    }
+
+    @Override
+    public Film create(Film film) {
+        film.setId(idGenerator.nextId());
+        journal.awaitDurable(save(film));
+        return film;
+    }
+
+    @Override
+    public List<Film> createAll(List<Film> newFilms) {
+        if (newFilms.isEmpty()) {
+            return newFilms;
+        }
+        int id = idGenerator.reserve(newFilms.size());
+        long sequence = 0;
+        for (Film film : newFilms) {
+            film.setId(id++);
+            sequence = save(film);
+        }
+        journal.awaitDurable(sequence);
+        return newFilms;
+    }
+
+    @Override
+    public Optional<Film> update(Film updatedFilm) {
+        return update(updatedFilm.getId(), ANY_VERSION, film -> {
+            film.setName(updatedFilm.getName());
+            film.setDescription(updatedFilm.getDescription());
+            film.setDuration(updatedFilm.getDuration());
+            film.setReleaseDate(updatedFilm.getReleaseDate());
+            return film;
+        });
+    }
+
+    @Override
+    public Optional<Film> update(int id, long expectedVersion, UnaryOperator<Film> change) {
+        Film newFilm;
+        long sequence;
+        Lock lock = locks.get(id);
+        lock.lock();
+        try {
+            Film oldFilm = snapshot.get(id);
+            if (oldFilm == null) {
+                return Optional.empty();
+            }
+            if (expectedVersion != ANY_VERSION && expectedVersion != oldFilm.getVersion()) {
+                log.error("Фильм изменён другим запросом.");
+                throw new ConflictException("Фильм изменён другим запросом, получите его заново.");
+            }
+            newFilm = change.apply(oldFilm.copy());
+            newFilm.setId(id);
+            newFilm.setVersion(oldFilm.getVersion() + 1);
+            films.put(id, newFilm);
+            index(newFilm);
+            version.incrementAndGet();
+            sequence = journal.append(newFilm);
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(sequence);
+        return Optional.of(newFilm);
+    }
+
+    /**
+     * Добавляет фильмы с уже выданными Id, не трогая собственный генератор Id. Используется шардом
+     * партиционированного хранилища, которому Id выдаёт маршрутизатор.
+     */
+    public void insertAll(List<Film> newFilms) {
+        long sequence = 0;
+        for (Film film : newFilms) {
+            sequence = save(film);
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    /**
+     * Наибольший Id среди сохранённых, включая ещё не загруженные из снимка.
+     */
+    public int maxId() {
+        return Math.max(films.isEmpty() ? 0 : films.lastKey(), snapshotMaxId);
+    }
+
+    @Override
+    public int size() {
+        return films.size() + snapshot.pending();
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Сохраняет снимок, если после запуска или прошлого снимка были изменения. Записи прошлого снимка,
+     * ещё не загруженные в память, переписываются из него напрямую и в памяти не остаются.
+     */
+    public void snapshot() {
+        long current = version.get();
+        if (current == snapshotVersion) {
+            return;
+        }
+        journal.snapshot(snapshot.records());
+        snapshotVersion = current;
+    }
+
+    private long save(Film film) {
+        Lock lock = locks.get(film.getId());
+        lock.lock();
+        try {
+            film.setVersion(1);
+            films.put(film.getId(), film);
+            index(film);
+            version.incrementAndGet();
+            return journal.append(film);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void index(Film film) {
+        for (FilmIndex index : indexes) {
+            index.put(film);
+        }
+    }
+
+    /**
+     * Добавляет в индексы фильмы снимка. Фильм, уже проиндексированный после запуска, новее записи снимка
+     * и ею не перезаписывается.
+     */
+    private void indexSnapshot(Snapshot<Film> lastSnapshot) {
+        long start = System.nanoTime();
+        lastSnapshot.forEach(film -> {
+            Lock lock = locks.get(film.getId());
+            lock.lock();
+            try {
+                for (FilmIndex index : indexes) {
+                    index.putIfAbsent(film);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+        log.info("Фильмы снимка добавлены в индексы за {} мс.", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Друзья в памяти в виде списков смежности: для каждого пользователя хранится отсортированный
+ * массив Id друзей, то есть 4 байта на каждое направление дружбы без упаковки в Integer.
+ * Массив не изменяется после публикации - изменение создаёт новый массив под блокировками
+ * обоих пользователей, поэтому чтение не требует блокировок и всегда видит согласованный список.
+ * Общие друзья находятся слиянием двух отсортированных массивов за O(n + m).
+ */
+@Component
+public class InMemoryFriendStorage implements FriendStorage {
+    private static final int[] NO_FRIENDS = new int[0];
+
+    private final Map<Integer, int[]> friends = new ConcurrentHashMap<>();
+    private final StripedLocks locks = new StripedLocks(64);
+
+    @Override
+    public boolean addFriend(int userId, int friendId) {
+        locks.lockPair(userId, friendId);
+        try {
+            int[] userFriends = findFriendIds(userId);
+            int index = Arrays.binarySearch(userFriends, friendId);
+            if (index >= 0) {
+                return false;
+            }
+            friends.put(userId, insert(userFriends, -index - 1, friendId));
+            int[] friendFriends = findFriendIds(friendId);
+            friends.put(friendId, insert(friendFriends, -Arrays.binarySearch(friendFriends, userId) - 1, userId));
+            return true;
+        } finally {
+            locks.unlockPair(userId, friendId);
+        }
+    }
+
+    @Override
+    public boolean removeFriend(int userId, int friendId) {
+        locks.lockPair(userId, friendId);
+        try {
+            int[] userFriends = findFriendIds(userId);
+            int index = Arrays.binarySearch(userFriends, friendId);
+            if (index < 0) {
+                return false;
+            }
+            replace(userId, delete(userFriends, index));
+            int[] friendFriends = findFriendIds(friendId);
+            replace(friendId, delete(friendFriends, Arrays.binarySearch(friendFriends, userId)));
+            return true;
+        } finally {
+            locks.unlockPair(userId, friendId);
+        }
+    }
+
+    @Override
+    public int[] findFriendIds(int userId) {
+        return friends.getOrDefault(userId, NO_FRIENDS);
+    }
+
+    @Override
+    public int[] findCommonFriendIds(int userId, int otherId) {
+        int[] first = findFriendIds(userId);
+        int[] second = findFriendIds(otherId);
+        int[] common = new int[Math.min(first.length, second.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                common[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return count == common.length ? common : Arrays.copyOf(common, count);
+    }
+
+    private void replace(int userId, int[] userFriends) {
+        if (userFriends.length == 0) {
+            friends.remove(userId);
+        } else {
+            friends.put(userId, userFriends);
+        }
+    }
+
+    private static int[] insert(int[] ids, int index, int id) {
+        int[] result = new int[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        result[index] = id;
+        System.arraycopy(ids, index, result, index + 1, ids.length - index);
+        return result;
+    }
+
+    private static int[] delete(int[] ids, int index) {
+        int[] result = new int[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+        return result;
+    }
+}
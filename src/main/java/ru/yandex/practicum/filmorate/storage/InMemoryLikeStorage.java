@@ -0,0 +1,149 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Лайки в памяти. Для каждого фильма хранится множество Id пользователей, поставивших лайк,
+ * а все фильмы с лайками упорядочены в рейтинге по количеству лайков. Рейтинг меняется вместе
+ * с лайком под блокировкой Id фильма, поэтому самые популярные фильмы читаются из его начала
+ * за O(count) без сортировки и без блокировок.
+ * <p>
+ * Элемент рейтинга - long, в старших 32 битах которого количество лайков, а в младших -
+ * {@code Integer.MAX_VALUE - filmId}: при обходе по убыванию фильмы с равным количеством лайков
+ * идут по возрастанию Id. Перемещение фильма в рейтинге - удаление старого элемента и добавление нового,
+ * поэтому чтение рейтинга в этот момент может не увидеть фильм, но никогда не увидит его дважды.
+ * <p>
+ * Лайки каждого пользователя дополнительно хранятся в {@link UserLikeTable} для поиска похожих пользователей.
+ * Лайк меняется под блокировками и фильма, и пользователя.
+ */
+@Component
+public class InMemoryLikeStorage implements LikeStorage {
+    private final Map<Integer, IntHashSet> likes = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> ranking = new ConcurrentSkipListSet<Long>().descendingSet();
+    private final UserLikeTable userLikes = new UserLikeTable();
+    private final StripedLocks locks = new StripedLocks(64);
+
+    @Override
+    public boolean addLike(int filmId, int userId) {
+        locks.lockPair(filmId, userId);
+        try {
+            IntHashSet users = likes.computeIfAbsent(filmId, id -> new IntHashSet());
+            if (!users.add(userId)) {
+                return false;
+            }
+            rerank(filmId, users.size() - 1, users.size());
+            userLikes.add(userId, filmId);
+            return true;
+        } finally {
+            locks.unlockPair(filmId, userId);
+        }
+    }
+
+    @Override
+    public boolean removeLike(int filmId, int userId) {
+        locks.lockPair(filmId, userId);
+        try {
+            IntHashSet users = likes.get(filmId);
+            if (users == null || !users.remove(userId)) {
+                return false;
+            }
+            rerank(filmId, users.size() + 1, users.size());
+            if (users.size() == 0) {
+                likes.remove(filmId);
+            }
+            userLikes.remove(userId, filmId);
+            return true;
+        } finally {
+            locks.unlockPair(filmId, userId);
+        }
+    }
+
+    @Override
+    public int countLikes(int filmId) {
+        Lock lock = locks.get(filmId);
+        lock.lock();
+        try {
+            IntHashSet users = likes.get(filmId);
+            return users == null ? 0 : users.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int[] findMostLiked(int count) {
+        int[] filmIds = new int[Math.max(0, Math.min(count, likes.size()))];
+        int found = 0;
+        Iterator<Long> iterator = ranking.iterator();
+        while (found < count && iterator.hasNext()) {
+            if (found == filmIds.length) {
+                filmIds = Arrays.copyOf(filmIds, Math.min(count, found * 2 + 1));
+            }
+            filmIds[found++] = Integer.MAX_VALUE - (int) (long) iterator.next();
+        }
+        return found == filmIds.length ? filmIds : Arrays.copyOf(filmIds, found);
+    }
+
+    @Override
+    public int[] findLikedFilmIds(int userId) {
+        return userLikes.get(userId);
+    }
+
+    /**
+     * Если суммарно у фильмов пользователя лайков меньше, чем пользователей с лайками, похожие пользователи
+     * находятся подсчётом повторов в списках лайкнувших эти фильмы, иначе - сравнением со всеми пользователями.
+     */
+    @Override
+    public int[] findSimilarUsers(int userId, int count) {
+        int[] filmIds = userLikes.get(userId);
+        if (filmIds.length == 0 || count < 1) {
+            return filmIds;
+        }
+        long likers = 0;
+        for (int filmId : filmIds) {
+            likers += countLikes(filmId);
+        }
+        if (likers > userLikes.size()) {
+            return userLikes.findSimilarUsers(userId, count);
+        }
+        int[] userIds = new int[(int) likers];
+        int length = 0;
+        for (int filmId : filmIds) {
+            Lock lock = locks.get(filmId);
+            lock.lock();
+            try {
+                IntHashSet users = likes.get(filmId);
+                if (users != null) {
+                    if (length + users.size() > userIds.length) {
+                        userIds = Arrays.copyOf(userIds, Math.max(length + users.size(), userIds.length * 2));
+                    }
+                    length = users.copyTo(userIds, length);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return UserLikeTable.findMostFrequent(userIds, length, userId, count);
+    }
+
+    private void rerank(int filmId, int oldCount, int newCount) {
+        if (oldCount > 0) {
+            ranking.remove(rank(filmId, oldCount));
+        }
+        if (newCount > 0) {
+            ranking.add(rank(filmId, newCount));
+        }
+    }
+
+    private static long rank(int filmId, int likeCount) {
+        return (long) likeCount << 32 | (Integer.MAX_VALUE - filmId);
+    }
+}
@@ -0,0 +1,272 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.ConflictException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+import ru.yandex.practicum.filmorate.storage.persistence.Snapshot;
+import ru.yandex.practicum.filmorate.storage.persistence.UserCodec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранилище пользователей в памяти, упорядоченное по Id. Чтение выполняется без блокировок,
+ * изменения одного пользователя выполняются по очереди под блокировкой его Id. Сохранённый пользователь
+ * не изменяется: изменение заменяет его новым объектом, поэтому читатели не видят частично изменённых данных.
+ * Уникальность Email обеспечивается индексом Email -> Id, который меняется вместе с данными пользователя.
+ * Каждое изменение записывается в журнал в том же порядке, в каком применяется к данным,
+ * и подтверждается только после сброса журнала на диск.
+ * Пользователи из последнего снимка при запуске не загружаются, а переносятся в память при первом обращении;
+ * при запуске из снимка читаются только Email для индекса.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "filmorate.partition", name = "enabled", havingValue = "false",
+        matchIfMissing = true)
+public class InMemoryUserStorage implements UserStorage {
+    @Getter
+    private final NavigableMap<Integer, User> users = new ConcurrentSkipListMap<>();
+    private final Map<String, Integer> emailIndex = new ConcurrentHashMap<>();
+    private final StripedLocks locks = new StripedLocks(64);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long snapshotVersion;
+    private final Journal<User> journal;
+    private final IdGenerator idGenerator;
+    private final LazySnapshot<User> snapshot;
+    private final int snapshotMaxId;
+
+    public InMemoryUserStorage() {
+        this(Journal.none());
+    }
+
+    @Autowired
+    public InMemoryUserStorage(Journal<User> journal) {
+        this.journal = journal;
+        Snapshot<User> lastSnapshot = journal.openSnapshot();
+        lastSnapshot.forEachRecord((id, record) -> emailIndex.put(normalizeEmail(UserCodec.readEmail(record)), id));
+        journal.replay(user -> {
+            User oldUser = users.put(user.getId(), user);
+            if (oldUser == null) {
+                oldUser = lastSnapshot.get(user.getId());
+            }
+            if (oldUser != null) {
+                emailIndex.remove(normalizeEmail(oldUser.getEmail()), oldUser.getId());
+            }
+            emailIndex.put(normalizeEmail(user.getEmail()), user.getId());
+        });
+        snapshot = new LazySnapshot<>(lastSnapshot, users, User::getId);
+        snapshotVersion = users.isEmpty() ? 0 : -1;
+        snapshotMaxId = lastSnapshot.maxId();
+        idGenerator = new AtomicIdGenerator(maxId());
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        snapshot.loadAll();
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    @Override
+    public List<User> findPage(int afterId, int limit) {
+        snapshot.loadAll();
+        return users.tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        return Optional.ofNullable(snapshot.get(id));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        Integer id = emailIndex.get(normalizeEmail(email));
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public User create(User user) {
+        if (emailIndex.containsKey(normalizeEmail(user.getEmail()))) {
+            throw emailAlreadyUsed();
+        }
+        int id = idGenerator.nextId();
+        claimEmail(user.getEmail(), id);
+        user.setId(id);
+        journal.awaitDurable(save(user));
+        return user;
+    }
+
+    @Override
+    public List<User> createAll(List<User> newUsers) {
+        if (newUsers.isEmpty()) {
+            return newUsers;
+        }
+        List<User> createdUsers = new ArrayList<>(newUsers.size());
+        int id = idGenerator.reserve(newUsers.size());
+        long sequence = 0;
+        for (User user : newUsers) {
+            int userId = id++;
+            if (emailIndex.putIfAbsent(normalizeEmail(user.getEmail()), userId) == null) {
+                user.setId(userId);
+                sequence = save(user);
+                createdUsers.add(user);
+            } else {
+                user.setId(0);
+            }
+        }
+        journal.awaitDurable(sequence);
+        return createdUsers;
+    }
+
+    @Override
+    public Optional<User> update(User updatedUser) {
+        return update(updatedUser.getId(), ANY_VERSION, user -> {
+            user.setName(updatedUser.getName());
+            user.setBirthday(updatedUser.getBirthday());
+            user.setLogin(updatedUser.getLogin());
+            user.setEmail(updatedUser.getEmail());
+            return user;
+        });
+    }
+
+    @Override
+    public Optional<User> update(int id, long expectedVersion, UnaryOperator<User> change) {
+        User newUser;
+        long sequence;
+        Lock lock = locks.get(id);
+        lock.lock();
+        try {
+            User oldUser = snapshot.get(id);
+            if (oldUser == null) {
+                return Optional.empty();
+            }
+            if (expectedVersion != ANY_VERSION && expectedVersion != oldUser.getVersion()) {
+                log.error("Пользователь изменён другим запросом.");
+                throw new ConflictException("Пользователь изменён другим запросом, получите его заново.");
+            }
+            newUser = change.apply(oldUser.copy());
+            newUser.setId(id);
+            newUser.setVersion(oldUser.getVersion() + 1);
+            String oldEmail = normalizeEmail(oldUser.getEmail());
+            if (!oldEmail.equals(normalizeEmail(newUser.getEmail()))) {
+                claimEmail(newUser.getEmail(), id);
+                emailIndex.remove(oldEmail, id);
+            }
+            users.put(id, newUser);
+            version.incrementAndGet();
+            sequence = journal.append(newUser);
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(sequence);
+        return Optional.of(newUser);
+    }
+
+    /**
+     * Добавляет пользователей с уже выданными Id, не трогая собственный генератор Id. Используется шардом
+     * партиционированного хранилища, которому Id выдаёт маршрутизатор. Выбрасывает ValidationException,
+     * если Email уже используется, - уже добавленные к этому моменту пользователи остаются в хранилище.
+     */
+    public void insertAll(List<User> newUsers) {
+        long sequence = 0;
+        for (User user : newUsers) {
+            claimEmail(user.getEmail(), user.getId());
+            sequence = save(user);
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    /**
+     * Id владельцев Email из {@code emails}, занятых в хранилище, по Email в нижнем регистре.
+     * Пользователи из снимка при этом не загружаются: индекс Email строится при запуске.
+     */
+    public Map<String, Integer> findEmailOwners(Collection<String> emails) {
+        Map<String, Integer> owners = new HashMap<>();
+        for (String email : emails) {
+            String normalizedEmail = normalizeEmail(email);
+            Integer id = emailIndex.get(normalizedEmail);
+            if (id != null) {
+                owners.put(normalizedEmail, id);
+            }
+        }
+        return owners;
+    }
+
+    /**
+     * Наибольший Id среди сохранённых, включая ещё не загруженные из снимка.
+     */
+    public int maxId() {
+        return Math.max(users.isEmpty() ? 0 : users.lastKey(), snapshotMaxId);
+    }
+
+    @Override
+    public int size() {
+        return users.size() + snapshot.pending();
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Сохраняет снимок, если после запуска или прошлого снимка были изменения. Записи прошлого снимка,
+     * ещё не загруженные в память, переписываются из него напрямую и в памяти не остаются.
+     */
+    public void snapshot() {
+        long current = version.get();
+        if (current == snapshotVersion) {
+            return;
+        }
+        journal.snapshot(snapshot.records());
+        snapshotVersion = current;
+    }
+
+    private long save(User user) {
+        Lock lock = locks.get(user.getId());
+        lock.lock();
+        try {
+            user.setVersion(1);
+            users.put(user.getId(), user);
+            version.incrementAndGet();
+            return journal.append(user);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void claimEmail(String email, int id) {
+        Integer ownerId = emailIndex.putIfAbsent(normalizeEmail(email), id);
+        if (ownerId != null && ownerId != id) {
+            throw emailAlreadyUsed();
+        }
+    }
+
+    private ValidationException emailAlreadyUsed() {
+        log.error("Пользователь ввёл Email, который уже используется.");
+        return new ValidationException("Такой Email уже используется.");
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
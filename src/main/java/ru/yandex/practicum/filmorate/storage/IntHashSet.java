@@ -0,0 +1,126 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Arrays;
+
+/**
+ * Множество положительных int без упаковки в Integer: открытая адресация с линейным пробированием,
+ * 0 обозначает пустую ячейку. Не потокобезопасно - доступ синхронизирует владелец множества.
+ */
+public final class IntHashSet {
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private int size;
+
+    public IntHashSet() {
+        keys = new int[MIN_CAPACITY];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Добавляет положительный ключ и возвращает false, если он уже был в множестве.
+     */
+    public boolean add(int key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Ключ должен быть положительным.");
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return false;
+            }
+        }
+        keys[i] = key;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет ключ и возвращает false, если его не было в множестве.
+     * Следующие за ним ключи той же цепочки сдвигаются назад, поэтому пометки удаления не нужны.
+     */
+    public boolean remove(int key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Копирует ключи в {@code target} начиная с {@code offset} и возвращает позицию после последнего ключа.
+     */
+    public int copyTo(int[] target, int offset) {
+        for (int key : keys) {
+            if (key != 0) {
+                target[offset++] = key;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Возвращает ключи в порядке возрастания.
+     */
+    public int[] toSortedArray() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int key : keys) {
+            if (key != 0) {
+                result[count++] = key;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        keys = new int[capacity];
+        int mask = capacity - 1;
+        for (int key : oldKeys) {
+            if (key != 0) {
+                int i = mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
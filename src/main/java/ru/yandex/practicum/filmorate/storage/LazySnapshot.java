@@ -0,0 +1,148 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.storage.persistence.Snapshot;
+
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Снимок, записи которого переносятся в хранилище по мере обращения к ним.
+ * Запись, уже попавшая в хранилище, новее записи снимка и им не перезаписывается.
+ * Операции, которым нужны все записи, один раз переносят остаток снимка целиком,
+ * после чего снимок больше не используется.
+ * <p>
+ * Число ещё не перенесённых записей считается без чтения снимка: из размера снимка вычитаются Id,
+ * уже восстановленные из журнала, - их наличие в снимке проверяется двоичным поиском по индексу.
+ */
+@Slf4j
+final class LazySnapshot<T> {
+    private final NavigableMap<Integer, T> target;
+    private final ToIntFunction<T> idOf;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Snapshot<T> snapshot;
+
+    LazySnapshot(Snapshot<T> snapshot, NavigableMap<Integer, T> target, ToIntFunction<T> idOf) {
+        this.snapshot = snapshot.size() == 0 ? null : snapshot;
+        this.target = target;
+        this.idOf = idOf;
+        int replayed = 0;
+        for (int id : target.keySet()) {
+            if (snapshot.contains(id)) {
+                replayed++;
+            }
+        }
+        pending.set(snapshot.size() - replayed);
+    }
+
+    /**
+     * Количество записей снимка, которые ещё не перенесены в хранилище.
+     */
+    int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Возвращает запись из хранилища, а если её там нет - переносит её из снимка.
+     */
+    T get(int id) {
+        Snapshot<T> current = snapshot;
+        T value = target.get(id);
+        if (value != null || current == null) {
+            return value;
+        }
+        value = current.get(id);
+        if (value == null) {
+            return null;
+        }
+        T existing = target.putIfAbsent(id, value);
+        if (existing != null) {
+            return existing;
+        }
+        pending.decrementAndGet();
+        return value;
+    }
+
+    /**
+     * Все записи по возрастанию Id для нового снимка: из хранилища, а отсутствующие в нём - прямо из снимка,
+     * без переноса в хранилище. Запись, перенесённая во время обхода, встретится один раз.
+     */
+    Iterable<T> records() {
+        Snapshot<T> current = snapshot;
+        if (current == null) {
+            return target.values();
+        }
+        return () -> new MergedIterator(target.values().iterator(), current.iterator());
+    }
+
+    /**
+     * Переносит в хранилище все записи снимка, которых там ещё нет.
+     */
+    void loadAll() {
+        if (snapshot == null) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            Snapshot<T> current = snapshot;
+            if (current == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            current.forEach(value -> {
+                if (target.putIfAbsent(idOf.applyAsInt(value), value) == null) {
+                    pending.decrementAndGet();
+                }
+            });
+            snapshot = null;
+            log.info("Снимок загружен полностью, записей: {}, за {} мс.", current.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Слияние записей хранилища и снимка по Id. При одинаковом Id берётся запись хранилища.
+     */
+    private final class MergedIterator implements Iterator<T> {
+        private final Iterator<T> loaded;
+        private final Iterator<T> unloaded;
+        private T nextLoaded;
+        private T nextUnloaded;
+
+        private MergedIterator(Iterator<T> loaded, Iterator<T> unloaded) {
+            this.loaded = loaded;
+            this.unloaded = unloaded;
+            nextLoaded = loaded.hasNext() ? loaded.next() : null;
+            nextUnloaded = unloaded.hasNext() ? unloaded.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLoaded != null || nextUnloaded != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int order = nextLoaded == null ? 1 : nextUnloaded == null ? -1
+                    : Integer.compare(idOf.applyAsInt(nextLoaded), idOf.applyAsInt(nextUnloaded));
+            T value = order <= 0 ? nextLoaded : nextUnloaded;
+            if (order <= 0) {
+                nextLoaded = loaded.hasNext() ? loaded.next() : null;
+            }
+            if (order >= 0) {
+                nextUnloaded = unloaded.hasNext() ? unloaded.next() : null;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.storage;
+
+public interface LikeStorage {
+    /**
+     * Добавляет лайк фильму от пользователя. Возвращает false, если этот пользователь уже ставил лайк фильму.
+     */
+    boolean addLike(int filmId, int userId);
+
+    /**
+     * Удаляет лайк фильму от пользователя. Возвращает false, если лайка не было.
+     */
+    boolean removeLike(int filmId, int userId);
+
+    int countLikes(int filmId);
+
+    /**
+     * Возвращает Id не более {@code count} фильмов, у которых есть лайки, в порядке убывания количества лайков,
+     * а при равном количестве - в порядке возрастания Id.
+     */
+    int[] findMostLiked(int count);
+
+    /**
+     * Возвращает Id фильмов, которым пользователь поставил лайк, в порядке возрастания.
+     */
+    int[] findLikedFilmIds(int userId);
+
+    /**
+     * Возвращает Id не более {@code count} пользователей с наибольшим количеством общих лайков
+     * с пользователем {@code userId}, начиная с самого похожего.
+     */
+    int[] findSimilarUsers(int userId, int count);
+}
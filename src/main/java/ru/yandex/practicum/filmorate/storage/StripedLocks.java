@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Фиксированный набор блокировок, распределённых по Id сущности: изменения одной сущности
+ * выполняются по очереди, а изменения разных сущностей почти не конкурируют между собой.
+ */
+class StripedLocks {
+    private final Lock[] locks;
+    private final int mask;
+
+    StripedLocks(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Количество блокировок должно быть степенью двойки.");
+        }
+        locks = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = stripes - 1;
+    }
+
+    Lock get(int id) {
+        return locks[id & mask];
+    }
+
+    /**
+     * Захватывает блокировки двух Id в порядке номеров блокировок, поэтому потоки,
+     * захватывающие пары Id, не могут ждать друг друга по кругу.
+     */
+    void lockPair(int firstId, int secondId) {
+        int first = Math.min(firstId & mask, secondId & mask);
+        int second = Math.max(firstId & mask, secondId & mask);
+        locks[first].lock();
+        if (second != first) {
+            locks[second].lock();
+        }
+    }
+
+    void unlockPair(int firstId, int secondId) {
+        int first = firstId & mask;
+        int second = secondId & mask;
+        locks[first].unlock();
+        if (second != first) {
+            locks[second].unlock();
+        }
+    }
+}
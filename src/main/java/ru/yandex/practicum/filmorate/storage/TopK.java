@@ -0,0 +1,106 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Arrays;
+
+/**
+ * Ограниченная куча: хранит не более {@code capacity} лучших Id по оценке, в корне - худший из них.
+ * Элемент - ранг, long, в старших 32 битах которого оценка, а в младших - {@code Integer.MAX_VALUE - id},
+ * поэтому ранги сравниваются как числа и при равной оценке выше меньший Id.
+ */
+public final class TopK {
+    private final long[] heap;
+    private int size;
+
+    public TopK(int capacity) {
+        heap = new long[capacity];
+    }
+
+    public static long rank(int score, int id) {
+        return (long) score << 32 | (Integer.MAX_VALUE - id);
+    }
+
+    public static int idOf(long rank) {
+        return Integer.MAX_VALUE - (int) rank;
+    }
+
+    public static int scoreOf(long rank) {
+        return (int) (rank >>> 32);
+    }
+
+    public void offer(int score, int id) {
+        long value = rank(score, id);
+        if (size < heap.length) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (size > 0 && value > heap[0]) {
+            heap[0] = value;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Добавляет элементы другой кучи и возвращает эту кучу.
+     */
+    public TopK merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(scoreOf(other.heap[i]), idOf(other.heap[i]));
+        }
+        return this;
+    }
+
+    /**
+     * Ранги по убыванию, начиная с лучшего.
+     */
+    public long[] toRanked() {
+        long[] values = Arrays.copyOf(heap, size);
+        Arrays.sort(values);
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Id по убыванию ранга, начиная с лучшего.
+     */
+    public int[] toIds() {
+        long[] ranked = toRanked();
+        int[] ids = new int[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            ids[i] = idOf(ranked[i]);
+        }
+        return ids;
+    }
+
+    private void siftUp(int index) {
+        long value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private void siftDown(int index) {
+        long value = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (value <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+}
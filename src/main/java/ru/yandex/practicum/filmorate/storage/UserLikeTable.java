@@ -0,0 +1,232 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Лайки каждого пользователя в виде отсортированного массива Id фильмов. Ссылки на записи пользователей
+ * собраны в одном массиве, а у каждой записи свой массив Id, поэтому сравнение со всеми пользователями -
+ * параллельный обход этого массива в {@link ForkJoinPool} без копирования и без блокировок, но с переходом
+ * по ссылке на каждую запись и её массив.
+ * Если известны пользователи, лайкнувшие те же фильмы, похожих быстрее найти подсчётом повторов
+ * в их списке - см. {@link #findMostFrequent(int[], int, int, int)}.
+ * Изменения лайков одного пользователя должен упорядочивать владелец таблицы.
+ */
+final class UserLikeTable {
+    private static final int[] NO_LIKES = new int[0];
+    private static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile Entry[] table = new Entry[1024];
+    private volatile int size;
+
+    int size() {
+        return size;
+    }
+
+    int[] get(int userId) {
+        Entry entry = entries.get(userId);
+        return entry == null ? NO_LIKES : entry.filmIds;
+    }
+
+    void add(int userId, int filmId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            entry = register(userId);
+        }
+        int[] filmIds = entry.filmIds;
+        int index = Arrays.binarySearch(filmIds, filmId);
+        if (index < 0) {
+            index = -index - 1;
+            int[] result = new int[filmIds.length + 1];
+            System.arraycopy(filmIds, 0, result, 0, index);
+            result[index] = filmId;
+            System.arraycopy(filmIds, index, result, index + 1, filmIds.length - index);
+            entry.filmIds = result;
+        }
+    }
+
+    void remove(int userId, int filmId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return;
+        }
+        int[] filmIds = entry.filmIds;
+        int index = Arrays.binarySearch(filmIds, filmId);
+        if (index >= 0) {
+            int[] result = new int[filmIds.length - 1];
+            System.arraycopy(filmIds, 0, result, 0, index);
+            System.arraycopy(filmIds, index + 1, result, index, filmIds.length - index - 1);
+            entry.filmIds = result;
+        }
+    }
+
+    /**
+     * Возвращает Id не более {@code count} пользователей с наибольшим количеством общих лайков
+     * с пользователем {@code userId}, начиная с самого похожего. Пользователи без общих лайков не возвращаются.
+     */
+    int[] findSimilarUsers(int userId, int count) {
+        int[] filmIds = get(userId);
+        if (filmIds.length == 0 || count < 1) {
+            return NO_LIKES;
+        }
+        int tableSize = size;
+        Entry[] snapshot = table;
+        TopK top = ForkJoinPool.commonPool()
+                .invoke(new ScoreTask(snapshot, 0, tableSize, userId, filmIds, count));
+        return top.toIds();
+    }
+
+    /**
+     * Возвращает не более {@code count} Id, которые чаще всего встречаются в первых {@code length} элементах
+     * {@code userIds}, начиная с самого частого; {@code excludedUserId} не учитывается.
+     * Если в списке лайкнувшие каждый из фильмов пользователя, число повторов Id - количество общих лайков.
+     * Список сортируется на месте параллельно, затем повторы считаются параллельно по частям списка.
+     */
+    static int[] findMostFrequent(int[] userIds, int length, int excludedUserId, int count) {
+        Arrays.parallelSort(userIds, 0, length);
+        TopK top = ForkJoinPool.commonPool()
+                .invoke(new CountTask(userIds, 0, length, excludedUserId, count));
+        return top.toIds();
+    }
+
+    private Entry register(int userId) {
+        growLock.lock();
+        try {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                return entry;
+            }
+            entry = new Entry(userId);
+            Entry[] current = table;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                table = current;
+            }
+            current[size] = entry;
+            size++;
+            entries.put(userId, entry);
+            return entry;
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    private static int countCommon(int[] first, int[] second) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static final class Entry {
+        private final int userId;
+        private volatile int[] filmIds = NO_LIKES;
+
+        private Entry(int userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveTask<TopK> {
+        private final Entry[] table;
+        private final int from;
+        private final int to;
+        private final int userId;
+        private final int[] filmIds;
+        private final int count;
+
+        private ScoreTask(Entry[] table, int from, int to, int userId, int[] filmIds, int count) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.userId = userId;
+            this.filmIds = filmIds;
+            this.count = count;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                TopK top = new TopK(count);
+                for (int i = from; i < to; i++) {
+                    Entry entry = table[i];
+                    if (entry.userId != userId) {
+                        int common = countCommon(filmIds, entry.filmIds);
+                        if (common > 0) {
+                            top.offer(common, entry.userId);
+                        }
+                    }
+                }
+                return top;
+            }
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(table, from, middle, userId, filmIds, count);
+            left.fork();
+            TopK right = new ScoreTask(table, middle, to, userId, filmIds, count).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Подсчёт повторов в части отсортированного списка. Границы частей сдвигаются к началу серии
+     * одинаковых Id, поэтому каждая серия целиком попадает в одну часть.
+     */
+    private static final class CountTask extends RecursiveTask<TopK> {
+        private final int[] userIds;
+        private final int from;
+        private final int to;
+        private final int excludedUserId;
+        private final int count;
+
+        private CountTask(int[] userIds, int from, int to, int excludedUserId, int count) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+            this.excludedUserId = excludedUserId;
+            this.count = count;
+        }
+
+        @Override
+        protected TopK compute() {
+            int middle = (from + to) >>> 1;
+            while (middle > from && userIds[middle] == userIds[middle - 1]) {
+                middle--;
+            }
+            if (to - from <= SEQUENTIAL_THRESHOLD || middle == from) {
+                TopK top = new TopK(count);
+                for (int i = from; i < to; ) {
+                    int j = i;
+                    while (j < to && userIds[j] == userIds[i]) {
+                        j++;
+                    }
+                    if (userIds[i] != excludedUserId) {
+                        top.offer(j - i, userIds[i]);
+                    }
+                    i = j;
+                }
+                return top;
+            }
+            CountTask left = new CountTask(userIds, from, middle, excludedUserId, count);
+            left.fork();
+            TopK right = new CountTask(userIds, middle, to, excludedUserId, count).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+public interface UserStorage {
+    /**
+     * Ожидаемая версия, при которой обновление выполняется без проверки версии.
+     */
+    long ANY_VERSION = -1;
+
+    /**
+     * Возвращает всех пользователей в порядке возрастания Id. Коллекция не копируется,
+     * поэтому её можно обходить по мере записи ответа.
+     */
+    Collection<User> findAll();
+
+    /**
+     * Возвращает не более {@code limit} пользователей с Id больше {@code afterId} в порядке возрастания Id.
+     */
+    List<User> findPage(int afterId, int limit);
+
+    Optional<User> findById(int id);
+
+    /**
+     * Ищет пользователя по Email без учёта регистра.
+     */
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Добавляет пользователя. Выбрасывает ValidationException, если Email уже используется.
+     */
+    User create(User user);
+
+    /**
+     * Добавляет пользователей, выделяя им Id одним непрерывным диапазоном.
+     * Пользователи, чей Email уже используется, не добавляются, и их Id устанавливается равным 0.
+     * Возвращает добавленных пользователей.
+     */
+    List<User> createAll(List<User> users);
+
+    /**
+     * Обновляет данные существующего пользователя без проверки версии.
+     * Возвращает новое состояние пользователя или пустой Optional, если пользователя с таким Id нет.
+     * Выбрасывает ValidationException, если новый Email уже используется другим пользователем.
+     */
+    Optional<User> update(User user);
+
+    /**
+     * Заменяет пользователя состоянием, которое {@code change} строит из копии текущего, и увеличивает версию.
+     * Сохранённые пользователи не изменяются, поэтому при чтении пользователь виден целиком в прежнем
+     * или в новом состоянии. Если {@code expectedVersion} не {@link #ANY_VERSION} и не совпадает с версией
+     * пользователя, выбрасывает ConflictException. Выбрасывает ValidationException, если новый Email
+     * уже используется другим пользователем. Возвращает пустой Optional, если пользователя с таким Id нет.
+     */
+    Optional<User> update(int id, long expectedVersion, UnaryOperator<User> change);
+
+    int size();
+
+    /**
+     * Версия данных хранилища. Увеличивается при каждом добавлении и изменении после того, как изменение
+     * стало видно при чтении, поэтому совпадение версий гарантирует, что данные не менялись.
+     */
+    long version();
+}
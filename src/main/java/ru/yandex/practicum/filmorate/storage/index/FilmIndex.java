@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+/**
+ * Вторичный индекс фильмов. Хранилище вызывает его под блокировкой Id фильма при каждом добавлении
+ * и изменении, поэтому для одного фильма вызовы никогда не выполняются одновременно.
+ * Индекс сам помнит, что он сохранил для каждого фильма, и при повторной индексации заменяет это.
+ */
+public interface FilmIndex {
+    /**
+     * Индексирует фильм, заменяя его прежнее состояние в индексе.
+     */
+    void put(Film film);
+
+    /**
+     * Индексирует фильм, только если он ещё не проиндексирован. Так фильмы из снимка попадают
+     * в индекс, не затирая более новое состояние, проиндексированное после запуска.
+     */
+    void putIfAbsent(Film film);
+}
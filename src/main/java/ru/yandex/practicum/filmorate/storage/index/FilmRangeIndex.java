@@ -0,0 +1,188 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Индексы фильмов по дате выхода и продолжительности, из которых страница читается по возрастанию Id.
+ * <p>
+ * Каждое поле разбито на корзины - год выхода и {@value #DURATION_BUCKET} минут продолжительности, -
+ * и в корзине хранятся Id её фильмов по возрастанию. Страница после курсора - ленивое слияние хвостов
+ * корзин промежутка после курсора: оно останавливается, набрав {@code limit} фильмов, поэтому страница
+ * стоит O(B log N + m log B), где B - число корзин промежутка, а m - число просмотренных Id.
+ * Корзины на краях промежутка содержат и фильмы вне его, поэтому каждый Id проверяется по точным
+ * значениям фильма. Если ограничены оба поля, сливаются корзины поля, в промежутке которого меньше фильмов,
+ * а второе поле проверяется у каждого кандидата - пересечение строится лениво, по мере чтения страницы.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.partition", name = "enabled", havingValue = "false",
+        matchIfMissing = true)
+public class FilmRangeIndex implements FilmIndex, FilmRangeSearch {
+    static final int DURATION_BUCKET = 10;
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+
+    private final NavigableMap<Integer, Bucket> releaseYears = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Integer, Bucket> durations = new ConcurrentSkipListMap<>();
+    private final Map<Integer, IndexedFilm> indexedFilms = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(Film film) {
+        IndexedFilm indexed = indexed(film);
+        IndexedFilm previous = indexedFilms.put(film.getId(), indexed);
+        if (previous != null) {
+            remove(film.getId(), previous);
+        }
+        add(film.getId(), indexed);
+    }
+
+    @Override
+    public void putIfAbsent(Film film) {
+        IndexedFilm indexed = indexed(film);
+        if (indexedFilms.putIfAbsent(film.getId(), indexed) == null) {
+            add(film.getId(), indexed);
+        }
+    }
+
+    @Override
+    public int[] findIds(LocalDate releasedFrom, LocalDate releasedTo, Integer minDuration, Integer maxDuration,
+                         int afterId, int limit) {
+        boolean byDate = releasedFrom != null || releasedTo != null;
+        boolean byDuration = minDuration != null || maxDuration != null;
+        if (!byDate && !byDuration) {
+            throw new IllegalArgumentException("Не задано ни одно ограничение.");
+        }
+        Range range = new Range(releasedFrom == null ? Long.MIN_VALUE : releasedFrom.toEpochDay(),
+                releasedTo == null ? Long.MAX_VALUE : releasedTo.toEpochDay(),
+                minDuration == null ? Integer.MIN_VALUE : minDuration,
+                maxDuration == null ? Integer.MAX_VALUE : maxDuration);
+        if (range.fromDay > range.toDay || range.minDuration > range.maxDuration) {
+            return new int[0];
+        }
+        Collection<Bucket> yearBuckets = byDate ? releaseYears.subMap(
+                releasedFrom == null ? Integer.MIN_VALUE : releasedFrom.getYear(), true,
+                releasedTo == null ? Integer.MAX_VALUE : releasedTo.getYear(), true).values() : null;
+        Collection<Bucket> durationBuckets = byDuration ? durations.subMap(
+                Math.floorDiv(range.minDuration, DURATION_BUCKET), true,
+                Math.floorDiv(range.maxDuration, DURATION_BUCKET), true).values() : null;
+        Collection<Bucket> buckets = yearBuckets == null || durationBuckets != null
+                && size(durationBuckets) < size(yearBuckets) ? durationBuckets : yearBuckets;
+        return merge(buckets, range, afterId, limit);
+    }
+
+    /**
+     * Сливает хвосты корзин после {@code afterId} по возрастанию Id, пока не наберёт {@code limit} фильмов
+     * из промежутка.
+     */
+    private int[] merge(Collection<Bucket> buckets, Range range, int afterId, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>();
+        for (Bucket bucket : buckets) {
+            Iterator<Integer> iterator = bucket.ids.tailSet(afterId, false).iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        int[] ids = new int[Math.min(limit, 16)];
+        int length = 0;
+        int previousId = afterId;
+        while (length < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            if (head.iterator.hasNext()) {
+                heads.add(new Head(head.iterator.next(), head.iterator));
+            }
+            if (head.id == previousId) {
+                // Фильм, который прямо сейчас переносится между корзинами, может встретиться в обеих.
+                continue;
+            }
+            previousId = head.id;
+            IndexedFilm indexed = indexedFilms.get(head.id);
+            if (indexed != null && range.contains(indexed)) {
+                if (length == ids.length) {
+                    ids = Arrays.copyOf(ids, (int) Math.min(limit, length * 2L));
+                }
+                ids[length++] = head.id;
+            }
+        }
+        return Arrays.copyOf(ids, length);
+    }
+
+    private static long size(Collection<Bucket> buckets) {
+        long size = 0;
+        for (Bucket bucket : buckets) {
+            size += bucket.size.get();
+        }
+        return size;
+    }
+
+    private void add(int id, IndexedFilm indexed) {
+        if (indexed.releaseYear != NO_YEAR) {
+            releaseYears.computeIfAbsent(indexed.releaseYear, year -> new Bucket()).add(id);
+        }
+        durations.computeIfAbsent(Math.floorDiv(indexed.duration, DURATION_BUCKET), bucket -> new Bucket()).add(id);
+    }
+
+    private void remove(int id, IndexedFilm indexed) {
+        if (indexed.releaseYear != NO_YEAR) {
+            releaseYears.get(indexed.releaseYear).remove(id);
+        }
+        durations.get(Math.floorDiv(indexed.duration, DURATION_BUCKET)).remove(id);
+    }
+
+    private static IndexedFilm indexed(Film film) {
+        LocalDate releaseDate = film.getReleaseDate();
+        return releaseDate == null ? new IndexedFilm(0, NO_YEAR, film.getDuration())
+                : new IndexedFilm(releaseDate.toEpochDay(), releaseDate.getYear(), film.getDuration());
+    }
+
+    /**
+     * Id фильмов корзины по возрастанию и их число: размер {@link ConcurrentSkipListSet} считается обходом.
+     * Пустые корзины не удаляются, чтобы не потерять Id, одновременно добавляемый в удаляемую корзину.
+     */
+    private static final class Bucket {
+        private final NavigableSet<Integer> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(int id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(int id) {
+            if (ids.remove(id)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    private record Head(int id, Iterator<Integer> iterator) implements Comparable<Head> {
+        @Override
+        public int compareTo(Head other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    private record Range(long fromDay, long toDay, int minDuration, int maxDuration) {
+        boolean contains(IndexedFilm indexed) {
+            return (fromDay == Long.MIN_VALUE && toDay == Long.MAX_VALUE
+                    || indexed.releaseYear != NO_YEAR && indexed.releaseDay >= fromDay && indexed.releaseDay <= toDay)
+                    && indexed.duration >= minDuration && indexed.duration <= maxDuration;
+        }
+    }
+
+    private record IndexedFilm(long releaseDay, int releaseYear, int duration) {
+    }
+}
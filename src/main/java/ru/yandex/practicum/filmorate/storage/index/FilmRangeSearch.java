@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import java.time.LocalDate;
+
+/**
+ * Поиск фильмов по промежуткам даты выхода и продолжительности: {@link FilmRangeIndex}
+ * или поиск по всем шардам партиционированного хранилища.
+ */
+public interface FilmRangeSearch {
+    /**
+     * Возвращает по возрастанию не более {@code limit} Id фильмов больше {@code afterId}, вышедших
+     * в промежутке дат и с продолжительностью в промежутке. Пустая граница означает отсутствие ограничения
+     * с этой стороны, границы включаются.
+     * Хотя бы одно из полей должно быть ограничено, иначе выбрасывается IllegalArgumentException.
+     */
+    int[] findIds(LocalDate releasedFrom, LocalDate releasedTo, Integer minDuration, Integer maxDuration,
+                  int afterId, int limit);
+}
@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+/**
+ * Полнотекстовый поиск фильмов: {@link FilmSearchIndex} или поиск по всем шардам партиционированного хранилища.
+ */
+public interface FilmSearch {
+    /**
+     * Возвращает Id не более {@code limit} фильмов, подходящих под запрос, начиная с лучшего.
+     */
+    int[] search(String query, int limit);
+}
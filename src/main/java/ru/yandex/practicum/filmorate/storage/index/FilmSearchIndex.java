@@ -0,0 +1,342 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.IntHashSet;
+import ru.yandex.practicum.filmorate.storage.TopK;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Обратный индекс слов из названий и описаний фильмов.
+ * <p>
+ * Слово - непрерывная последовательность букв и цифр в нижнем регистре, буква «ё» приводится к «е».
+ * Для каждого слова хранятся два множества Id фильмов: где оно встречается в названии и где в описании.
+ * Словарь упорядочен, поэтому слова запроса ищутся и целиком, и как начало слов индекса.
+ * <p>
+ * Фильм находится, если в его названии или описании есть каждое слово запроса.
+ * Оценка фильма - сумма по словам запроса: 2 за совпадение в названии, 1 за совпадение в описании
+ * и ещё 1, если слово совпало целиком, а не началом. При равной оценке выше фильм с меньшим Id.
+ * <p>
+ * Множества Id защищены блокировками чтения-записи, распределёнными по словам:
+ * поиски не мешают друг другу, а изменение одного слова блокирует лишь малую часть словаря.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.partition", name = "enabled", havingValue = "false",
+        matchIfMissing = true)
+public class FilmSearchIndex implements FilmIndex, FilmSearch {
+    static final int MAX_EXPANSIONS = 64;
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_BONUS = 1;
+    private static final int LOCK_STRIPES = 256;
+
+    private final NavigableMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final Map<Integer, IndexedFilm> indexedFilms = new ConcurrentHashMap<>();
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+
+    public FilmSearchIndex() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    @Override
+    public void put(Film film) {
+        IndexedFilm indexed = new IndexedFilm(tokenize(film.getName()), tokenize(film.getDescription()));
+        IndexedFilm previous = indexedFilms.put(film.getId(), indexed);
+        if (previous != null) {
+            unindex(film.getId(), previous);
+        }
+        index(film.getId(), indexed);
+    }
+
+    @Override
+    public void putIfAbsent(Film film) {
+        IndexedFilm indexed = new IndexedFilm(tokenize(film.getName()), tokenize(film.getDescription()));
+        if (indexedFilms.putIfAbsent(film.getId(), indexed) == null) {
+            index(film.getId(), indexed);
+        }
+    }
+
+    /**
+     * Возвращает Id не более {@code limit} фильмов, подходящих под запрос, начиная с лучшего.
+     * Слова запроса обрабатываются от самого редкого: совпадения первого слова собираются целиком,
+     * а следующие слова либо сливаются с ними как упорядоченные списки, либо, если слово намного
+     * чаще уже найденных фильмов, проверяются для каждого найденного фильма отдельно.
+     */
+    @Override
+    public int[] search(String query, int limit) {
+        long[] ranked = searchRanked(query, limit);
+        int[] filmIds = new int[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            filmIds[i] = filmIdOf(ranked[i]);
+        }
+        return filmIds;
+    }
+
+    /**
+     * То же, что {@link #search}, но вместо Id возвращает по убыванию ранги фильмов: в старших 32 битах
+     * оценка, в младших - {@code Integer.MAX_VALUE - filmId}. Оценка не зависит от остальных фильмов индекса,
+     * поэтому лучшие фильмы нескольких индексов - это лучшие ранги их общего списка.
+     */
+    public long[] searchRanked(String query, int limit) {
+        String[] queryTerms = tokenize(query);
+        if (queryTerms.length == 0 || limit < 1) {
+            return new long[0];
+        }
+        List<List<String>> expansions = new ArrayList<>(queryTerms.length);
+        long[] sizes = new long[queryTerms.length];
+        Integer[] order = new Integer[queryTerms.length];
+        for (int i = 0; i < queryTerms.length; i++) {
+            List<String> expansion = expand(queryTerms[i]);
+            if (expansion.isEmpty()) {
+                return new long[0];
+            }
+            for (String term : expansion) {
+                sizes[i] += postingsSize(term);
+            }
+            expansions.add(expansion);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> sizes[i]));
+        long[] matches = matches(queryTerms[order[0]], expansions.get(order[0]), sizes[order[0]]);
+        for (int k = 1; k < order.length && matches.length > 0; k++) {
+            int i = order[k];
+            if ((long) matches.length * expansions.get(i).size() < sizes[i]) {
+                matches = probe(matches, queryTerms[i], expansions.get(i));
+            } else {
+                matches = intersect(matches, matches(queryTerms[i], expansions.get(i), sizes[i]));
+            }
+        }
+        TopK top = new TopK(Math.min(limit, matches.length));
+        for (long match : matches) {
+            top.offer((int) match, (int) (match >>> 32));
+        }
+        return top.toRanked();
+    }
+
+    public static int filmIdOf(long ranked) {
+        return TopK.idOf(ranked);
+    }
+
+    /**
+     * Разбивает текст на слова без повторов в порядке первого появления.
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c == 'ё' || c == 'Ё' ? 'е' : Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString().toLowerCase(Locale.ROOT));
+                token.setLength(0);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Слова словаря, подходящие под слово запроса: само слово, если оно есть, и не более
+     * {@link #MAX_EXPANSIONS} слов, начинающихся с него.
+     */
+    private List<String> expand(String queryTerm) {
+        List<String> expansion = new ArrayList<>();
+        for (String term : terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).keySet()) {
+            expansion.add(term);
+            if (expansion.size() == MAX_EXPANSIONS) {
+                break;
+            }
+        }
+        return expansion;
+    }
+
+    /**
+     * Совпадения слова запроса, упорядоченные по Id фильма. Элемент - long, в старших 32 битах которого
+     * Id фильма, а в младших - лучшая оценка фильма среди слов словаря, подходящих под слово запроса.
+     */
+    private long[] matches(String queryTerm, List<String> expansion, long expectedSize) {
+        long[] matches = new long[(int) Math.min(expectedSize, Integer.MAX_VALUE - 8)];
+        int length = 0;
+        for (String term : expansion) {
+            int bonus = term.equals(queryTerm) ? EXACT_BONUS : 0;
+            ReadWriteLock lock = lock(term);
+            lock.readLock().lock();
+            try {
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                int nameSize = postings.name.size();
+                int[] ids = new int[nameSize + postings.description.size()];
+                postings.description.copyTo(ids, postings.name.copyTo(ids, 0));
+                if (length + ids.length > matches.length) {
+                    matches = Arrays.copyOf(matches, Math.max(length + ids.length, matches.length * 2));
+                }
+                for (int j = 0; j < ids.length; j++) {
+                    int score;
+                    if (j < nameSize) {
+                        score = NAME_WEIGHT + (postings.description.contains(ids[j]) ? DESCRIPTION_WEIGHT : 0);
+                    } else if (!postings.name.contains(ids[j])) {
+                        score = DESCRIPTION_WEIGHT;
+                    } else {
+                        continue;
+                    }
+                    matches[length++] = (long) ids[j] << 32 | (score + bonus);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        Arrays.sort(matches, 0, length);
+        int unique = 0;
+        for (int j = 0; j < length; j++) {
+            if (unique > 0 && matches[unique - 1] >>> 32 == matches[j] >>> 32) {
+                matches[unique - 1] = matches[j];
+            } else {
+                matches[unique++] = matches[j];
+            }
+        }
+        return Arrays.copyOf(matches, unique);
+    }
+
+    /**
+     * Оставляет фильмы, в которых есть слово запроса, проверяя каждый фильм по множествам Id,
+     * и добавляет к их оценке оценку слова.
+     */
+    private long[] probe(long[] matches, String queryTerm, List<String> expansion) {
+        long[] result = new long[matches.length];
+        int length = 0;
+        for (long match : matches) {
+            int filmId = (int) (match >>> 32);
+            int best = 0;
+            for (String term : expansion) {
+                ReadWriteLock lock = lock(term);
+                lock.readLock().lock();
+                try {
+                    Postings postings = terms.get(term);
+                    if (postings == null) {
+                        continue;
+                    }
+                    int score = (postings.name.contains(filmId) ? NAME_WEIGHT : 0)
+                            + (postings.description.contains(filmId) ? DESCRIPTION_WEIGHT : 0);
+                    if (score > 0 && term.equals(queryTerm)) {
+                        score += EXACT_BONUS;
+                    }
+                    best = Math.max(best, score);
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+            if (best > 0) {
+                result[length++] = match + best;
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Пересечение двух упорядоченных списков совпадений с суммированием оценок.
+     */
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int length = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            long leftId = left[i] >>> 32;
+            long rightId = right[j] >>> 32;
+            if (leftId < rightId) {
+                i++;
+            } else if (leftId > rightId) {
+                j++;
+            } else {
+                result[length++] = left[i++] + (int) right[j++];
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private long postingsSize(String term) {
+        ReadWriteLock lock = lock(term);
+        lock.readLock().lock();
+        try {
+            Postings postings = terms.get(term);
+            return postings == null ? 0 : postings.name.size() + postings.description.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(int filmId, IndexedFilm indexed) {
+        for (String term : indexed.nameTerms) {
+            update(term, filmId, true, true);
+        }
+        for (String term : indexed.descriptionTerms) {
+            update(term, filmId, false, true);
+        }
+    }
+
+    private void unindex(int filmId, IndexedFilm indexed) {
+        for (String term : indexed.nameTerms) {
+            update(term, filmId, true, false);
+        }
+        for (String term : indexed.descriptionTerms) {
+            update(term, filmId, false, false);
+        }
+    }
+
+    private void update(String term, int filmId, boolean name, boolean add) {
+        ReadWriteLock lock = lock(term);
+        lock.writeLock().lock();
+        try {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                if (!add) {
+                    return;
+                }
+                postings = new Postings();
+                terms.put(term, postings);
+            }
+            IntHashSet ids = name ? postings.name : postings.description;
+            if (add) {
+                ids.add(filmId);
+            } else {
+                ids.remove(filmId);
+                if (postings.name.size() == 0 && postings.description.size() == 0) {
+                    terms.remove(term);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ReadWriteLock lock(String term) {
+        return locks[(term.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    private static final class Postings {
+        private final IntHashSet name = new IntHashSet();
+        private final IntHashSet description = new IntHashSet();
+    }
+
+    private record IndexedFilm(String[] nameTerms, String[] descriptionTerms) {
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import java.util.Arrays;
+
+/**
+ * Кольцо согласованного хеширования: каждый шард занимает на кольце {@code virtualNodes} точек,
+ * а Id принадлежит шарду первой точки не меньше хеша Id (после последней точки - шарду первой).
+ * При добавлении шарда к нему переходит около {@code 1/(shards + 1)} Id, остальные остаются на месте.
+ * Кольцо неизменяемо, поиск шарда - двоичный поиск по отсортированному массиву точек.
+ */
+public final class ConsistentHashRing {
+    /**
+     * Соль хешей точек шардов: без неё точка узла {@code node} шарда 0 совпала бы с хешем Id, равного {@code node}.
+     */
+    private static final long POINT_SALT = 0x9E3779B97F4A7C15L;
+
+    private final int shards;
+    private final int[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(int shards, int virtualNodes) {
+        if (shards < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("Число шардов и виртуальных узлов должно быть положительным.");
+        }
+        this.shards = shards;
+        long[] packed = new long[shards * virtualNodes];
+        int i = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                int point = (int) (mix((((long) shard << 32) | node) ^ POINT_SALT) >>> 32);
+                packed[i++] = ((long) point << 32) | shard;
+            }
+        }
+        Arrays.sort(packed);
+        points = new int[packed.length];
+        owners = new int[packed.length];
+        for (int j = 0; j < packed.length; j++) {
+            points[j] = (int) (packed[j] >> 32);
+            owners[j] = (int) packed[j];
+        }
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public int shardOf(int id) {
+        int hash = (int) (mix(id) >>> 32);
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Финальное перемешивание MurmurHash3: соседние Id и номера узлов дают независимые хеши.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.Closeable;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Часть каталога фильмов, которой владеет один шард: в этом процессе или на другом узле.
+ * Id выдаёт маршрутизатор, поэтому шард только сохраняет фильмы с уже выданными Id.
+ */
+public interface FilmShard extends Closeable {
+    /**
+     * Возвращает все фильмы шарда в порядке возрастания Id.
+     */
+    Collection<Film> findAll();
+
+    List<Film> findPage(int afterId, int limit);
+
+    Optional<Film> findById(int id);
+
+    void insertAll(List<Film> films);
+
+    /**
+     * То же, что {@link ru.yandex.practicum.filmorate.storage.FilmStorage#update(int, long, UnaryOperator)}.
+     */
+    Optional<Film> update(int id, long expectedVersion, UnaryOperator<Film> change);
+
+    ShardStats stats();
+
+    /**
+     * Ранги лучших фильмов шарда по запросу,
+     * см. {@link ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex#searchRanked}.
+     */
+    long[] searchRanked(String query, int limit);
+
+    /**
+     * Id фильмов шарда в промежутках по возрастанию,
+     * см. {@link ru.yandex.practicum.filmorate.storage.index.FilmRangeSearch#findIds}.
+     */
+    int[] findIds(LocalDate releasedFrom, LocalDate releasedTo, Integer minDuration, Integer maxDuration,
+                  int afterId, int limit);
+
+    /**
+     * Сохраняет снимок шарда, если шард ведёт собственный журнал.
+     */
+    default void snapshot() {
+    }
+
+    @Override
+    default void close() {
+    }
+}
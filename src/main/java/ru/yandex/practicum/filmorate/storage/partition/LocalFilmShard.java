@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeIndex;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * Шард фильмов в этом процессе: своё хранилище в памяти, свои индексы и свой журнал.
+ */
+public class LocalFilmShard implements FilmShard {
+    private final long bootId = ThreadLocalRandom.current().nextLong();
+    private final InMemoryFilmStorage storage;
+    private final FilmSearchIndex searchIndex;
+    private final FilmRangeIndex rangeIndex;
+    private final Journal<Film> journal;
+
+    /**
+     * Создаёт пустой шард или восстанавливает его из журнала.
+     */
+    public LocalFilmShard(Journal<Film> journal) {
+        this(new FilmSearchIndex(), new FilmRangeIndex(), journal);
+    }
+
+    private LocalFilmShard(FilmSearchIndex searchIndex, FilmRangeIndex rangeIndex, Journal<Film> journal) {
+        this(new InMemoryFilmStorage(journal, List.of(searchIndex, rangeIndex)), searchIndex, rangeIndex, journal);
+    }
+
+    /**
+     * Шард поверх уже созданного хранилища, например хранилища узла данных, которое отдаёт API шарда.
+     */
+    public LocalFilmShard(InMemoryFilmStorage storage, FilmSearchIndex searchIndex, FilmRangeIndex rangeIndex,
+                          Journal<Film> journal) {
+        this.storage = storage;
+        this.searchIndex = searchIndex;
+        this.rangeIndex = rangeIndex;
+        this.journal = journal;
+    }
+
+    @Override
+    public Collection<Film> findAll() {
+        return storage.findAll();
+    }
+
+    @Override
+    public List<Film> findPage(int afterId, int limit) {
+        return storage.findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<Film> findById(int id) {
+        return storage.findById(id);
+    }
+
+    @Override
+    public void insertAll(List<Film> films) {
+        storage.insertAll(films);
+    }
+
+    @Override
+    public Optional<Film> update(int id, long expectedVersion, UnaryOperator<Film> change) {
+        return storage.update(id, expectedVersion, change);
+    }
+
+    @Override
+    public ShardStats stats() {
+        return new ShardStats(storage.size(), storage.version(), storage.maxId(), bootId);
+    }
+
+    @Override
+    public long[] searchRanked(String query, int limit) {
+        return searchIndex.searchRanked(query, limit);
+    }
+
+    @Override
+    public int[] findIds(LocalDate releasedFrom, LocalDate releasedTo, Integer minDuration, Integer maxDuration,
+                         int afterId, int limit) {
+        return rangeIndex.findIds(releasedFrom, releasedTo, minDuration, maxDuration, afterId, limit);
+    }
+
+    @Override
+    public void snapshot() {
+        storage.snapshot();
+    }
+
+    @Override
+    public void close() {
+        if (journal instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
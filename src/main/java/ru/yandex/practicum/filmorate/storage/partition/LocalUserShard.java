@@ -0,0 +1,90 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * Шард пользователей в этом процессе: своё хранилище в памяти и свой журнал.
+ */
+public class LocalUserShard implements UserShard {
+    private final long bootId = ThreadLocalRandom.current().nextLong();
+    private final InMemoryUserStorage storage;
+    private final Journal<User> journal;
+
+    /**
+     * Создаёт пустой шард или восстанавливает его из журнала.
+     */
+    public LocalUserShard(Journal<User> journal) {
+        this(new InMemoryUserStorage(journal), journal);
+    }
+
+    /**
+     * Шард поверх уже созданного хранилища, например хранилища узла данных, которое отдаёт API шарда.
+     */
+    public LocalUserShard(InMemoryUserStorage storage, Journal<User> journal) {
+        this.storage = storage;
+        this.journal = journal;
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        return storage.findAll();
+    }
+
+    @Override
+    public List<User> findPage(int afterId, int limit) {
+        return storage.findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        return storage.findById(id);
+    }
+
+    @Override
+    public Map<String, Integer> findEmailOwners(Collection<String> emails) {
+        return storage.findEmailOwners(emails);
+    }
+
+    @Override
+    public void insertAll(List<User> users) {
+        storage.insertAll(users);
+    }
+
+    @Override
+    public Optional<User> update(int id, long expectedVersion, UnaryOperator<User> change) {
+        return storage.update(id, expectedVersion, change);
+    }
+
+    @Override
+    public ShardStats stats() {
+        return new ShardStats(storage.size(), storage.version(), storage.maxId(), bootId);
+    }
+
+    @Override
+    public void snapshot() {
+        storage.snapshot();
+    }
+
+    @Override
+    public void close() {
+        if (journal instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.AtomicIdGenerator;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.IdGenerator;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeSearch;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearch;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex;
+
+import java.io.Closeable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранилище фильмов, распределённое по шардам кольцом согласованного хеширования по Id.
+ * Чтение и изменение одного фильма идут только в его шард, списки, поиск и выборка по промежуткам
+ * рассылаются всем шардам, а их упорядоченные ответы сливаются. Id выдаёт само хранилище одним счётчиком,
+ * продолжающим наибольший Id шардов, поэтому оно должно быть единственным, кто пишет в шарды.
+ * <p>
+ * Версия хранилища - сумма версий шардов: она растёт при любом изменении в любом шарде.
+ * Оценка фильма в поиске не зависит от других фильмов шарда, поэтому лучшие фильмы каталога находятся
+ * среди лучших {@code limit} фильмов каждого шарда.
+ */
+@Slf4j
+public class PartitionedFilmStorage implements FilmStorage, FilmSearch, FilmRangeSearch, Closeable {
+    private final Scatter<FilmShard> shards;
+    private final ConsistentHashRing ring;
+    private final ShardVersions versions;
+    private final IdGenerator idGenerator;
+
+    public PartitionedFilmStorage(List<? extends FilmShard> shards, int virtualNodes, boolean parallel) {
+        this.shards = new Scatter<>(List.copyOf(shards), parallel);
+        this.ring = new ConsistentHashRing(shards.size(), virtualNodes);
+        this.versions = new ShardVersions(shards.size());
+        int maxId = 0;
+        for (ShardStats stats : this.shards.gather(FilmShard::stats)) {
+            maxId = Math.max(maxId, stats.maxId());
+        }
+        idGenerator = new AtomicIdGenerator(maxId);
+        log.info("Фильмы распределены по {} шардам, наибольший Id {}.", shards.size(), maxId);
+    }
+
+    @Override
+    public Collection<Film> findAll() {
+        return SortedMerge.collections(shards.gather(FilmShard::findAll), Film::getId);
+    }
+
+    @Override
+    public List<Film> findPage(int afterId, int limit) {
+        return SortedMerge.lists(shards.gather(shard -> shard.findPage(afterId, limit)), Film::getId, limit);
+    }
+
+    @Override
+    public Optional<Film> findById(int id) {
+        return shardOf(id).findById(id);
+    }
+
+    @Override
+    public Film create(Film film) {
+        film.setId(idGenerator.nextId());
+        film.setVersion(1);
+        shardOf(film.getId()).insertAll(List.of(film));
+        return film;
+    }
+
+    /**
+     * Добавляет фильмы, выделяя им Id одним непрерывным диапазоном. Каждый шард получает свою часть
+     * одним запросом, а части разных шардов записываются одновременно.
+     */
+    @Override
+    public List<Film> createAll(List<Film> newFilms) {
+        if (newFilms.isEmpty()) {
+            return newFilms;
+        }
+        List<List<Film>> parts = new ArrayList<>(ring.shards());
+        for (int i = 0; i < ring.shards(); i++) {
+            parts.add(new ArrayList<>());
+        }
+        int id = idGenerator.reserve(newFilms.size());
+        for (Film film : newFilms) {
+            film.setId(id++);
+            film.setVersion(1);
+            parts.get(ring.shardOf(film.getId())).add(film);
+        }
+        shards.gather((index, shard) -> {
+            List<Film> part = parts.get(index);
+            if (!part.isEmpty()) {
+                shard.insertAll(part);
+            }
+            return null;
+        });
+        return newFilms;
+    }
+
+    @Override
+    public Optional<Film> update(Film updatedFilm) {
+        return update(updatedFilm.getId(), ANY_VERSION, film -> {
+            film.setName(updatedFilm.getName());
+            film.setDescription(updatedFilm.getDescription());
+            film.setDuration(updatedFilm.getDuration());
+            film.setReleaseDate(updatedFilm.getReleaseDate());
+            return film;
+        });
+    }
+
+    @Override
+    public Optional<Film> update(int id, long expectedVersion, UnaryOperator<Film> change) {
+        return shardOf(id).update(id, expectedVersion, change);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (ShardStats stats : shards.gather(FilmShard::stats)) {
+            size += stats.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long version() {
+        return versions.total(shards.gather(FilmShard::stats));
+    }
+
+    @Override
+    public int[] search(String query, int limit) {
+        long[] ranked = SortedMerge.topRanked(shards.gather(shard -> shard.searchRanked(query, limit)), limit);
+        int[] filmIds = new int[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            filmIds[i] = FilmSearchIndex.filmIdOf(ranked[i]);
+        }
+        return filmIds;
+    }
+
+    @Override
+    public int[] findIds(LocalDate releasedFrom, LocalDate releasedTo, Integer minDuration, Integer maxDuration,
+                         int afterId, int limit) {
+        return SortedMerge.ids(shards.gather(shard -> shard.findIds(releasedFrom, releasedTo, minDuration,
+                maxDuration, afterId, limit)), limit);
+    }
+
+    /**
+     * Номер шарда, которому принадлежит фильм.
+     */
+    public int shardIndexOf(int id) {
+        return ring.shardOf(id);
+    }
+
+    /**
+     * Сохраняет снимки шардов, которые ведут собственные журналы.
+     */
+    public void snapshot() {
+        for (FilmShard shard : shards.shards()) {
+            shard.snapshot();
+        }
+    }
+
+    @Override
+    public void close() {
+        shards.close();
+        for (FilmShard shard : shards.shards()) {
+            shard.close();
+        }
+    }
+
+    private FilmShard shardOf(int id) {
+        return shards.get(ring.shardOf(id));
+    }
+}
@@ -0,0 +1,250 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.AtomicIdGenerator;
+import ru.yandex.practicum.filmorate.storage.IdGenerator;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранилище пользователей, распределённое по шардам кольцом согласованного хеширования по Id.
+ * Запросы одного пользователя идут только в его шард, списки рассылаются всем шардам и сливаются по Id.
+ * <p>
+ * Email уникален во всём хранилище, а не в шарде. Email знают только шарды: перед записью хранилище
+ * спрашивает все шарды, кому принадлежат записываемые Email, и сохраняет у себя только Email, записи
+ * которых ещё идут, - чтобы две одновременные записи одного Email в разные шарды не прошли обе.
+ * Поэтому хранилище должно быть единственным, кто пишет в шарды.
+ */
+@Slf4j
+public class PartitionedUserStorage implements UserStorage, Closeable {
+    private final Scatter<UserShard> shards;
+    private final ConsistentHashRing ring;
+    private final ShardVersions versions;
+    private final Map<String, Integer> pendingEmails = new ConcurrentHashMap<>();
+    private final IdGenerator idGenerator;
+
+    public PartitionedUserStorage(List<? extends UserShard> shards, int virtualNodes, boolean parallel) {
+        this.shards = new Scatter<>(List.copyOf(shards), parallel);
+        this.ring = new ConsistentHashRing(shards.size(), virtualNodes);
+        this.versions = new ShardVersions(shards.size());
+        int maxId = 0;
+        for (ShardStats stats : this.shards.gather(UserShard::stats)) {
+            maxId = Math.max(maxId, stats.maxId());
+        }
+        idGenerator = new AtomicIdGenerator(maxId);
+        log.info("Пользователи распределены по {} шардам, наибольший Id {}.", shards.size(), maxId);
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        return SortedMerge.collections(shards.gather(UserShard::findAll), User::getId);
+    }
+
+    @Override
+    public List<User> findPage(int afterId, int limit) {
+        return SortedMerge.lists(shards.gather(shard -> shard.findPage(afterId, limit)), User::getId, limit);
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        return shardOf(id).findById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        Integer id = emailOwners(List.of(normalizeEmail(email))).get(normalizeEmail(email));
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    @Override
+    public User create(User user) {
+        String email = normalizeEmail(user.getEmail());
+        int id = idGenerator.nextId();
+        claimEmail(email, id);
+        try {
+            if (emailOwners(List.of(email)).containsKey(email)) {
+                throw emailAlreadyUsed();
+            }
+            user.setId(id);
+            user.setVersion(1);
+            shardOf(id).insertAll(List.of(user));
+        } finally {
+            pendingEmails.remove(email, id);
+        }
+        return user;
+    }
+
+    /**
+     * Email, занятые в шардах или повторяющиеся в списке, проверяются одним запросом ко всем шардам;
+     * их пользователи не добавляются и получают Id 0. Если запись в шард не удалась, пользователи
+     * остальных шардов уже сохранены.
+     */
+    @Override
+    public List<User> createAll(List<User> newUsers) {
+        if (newUsers.isEmpty()) {
+            return newUsers;
+        }
+        Map<String, Integer> claimedEmails = new HashMap<>();
+        int id = idGenerator.reserve(newUsers.size());
+        for (User user : newUsers) {
+            int userId = id++;
+            String email = normalizeEmail(user.getEmail());
+            if (pendingEmails.putIfAbsent(email, userId) == null) {
+                claimedEmails.put(email, userId);
+                user.setId(userId);
+            } else {
+                user.setId(0);
+            }
+        }
+        try {
+            Map<String, Integer> owners = claimedEmails.isEmpty() ? Map.of() : emailOwners(claimedEmails.keySet());
+            List<List<User>> parts = new ArrayList<>(ring.shards());
+            for (int i = 0; i < ring.shards(); i++) {
+                parts.add(new ArrayList<>());
+            }
+            List<User> createdUsers = new ArrayList<>(newUsers.size());
+            for (User user : newUsers) {
+                if (user.getId() != 0 && owners.containsKey(normalizeEmail(user.getEmail()))) {
+                    user.setId(0);
+                }
+                if (user.getId() != 0) {
+                    user.setVersion(1);
+                    parts.get(ring.shardOf(user.getId())).add(user);
+                    createdUsers.add(user);
+                }
+            }
+            shards.gather((index, shard) -> {
+                List<User> part = parts.get(index);
+                if (!part.isEmpty()) {
+                    shard.insertAll(part);
+                }
+                return null;
+            });
+            return createdUsers;
+        } finally {
+            claimedEmails.forEach(pendingEmails::remove);
+        }
+    }
+
+    @Override
+    public Optional<User> update(User updatedUser) {
+        return update(updatedUser.getId(), ANY_VERSION, user -> {
+            user.setName(updatedUser.getName());
+            user.setBirthday(updatedUser.getBirthday());
+            user.setLogin(updatedUser.getLogin());
+            user.setEmail(updatedUser.getEmail());
+            return user;
+        });
+    }
+
+    /**
+     * Новый Email проверяется, когда изменение строит новое состояние, то есть до записи в шард.
+     * Шард на другом узле может применить изменение несколько раз, поэтому занятые при этом Email
+     * запоминаются и после записи освобождаются все: записанный Email с этого момента знает шард.
+     */
+    @Override
+    public Optional<User> update(int id, long expectedVersion, UnaryOperator<User> change) {
+        List<String> claimedEmails = new ArrayList<>(1);
+        try {
+            return shardOf(id).update(id, expectedVersion, user -> {
+                String currentEmail = normalizeEmail(user.getEmail());
+                User newUser = change.apply(user);
+                String newEmail = normalizeEmail(newUser.getEmail());
+                if (!newEmail.equals(currentEmail)) {
+                    claimEmail(newEmail, id);
+                    claimedEmails.add(newEmail);
+                    Integer ownerId = emailOwners(List.of(newEmail)).get(newEmail);
+                    if (ownerId != null && ownerId != id) {
+                        throw emailAlreadyUsed();
+                    }
+                }
+                return newUser;
+            });
+        } finally {
+            for (String email : claimedEmails) {
+                pendingEmails.remove(email, id);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (ShardStats stats : shards.gather(UserShard::stats)) {
+            size += stats.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long version() {
+        return versions.total(shards.gather(UserShard::stats));
+    }
+
+    /**
+     * Номер шарда, которому принадлежит пользователь.
+     */
+    public int shardIndexOf(int id) {
+        return ring.shardOf(id);
+    }
+
+    /**
+     * Сохраняет снимки шардов, которые ведут собственные журналы.
+     */
+    public void snapshot() {
+        for (UserShard shard : shards.shards()) {
+            shard.snapshot();
+        }
+    }
+
+    @Override
+    public void close() {
+        shards.close();
+        for (UserShard shard : shards.shards()) {
+            shard.close();
+        }
+    }
+
+    private UserShard shardOf(int id) {
+        return shards.get(ring.shardOf(id));
+    }
+
+    /**
+     * Владельцы Email во всех шардах по Email в нижнем регистре.
+     */
+    private Map<String, Integer> emailOwners(Collection<String> emails) {
+        Map<String, Integer> owners = new HashMap<>();
+        for (Map<String, Integer> shardOwners : shards.gather(shard -> shard.findEmailOwners(emails))) {
+            owners.putAll(shardOwners);
+        }
+        return owners;
+    }
+
+    private void claimEmail(String email, int id) {
+        Integer ownerId = pendingEmails.putIfAbsent(email, id);
+        if (ownerId != null && ownerId != id) {
+            throw emailAlreadyUsed();
+        }
+    }
+
+    private ValidationException emailAlreadyUsed() {
+        log.error("Пользователь ввёл Email, который уже используется.");
+        return new ValidationException("Такой Email уже используется.");
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
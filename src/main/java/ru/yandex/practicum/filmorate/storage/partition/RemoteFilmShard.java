@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Шард фильмов на другом узле, доступный через его API шарда {@code /internal/shard/films}.
+ */
+public class RemoteFilmShard extends RemoteShard<Film> implements FilmShard {
+    /**
+     * @param restClient клиент с базовым адресом API шарда узла, например {@code http://node-1:8080/internal/shard}
+     */
+    public RemoteFilmShard(RestClient restClient) {
+        super(restClient, "/films", Film[].class, Film::getId, Film::getVersion, Film::copy);
+    }
+
+    @Override
+    public long[] searchRanked(String query, int limit) {
+        return call(() -> restClient.get()
+                .uri("/films/search?query={query}&limit={limit}", query, limit)
+                .retrieve()
+                .body(long[].class));
+    }
+
+    @Override
+    public int[] findIds(LocalDate releasedFrom, LocalDate releasedTo, Integer minDuration, Integer maxDuration,
+                         int afterId, int limit) {
+        return call(() -> restClient.get()
+                .uri(uri -> uri.path("/films/range")
+                        .queryParamIfPresent("releasedFrom", Optional.ofNullable(releasedFrom))
+                        .queryParamIfPresent("releasedTo", Optional.ofNullable(releasedTo))
+                        .queryParamIfPresent("minDuration", Optional.ofNullable(minDuration))
+                        .queryParamIfPresent("maxDuration", Optional.ofNullable(maxDuration))
+                        .queryParam("afterId", afterId)
+                        .queryParam("limit", limit)
+                        .build())
+                .retrieve()
+                .body(int[].class));
+    }
+}
@@ -0,0 +1,202 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.exceptions.ConflictException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Общая часть шардов на других узлах: обращения к API шарда по HTTP и перевод ответов 400, 404 и 409
+ * в исключения и пустые Optional, как у локальных хранилищ.
+ * <p>
+ * Функцию изменения нельзя передать по сети, поэтому изменение выполняется оптимистично: текущее состояние
+ * читается, изменяется локально и записывается с проверкой версии. Если сущность за это время изменилась,
+ * а вызывающий не требовал конкретной версии, попытка повторяется с новым состоянием.
+ */
+abstract class RemoteShard<T> {
+    static final int PAGE_SIZE = 1000;
+    private static final long ANY_VERSION = -1;
+
+    protected final RestClient restClient;
+    private final String path;
+    private final Class<T[]> arrayType;
+    private final ToIntFunction<T> idOf;
+    private final ToLongFunction<T> versionOf;
+    private final UnaryOperator<T> copy;
+
+    RemoteShard(RestClient restClient, String path, Class<T[]> arrayType, ToIntFunction<T> idOf,
+                ToLongFunction<T> versionOf, UnaryOperator<T> copy) {
+        this.restClient = restClient;
+        this.path = path;
+        this.arrayType = arrayType;
+        this.idOf = idOf;
+        this.versionOf = versionOf;
+        this.copy = copy;
+    }
+
+    /**
+     * Все сущности шарда. Страницы по {@link #PAGE_SIZE} запрашиваются по мере обхода,
+     * поэтому обход видит изменения, сделанные после его начала, как и обход локального хранилища.
+     */
+    public Collection<T> findAll() {
+        int size = stats().size();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new PageIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public List<T> findPage(int afterId, int limit) {
+        return call(() -> Arrays.asList(restClient.get()
+                .uri(path + "?afterId={afterId}&limit={limit}", afterId, limit)
+                .retrieve()
+                .body(arrayType)));
+    }
+
+    public Optional<T> findById(int id) {
+        return optional(() -> restClient.get()
+                .uri(path + "/{id}", id)
+                .retrieve()
+                .body(elementType()));
+    }
+
+    public void insertAll(List<T> entities) {
+        call(() -> restClient.post()
+                .uri(path)
+                .body(entities)
+                .retrieve()
+                .toBodilessEntity());
+    }
+
+    public Optional<T> update(int id, long expectedVersion, UnaryOperator<T> change) {
+        while (true) {
+            Optional<T> current = findById(id);
+            if (current.isEmpty()) {
+                return current;
+            }
+            long version = versionOf.applyAsLong(current.get());
+            if (expectedVersion != ANY_VERSION && expectedVersion != version) {
+                throw new ConflictException("Данные изменены другим запросом, получите их заново.");
+            }
+            T changed = change.apply(copy.apply(current.get()));
+            try {
+                return optional(() -> restClient.put()
+                        .uri(path + "/{id}?expectedVersion={version}", id, version)
+                        .body(changed)
+                        .retrieve()
+                        .body(elementType()));
+            } catch (ConflictException e) {
+                if (expectedVersion != ANY_VERSION) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public ShardStats stats() {
+        return call(() -> restClient.get()
+                .uri(path + "/stats")
+                .retrieve()
+                .body(ShardStats.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<T> elementType() {
+        return (Class<T>) arrayType.getComponentType();
+    }
+
+    private <R> Optional<R> optional(RemoteCall<R> remoteCall) {
+        try {
+            return Optional.ofNullable(call(remoteCall));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Выполняет запрос к шарду. Ответы 400 и 409 превращаются в те же исключения, что бросает локальное
+     * хранилище, с сообщением узла; остальные ошибки передаются как есть.
+     */
+    static <R> R call(RemoteCall<R> remoteCall) {
+        try {
+            return remoteCall.call();
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                throw new ConflictException(messageOf(e));
+            }
+            if (e.getStatusCode() == HttpStatus.BAD_REQUEST) {
+                throw new ValidationException(messageOf(e));
+            }
+            throw e;
+        }
+    }
+
+    private static String messageOf(HttpClientErrorException e) {
+        try {
+            Map<?, ?> body = e.getResponseBodyAs(Map.class);
+            if (body != null && body.get("error") instanceof String message) {
+                return message;
+            }
+        } catch (RuntimeException ignored) {
+            // тело ответа не в формате ErrorResponse
+        }
+        return e.getStatusText();
+    }
+
+    @FunctionalInterface
+    interface RemoteCall<R> {
+        R call();
+    }
+
+    private final class PageIterator implements Iterator<T> {
+        private List<T> page = List.of();
+        private int index;
+        private int afterId;
+        private boolean last;
+
+        @Override
+        public boolean hasNext() {
+            if (index < page.size()) {
+                return true;
+            }
+            if (last) {
+                return false;
+            }
+            page = findPage(afterId, PAGE_SIZE);
+            index = 0;
+            last = page.size() < PAGE_SIZE;
+            if (!page.isEmpty()) {
+                afterId = idOf.applyAsInt(page.get(page.size() - 1));
+            }
+            return !page.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(index++);
+        }
+    }
+}
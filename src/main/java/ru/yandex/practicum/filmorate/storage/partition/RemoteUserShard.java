@@ -0,0 +1,30 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Шард пользователей на другом узле, доступный через его API шарда {@code /internal/shard/users}.
+ */
+public class RemoteUserShard extends RemoteShard<User> implements UserShard {
+    /**
+     * @param restClient клиент с базовым адресом API шарда узла, например {@code http://node-1:8080/internal/shard}
+     */
+    public RemoteUserShard(RestClient restClient) {
+        super(restClient, "/users", User[].class, User::getId, User::getVersion, User::copy);
+    }
+
+    @Override
+    public Map<String, Integer> findEmailOwners(Collection<String> emails) {
+        return call(() -> restClient.post()
+                .uri("/users/emails")
+                .body(emails)
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<String, Integer>>() {
+                }));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Рассылка запроса всем шардам. Шарды в этом процессе опрашиваются по очереди в потоке запроса:
+ * их ответы дешевле переключения потоков. Шарды на других узлах опрашиваются одновременно
+ * в виртуальных потоках, и задержка запроса равна задержке самого медленного узла, а не их сумме.
+ */
+final class Scatter<S> implements AutoCloseable {
+    private final List<S> shards;
+    private final ExecutorService executor;
+
+    Scatter(List<S> shards, boolean parallel) {
+        this.shards = List.copyOf(shards);
+        this.executor = parallel && shards.size() > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    List<S> shards() {
+        return shards;
+    }
+
+    S get(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * Результаты {@code request} для всех шардов в порядке шардов. Исключение шарда передаётся вызывающему.
+     */
+    <R> List<R> gather(Function<S, R> request) {
+        return gather((index, shard) -> request.apply(shard));
+    }
+
+    /**
+     * То же, что {@link #gather(Function)}, но запрос получает и номер шарда.
+     */
+    <R> List<R> gather(BiFunction<Integer, S, R> request) {
+        List<R> results = new ArrayList<>(shards.size());
+        if (executor == null) {
+            for (int i = 0; i < shards.size(); i++) {
+                results.add(request.apply(i, shards.get(i)));
+            }
+            return results;
+        }
+        List<Future<R>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int index = i;
+            futures.add(executor.submit(() -> request.apply(index, shards.get(index))));
+        }
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Запрос к шардам прерван.", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+}
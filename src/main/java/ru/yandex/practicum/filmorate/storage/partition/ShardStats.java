@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+/**
+ * Состояние шарда для маршрутизатора: число сущностей, версия данных, наибольший Id и случайный
+ * идентификатор запуска шарда. Версия считается заново при каждом запуске, поэтому сравнивать версии
+ * можно только при одинаковом идентификаторе запуска - см. {@link ShardVersions}.
+ */
+public record ShardStats(int size, long version, int maxId, long bootId) {
+}
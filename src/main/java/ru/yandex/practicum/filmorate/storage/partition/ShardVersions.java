@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Общая версия данных всех шардов. Простая сумма версий шардов уменьшается, когда узел данных
+ * перезапускается и снова считает версию с нуля, и тогда ETag, выданный до перезапуска, может совпасть
+ * с новым при других данных. Поэтому для каждого шарда хранится смещение: когда меняется идентификатор
+ * запуска, к смещению прибавляется наибольшая версия прежнего запуска и единица, и версия шарда
+ * со смещением остаётся больше всех выданных раньше.
+ * <p>
+ * Ответы, отправленные шардом до перезапуска, могут прийти уже после ответов нового запуска.
+ * Такие ответы с идентификатором предыдущего запуска не считаются новым перезапуском, а версия шарда
+ * для них берётся последняя известная.
+ */
+final class ShardVersions {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] bootIds;
+    private final long[] previousBootIds;
+    private final long[] versions;
+    private final long[] offsets;
+    private final boolean[] seen;
+
+    ShardVersions(int shards) {
+        bootIds = new long[shards];
+        previousBootIds = new long[shards];
+        versions = new long[shards];
+        offsets = new long[shards];
+        seen = new boolean[shards];
+    }
+
+    /**
+     * Общая версия по состояниям шардов в порядке шардов. Не уменьшается между вызовами.
+     */
+    long total(List<ShardStats> stats) {
+        lock.lock();
+        try {
+            long total = 0;
+            for (int i = 0; i < stats.size(); i++) {
+                ShardStats shard = stats.get(i);
+                if (!seen[i]) {
+                    seen[i] = true;
+                    bootIds[i] = shard.bootId();
+                } else if (shard.bootId() != bootIds[i] && shard.bootId() != previousBootIds[i]) {
+                    offsets[i] += versions[i] + 1;
+                    previousBootIds[i] = bootIds[i];
+                    bootIds[i] = shard.bootId();
+                    versions[i] = 0;
+                }
+                if (shard.bootId() == bootIds[i]) {
+                    versions[i] = Math.max(versions[i], shard.version());
+                }
+                total += offsets[i] + versions[i];
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Слияние упорядоченных по Id результатов шардов. Шарды не пересекаются по Id, поэтому слияние
+ * отсортированных частей даёт отсортированный общий результат без повторов.
+ */
+final class SortedMerge {
+    private SortedMerge() {
+    }
+
+    /**
+     * Коллекция, которая при обходе лениво сливает коллекции шардов, упорядоченные по Id.
+     */
+    static <T> Collection<T> collections(List<? extends Collection<T>> parts, ToIntFunction<T> idOf) {
+        int size = 0;
+        for (Collection<T> part : parts) {
+            size += part.size();
+        }
+        int totalSize = size;
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                List<Iterator<T>> iterators = new ArrayList<>(parts.size());
+                for (Collection<T> part : parts) {
+                    iterators.add(part.iterator());
+                }
+                return iterators(iterators, idOf);
+            }
+
+            @Override
+            public int size() {
+                return totalSize;
+            }
+        };
+    }
+
+    /**
+     * Первые {@code limit} элементов слияния упорядоченных по Id списков.
+     */
+    static <T> List<T> lists(List<List<T>> parts, ToIntFunction<T> idOf, int limit) {
+        List<Iterator<T>> iterators = new ArrayList<>(parts.size());
+        for (List<T> part : parts) {
+            iterators.add(part.iterator());
+        }
+        Iterator<T> merged = iterators(iterators, idOf);
+        List<T> result = new ArrayList<>();
+        while (result.size() < limit && merged.hasNext()) {
+            result.add(merged.next());
+        }
+        return result;
+    }
+
+    /**
+     * Первые {@code limit} Id слияния массивов Id, отсортированных по возрастанию. Шардов немного,
+     * поэтому наименьший Id на каждом шаге ищется простым перебором голов массивов.
+     */
+    static int[] ids(List<int[]> parts, int limit) {
+        long size = 0;
+        for (int[] part : parts) {
+            size += part.length;
+        }
+        int[] merged = new int[(int) Math.min(limit, size)];
+        int[] positions = new int[parts.size()];
+        for (int i = 0; i < merged.length; i++) {
+            int next = -1;
+            for (int part = 0; part < parts.size(); part++) {
+                if (positions[part] < parts.get(part).length && (next < 0
+                        || parts.get(part)[positions[part]] < parts.get(next)[positions[next]])) {
+                    next = part;
+                }
+            }
+            merged[i] = parts.get(next)[positions[next]++];
+        }
+        return merged;
+    }
+
+    /**
+     * Первые {@code limit} рангов по убыванию из рангов шардов, каждый список которых упорядочен по убыванию.
+     */
+    static long[] topRanked(List<long[]> parts, int limit) {
+        int size = 0;
+        for (long[] part : parts) {
+            size += part.length;
+        }
+        long[] merged = new long[size];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(merged);
+        long[] top = new long[Math.min(limit, size)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = merged[size - 1 - i];
+        }
+        return top;
+    }
+
+    private static <T> Iterator<T> iterators(List<Iterator<T>> iterators, ToIntFunction<T> idOf) {
+        if (iterators.size() == 1) {
+            return iterators.get(0);
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(iterators.size());
+        for (Iterator<T> iterator : iterators) {
+            if (iterator.hasNext()) {
+                T value = iterator.next();
+                heads.add(new Head<>(idOf.applyAsInt(value), value, iterator));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.iterator.hasNext()) {
+                    T value = head.iterator.next();
+                    heads.add(new Head<>(idOf.applyAsInt(value), value, head.iterator));
+                }
+                return head.value;
+            }
+        };
+    }
+
+    private record Head<T>(int id, T value, Iterator<T> iterator) implements Comparable<Head<T>> {
+        @Override
+        public int compareTo(Head<T> other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Часть пользователей, которой владеет один шард: в этом процессе или на другом узле.
+ * Id выдаёт маршрутизатор, он же следит за уникальностью Email во всех шардах, спрашивая шарды
+ * о владельцах Email при каждой записи.
+ */
+public interface UserShard extends Closeable {
+    /**
+     * Возвращает всех пользователей шарда в порядке возрастания Id.
+     */
+    Collection<User> findAll();
+
+    List<User> findPage(int afterId, int limit);
+
+    Optional<User> findById(int id);
+
+    /**
+     * Id пользователей шарда, которые заняли Email из {@code emails}, по Email в нижнем регистре.
+     */
+    Map<String, Integer> findEmailOwners(Collection<String> emails);
+
+    void insertAll(List<User> users);
+
+    /**
+     * То же, что {@link ru.yandex.practicum.filmorate.storage.UserStorage#update(int, long, UnaryOperator)}.
+     */
+    Optional<User> update(int id, long expectedVersion, UnaryOperator<User> change);
+
+    ShardStats stats();
+
+    /**
+     * Сохраняет снимок шарда, если шард ведёт собственный журнал.
+     */
+    default void snapshot() {
+    }
+
+    @Override
+    default void close() {
+    }
+}
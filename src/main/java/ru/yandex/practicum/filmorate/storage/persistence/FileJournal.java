@@ -0,0 +1,322 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Журнал в виде двоичного файла, в который записи только дописываются.
+ * <p>
+ * Каждая запись хранится как длина, контрольная сумма CRC32C и тело, закодированное {@link RecordCodec}.
+ * Сброс на диск групповой: поток, дождавшийся своей очереди, выполняет один fsync за все записи,
+ * накопленные к этому моменту, а остальные ожидающие потоки просто видят, что их записи уже надёжны.
+ * <p>
+ * Снимок пишется в отдельный файл в формате {@link MappedSnapshot} и при запуске не читается целиком:
+ * хранилище получает его отображение в память и декодирует записи по мере обращения к ним.
+ * Перед записью снимка текущий файл журнала откладывается в сторону
+ * и начинается новый, поэтому запись снимка не блокирует изменения хранилища.
+ * Если приложение упало во время записи снимка, отложенный журнал при следующем запуске
+ * склеивается с текущим.
+ */
+@Slf4j
+public class FileJournal<T> implements Journal<T>, Closeable {
+    private static final int MAX_RECORD_LENGTH = MappedSnapshot.MAX_RECORD_LENGTH;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path logPath;
+    private final Path previousLogPath;
+    private final Path snapshotPath;
+    private final RecordCodec<T> codec;
+    private final boolean fsync;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private FileChannel channel;
+    private DataOutputStream output;
+    private long appendedSequence;
+    private volatile long durableSequence;
+
+    public FileJournal(Path directory, String name, RecordCodec<T> codec, boolean fsync) {
+        this.logPath = directory.resolve(name + ".log");
+        this.previousLogPath = directory.resolve(name + ".log.previous");
+        this.snapshotPath = directory.resolve(name + ".snapshot");
+        this.codec = codec;
+        this.fsync = fsync;
+    }
+
+    @Override
+    public Snapshot<T> openSnapshot() {
+        if (!Files.exists(snapshotPath)) {
+            return Snapshot.empty();
+        }
+        try {
+            MappedSnapshot<T> snapshot = MappedSnapshot.open(snapshotPath, codec);
+            log.info("Снимок {} открыт, записей: {}.", snapshotPath, snapshot.size());
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть снимок " + snapshotPath, e);
+        }
+    }
+
+    @Override
+    public void replay(Consumer<T> consumer) {
+        appendLock.lock();
+        try {
+            if (output != null) {
+                throw new IllegalStateException("Журнал уже восстановлен.");
+            }
+            Files.createDirectories(logPath.getParent());
+            long[] records = {0};
+            Consumer<T> countingConsumer = record -> {
+                records[0]++;
+                consumer.accept(record);
+            };
+            if (Files.exists(previousLogPath)) {
+                long previousLength = readLog(previousLogPath, countingConsumer);
+                mergeIntoPrevious(previousLength, readLog(logPath, countingConsumer));
+            } else {
+                truncate(logPath, readLog(logPath, countingConsumer));
+            }
+            open();
+            log.info("Журнал {} восстановлен, прочитано записей: {}.", logPath, records[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось восстановить журнал " + logPath, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public long append(T record) {
+        byte[] payload = encode(record);
+        appendLock.lock();
+        try {
+            if (output == null) {
+                throw new IllegalStateException("Журнал не восстановлен или уже закрыт.");
+            }
+            writeRecord(output, payload);
+            return ++appendedSequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать в журнал " + logPath, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            FileChannel flushedChannel;
+            long flushedSequence;
+            appendLock.lock();
+            try {
+                output.flush();
+                flushedChannel = channel;
+                flushedSequence = appendedSequence;
+            } finally {
+                appendLock.unlock();
+            }
+            if (fsync) {
+                flushedChannel.force(false);
+            }
+            durableSequence = flushedSequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сбросить журнал " + logPath + " на диск", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void snapshot(Iterable<T> records) {
+        snapshotLock.lock();
+        try {
+            rotate();
+            Path tmpPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            int count;
+            try (FileOutputStream fileOutput = new FileOutputStream(tmpPath.toFile());
+                 DataOutputStream snapshotOutput = new DataOutputStream(new BufferedOutputStream(fileOutput,
+                         BUFFER_SIZE))) {
+                count = MappedSnapshot.write(snapshotOutput, records, codec::idOf, this::encode);
+                snapshotOutput.flush();
+                fileOutput.getChannel().force(false);
+            }
+            Files.move(tmpPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(previousLogPath);
+            log.info("Снимок {} сохранён, записей: {}.", snapshotPath, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить снимок " + snapshotPath, e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushLock.lock();
+        appendLock.lock();
+        try {
+            if (output != null) {
+                closeLog();
+                output = null;
+            }
+        } finally {
+            appendLock.unlock();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Откладывает текущий файл журнала и начинает новый. Все записи, сделанные до этого момента,
+     * становятся надёжными.
+     */
+    private void rotate() throws IOException {
+        flushLock.lock();
+        appendLock.lock();
+        try {
+            closeLog();
+            if (Files.exists(previousLogPath)) {
+                mergeIntoPrevious(Files.size(previousLogPath), Files.size(logPath));
+            } else {
+                Files.move(logPath, previousLogPath);
+            }
+            open();
+        } finally {
+            appendLock.unlock();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Дописывает текущий журнал в конец отложенного и делает результат текущим журналом.
+     */
+    private void mergeIntoPrevious(long previousLength, long logLength) throws IOException {
+        truncate(previousLogPath, previousLength);
+        if (logLength > 0) {
+            try (FileChannel source = FileChannel.open(logPath, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(previousLogPath, StandardOpenOption.WRITE,
+                         StandardOpenOption.APPEND)) {
+                long transferred = 0;
+                while (transferred < logLength) {
+                    transferred += source.transferTo(transferred, logLength - transferred, target);
+                }
+                target.force(false);
+            }
+        }
+        Files.move(previousLogPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void open() throws IOException {
+        FileOutputStream fileOutput = new FileOutputStream(logPath.toFile(), true);
+        channel = fileOutput.getChannel();
+        output = new DataOutputStream(new BufferedOutputStream(fileOutput, BUFFER_SIZE));
+    }
+
+    private void closeLog() throws IOException {
+        output.flush();
+        channel.force(false);
+        durableSequence = appendedSequence;
+        output.close();
+    }
+
+    /**
+     * Читает записи журнала до конца файла или до первой повреждённой записи
+     * и возвращает длину корректно прочитанной части файла.
+     */
+    private long readLog(Path path, Consumer<T> consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long validLength = 0;
+        try (DataInputStream input = openInput(path)) {
+            byte[] payload;
+            while ((payload = readRecord(input)) != null) {
+                consumer.accept(codec.read(ByteBuffer.wrap(payload)));
+                validLength += Integer.BYTES * 2 + payload.length;
+            }
+        }
+        long fileLength = Files.size(path);
+        if (validLength < fileLength) {
+            log.warn("В журнале {} обнаружена неполная запись, отброшено байт: {}.", path, fileLength - validLength);
+        }
+        return validLength;
+    }
+
+    private byte[] readRecord(DataInputStream input) throws IOException {
+        try {
+            int length = input.readInt();
+            int expectedChecksum = input.readInt();
+            if (length < 0 || length > MAX_RECORD_LENGTH) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            input.readFully(payload);
+            CRC32C checksum = new CRC32C();
+            checksum.update(payload);
+            return (int) checksum.getValue() == expectedChecksum ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private void writeRecord(DataOutputStream recordOutput, byte[] payload) throws IOException {
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload);
+        recordOutput.writeInt(payload.length);
+        recordOutput.writeInt((int) checksum.getValue());
+        recordOutput.write(payload);
+    }
+
+    private byte[] encode(T record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            codec.write(new DataOutputStream(bytes), record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream openInput(Path path) throws IOException {
+        InputStream input = Files.newInputStream(path);
+        return new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+    }
+
+    private static void truncate(Path path, long length) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (fileChannel.size() > length) {
+                fileChannel.truncate(length);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+public class FilmCodec implements RecordCodec<Film> {
+    @Override
+    public void write(DataOutput output, Film film) throws IOException {
+        output.writeInt(film.getId());
+        RecordCodec.writeString(output, film.getName());
+        RecordCodec.writeString(output, film.getDescription());
+        output.writeLong(film.getReleaseDate().toEpochDay());
+        output.writeInt(film.getDuration());
+        output.writeLong(film.getVersion());
+    }
+
+    @Override
+    public Film read(ByteBuffer buffer) {
+        int id = buffer.getInt();
+        String name = RecordCodec.readString(buffer);
+        String description = RecordCodec.readString(buffer);
+        LocalDate releaseDate = LocalDate.ofEpochDay(buffer.getLong());
+        Film film = new Film(name, description, releaseDate, buffer.getInt());
+        film.setId(id);
+        film.setVersion(RecordCodec.readVersion(buffer));
+        return film;
+    }
+
+    @Override
+    public int idOf(Film film) {
+        return film.getId();
+    }
+}
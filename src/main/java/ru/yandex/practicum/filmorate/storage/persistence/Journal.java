@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import java.util.function.Consumer;
+
+/**
+ * Журнал изменений хранилища. Каждая запись - полное состояние сущности после изменения,
+ * поэтому при восстановлении достаточно применить записи по порядку.
+ */
+public interface Journal<T> {
+    /**
+     * Добавляет запись в журнал и возвращает её порядковый номер.
+     * Запись становится надёжной только после {@link #awaitDurable(long)}.
+     */
+    long append(T record);
+
+    /**
+     * Ждёт, пока все записи до указанного номера включительно не будут сброшены на диск.
+     */
+    void awaitDurable(long sequence);
+
+    /**
+     * Открывает последний снимок без чтения его записей.
+     */
+    Snapshot<T> openSnapshot();
+
+    /**
+     * Передаёт в {@code consumer} все записи журнала после последнего снимка.
+     * Записи журнала новее записей снимка с теми же Id.
+     */
+    void replay(Consumer<T> consumer);
+
+    /**
+     * Сохраняет снимок текущего состояния и освобождает записи журнала, вошедшие в него.
+     * Записи передаются в порядке возрастания Id.
+     */
+    void snapshot(Iterable<T> records);
+
+    static <T> Journal<T> none() {
+        return new Journal<>() {
+            @Override
+            public long append(T record) {
+                return 0;
+            }
+
+            @Override
+            public void awaitDurable(long sequence) {
+            }
+
+            @Override
+            public Snapshot<T> openSnapshot() {
+                return Snapshot.empty();
+            }
+
+            @Override
+            public void replay(Consumer<T> consumer) {
+            }
+
+            @Override
+            public void snapshot(Iterable<T> records) {
+            }
+        };
+    }
+}
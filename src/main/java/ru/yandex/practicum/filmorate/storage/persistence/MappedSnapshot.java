@@ -0,0 +1,206 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Снимок в файле фиксированной структуры, отображённом в память.
+ * <pre>
+ * [magic int][version int]
+ * данные:  [length int][запись] ... - записи в порядке возрастания Id
+ * индекс:  [id int][offset long] ... - смещения записей, отсортированные по Id
+ * окончание: [count int][indexOffset long][magic int]
+ * </pre>
+ * Открытие снимка читает только окончание файла. Запись декодируется при обращении к ней:
+ * поиск по Id - бинарный поиск по индексу прямо в отображённой памяти.
+ * Файл отображается частями по 1 ГБ, которые перекрываются на максимальный размер записи,
+ * поэтому любая запись целиком лежит в части, где она начинается.
+ */
+public class MappedSnapshot<T> implements Snapshot<T> {
+    static final int MAGIC = 0x464C4D32;
+    static final int VERSION = 1;
+    static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+    private static final int HEADER_LENGTH = Integer.BYTES * 2;
+    private static final int INDEX_ENTRY_LENGTH = Integer.BYTES + Long.BYTES;
+    private static final int FOOTER_LENGTH = Integer.BYTES * 2 + Long.BYTES;
+    private static final long CHUNK_LENGTH = 1L << 30;
+
+    private final RecordCodec<T> codec;
+    private final MappedByteBuffer[] chunks;
+    private final int count;
+    private final long indexOffset;
+
+    private MappedSnapshot(RecordCodec<T> codec, MappedByteBuffer[] chunks, int count, long indexOffset) {
+        this.codec = codec;
+        this.chunks = chunks;
+        this.count = count;
+        this.indexOffset = indexOffset;
+    }
+
+    public static <T> MappedSnapshot<T> open(Path path, RecordCodec<T> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileLength = channel.size();
+            if (fileLength < HEADER_LENGTH + FOOTER_LENGTH) {
+                throw new IOException("Файл " + path + " слишком короткий для снимка.");
+            }
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((fileLength - 1) / CHUNK_LENGTH + 1)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = i * CHUNK_LENGTH;
+                long length = Math.min(CHUNK_LENGTH + MAX_RECORD_LENGTH, fileLength - position);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            }
+            MappedSnapshot<T> snapshot = new MappedSnapshot<>(codec, chunks, 0, 0);
+            ByteBuffer header = snapshot.slice(0, HEADER_LENGTH);
+            ByteBuffer footer = snapshot.slice(fileLength - FOOTER_LENGTH, FOOTER_LENGTH);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Файл " + path + " не является снимком.");
+            }
+            int count = footer.getInt();
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != MAGIC
+                    || indexOffset + (long) count * INDEX_ENTRY_LENGTH != fileLength - FOOTER_LENGTH) {
+                throw new IOException("Снимок " + path + " повреждён.");
+            }
+            return new MappedSnapshot<>(codec, chunks, count, indexOffset);
+        }
+    }
+
+    /**
+     * Записывает снимок из записей, переданных в порядке возрастания Id.
+     */
+    static <T> int write(DataOutputStream output, Iterable<T> records, ToIntFunction<T> idOf,
+                         Function<T, byte[]> encoder) throws IOException {
+        int[] ids = new int[1024];
+        long[] offsets = new long[1024];
+        int count = 0;
+        long position = HEADER_LENGTH;
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        for (T record : records) {
+            int id = idOf.applyAsInt(record);
+            if (count > 0 && id <= ids[count - 1]) {
+                throw new IllegalArgumentException("Записи снимка должны идти в порядке возрастания Id.");
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            byte[] payload = encoder.apply(record);
+            ids[count] = id;
+            offsets[count] = position;
+            count++;
+            output.writeInt(payload.length);
+            output.write(payload);
+            position += Integer.BYTES + payload.length;
+        }
+        for (int i = 0; i < count; i++) {
+            output.writeInt(ids[i]);
+            output.writeLong(offsets[i]);
+        }
+        output.writeInt(count);
+        output.writeLong(position);
+        output.writeInt(MAGIC);
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int maxId() {
+        return count == 0 ? 0 : idAt(count - 1);
+    }
+
+    @Override
+    public T get(int id) {
+        int index = indexOf(id);
+        return index < 0 ? null : codec.read(recordAt(index));
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    @Override
+    public void forEach(Consumer<T> consumer) {
+        for (int i = 0; i < count; i++) {
+            consumer.accept(codec.read(recordAt(i)));
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public T next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+                return codec.read(recordAt(index++));
+            }
+        };
+    }
+
+    @Override
+    public void forEachRecord(RecordConsumer consumer) {
+        for (int i = 0; i < count; i++) {
+            consumer.accept(idAt(i), recordAt(i));
+        }
+    }
+
+    /**
+     * Двоичный поиск по индексу: читает только Id, не заходя в сами записи.
+     */
+    private int indexOf(int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = idAt(middle);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int idAt(int index) {
+        return slice(indexOffset + (long) index * INDEX_ENTRY_LENGTH, Integer.BYTES).getInt();
+    }
+
+    private ByteBuffer recordAt(int index) {
+        long offset = slice(indexOffset + (long) index * INDEX_ENTRY_LENGTH + Integer.BYTES, Long.BYTES).getLong();
+        int length = slice(offset, Integer.BYTES).getInt();
+        return slice(offset + Integer.BYTES, length);
+    }
+
+    private ByteBuffer slice(long position, int length) {
+        MappedByteBuffer chunk = chunks[(int) (position / CHUNK_LENGTH)];
+        return chunk.slice((int) (position % CHUNK_LENGTH), length);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Двоичное представление сущности в журнале и снимках.
+ */
+public interface RecordCodec<T> {
+    void write(DataOutput output, T value) throws IOException;
+
+    T read(ByteBuffer buffer);
+
+    int idOf(T value);
+
+    static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Читает версию сущности в конце записи. В записях, сделанных до появления версий, её нет,
+     * и такие сущности получают версию 1.
+     */
+    static long readVersion(ByteBuffer buffer) {
+        return buffer.remaining() >= Long.BYTES ? buffer.getLong() : 1;
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
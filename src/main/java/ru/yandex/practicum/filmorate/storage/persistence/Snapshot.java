@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Снимок состояния хранилища, из которого записи читаются по требованию.
+ */
+public interface Snapshot<T> {
+    int size();
+
+    /**
+     * Наибольший Id в снимке или 0, если снимок пуст.
+     */
+    int maxId();
+
+    /**
+     * Читает запись с указанным Id или возвращает null, если её нет в снимке.
+     */
+    T get(int id);
+
+    /**
+     * Есть ли в снимке запись с указанным Id. Саму запись не читает.
+     */
+    boolean contains(int id);
+
+    /**
+     * Передаёт в {@code consumer} все записи в порядке возрастания Id.
+     */
+    void forEach(Consumer<T> consumer);
+
+    /**
+     * Обходит записи в порядке возрастания Id, декодируя их по одной.
+     */
+    Iterator<T> iterator();
+
+    /**
+     * Передаёт в {@code consumer} закодированные записи без их декодирования.
+     */
+    void forEachRecord(RecordConsumer consumer);
+
+    interface RecordConsumer {
+        void accept(int id, ByteBuffer record);
+    }
+
+    static <T> Snapshot<T> empty() {
+        return new Snapshot<>() {
+            @Override
+            public int size() {
+                return 0;
+            }
+
+            @Override
+            public int maxId() {
+                return 0;
+            }
+
+            @Override
+            public T get(int id) {
+                return null;
+            }
+
+            @Override
+            public boolean contains(int id) {
+                return false;
+            }
+
+            @Override
+            public void forEach(Consumer<T> consumer) {
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return Collections.emptyIterator();
+            }
+
+            @Override
+            public void forEachRecord(RecordConsumer consumer) {
+            }
+        };
+    }
+}
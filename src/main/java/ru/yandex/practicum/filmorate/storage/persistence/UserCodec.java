@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+public class UserCodec implements RecordCodec<User> {
+    @Override
+    public void write(DataOutput output, User user) throws IOException {
+        output.writeInt(user.getId());
+        RecordCodec.writeString(output, user.getEmail());
+        RecordCodec.writeString(output, user.getLogin());
+        RecordCodec.writeString(output, user.getName());
+        output.writeLong(user.getBirthday().toEpochDay());
+        output.writeLong(user.getVersion());
+    }
+
+    @Override
+    public User read(ByteBuffer buffer) {
+        int id = buffer.getInt();
+        String email = RecordCodec.readString(buffer);
+        String login = RecordCodec.readString(buffer);
+        String name = RecordCodec.readString(buffer);
+        User user = new User(email, login, LocalDate.ofEpochDay(buffer.getLong()));
+        user.setId(id);
+        user.setName(name);
+        user.setVersion(RecordCodec.readVersion(buffer));
+        return user;
+    }
+
+    /**
+     * Читает из закодированной записи только Email, не создавая пользователя.
+     */
+    public static String readEmail(ByteBuffer buffer) {
+        buffer.getInt();
+        return RecordCodec.readString(buffer);
+    }
+
+    @Override
+    public int idOf(User user) {
+        return user.getId();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Set;
+
+/**
+ * Проверка по аннотациям Bean Validation на полях модели.
+ */
+@RequiredArgsConstructor
+public class BeanEntityValidator implements EntityValidator {
+    private final Validator validator;
+
+    @Override
+    public String validate(Film film) {
+        String error = firstViolation(validator.validate(film));
+        if (error == null && film.getReleaseDate().isBefore(FilmRules.EARLIEST_RELEASE_DATE)) {
+            return FilmRules.RELEASE_DATE_TOO_EARLY;
+        }
+        return error;
+    }
+
+    @Override
+    public String validate(User user) {
+        return firstViolation(validator.validate(user));
+    }
+
+    private static <T> String firstViolation(Set<ConstraintViolation<T>> violations) {
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+}
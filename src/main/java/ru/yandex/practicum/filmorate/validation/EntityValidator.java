@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Проверка фильмов и пользователей из запросов. Реализация выбирается свойством
+ * {@code filmorate.validation.mode}: {@code fast} - {@link FastEntityValidator},
+ * {@code bean} - {@link BeanEntityValidator}.
+ */
+public interface EntityValidator {
+    /**
+     * Возвращает текст первой найденной ошибки или null, если фильм корректен.
+     */
+    String validate(Film film);
+
+    /**
+     * Возвращает текст первой найденной ошибки или null, если пользователь корректен.
+     */
+    String validate(User user);
+}
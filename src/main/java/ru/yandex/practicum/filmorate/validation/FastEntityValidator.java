@@ -0,0 +1,140 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+
+/**
+ * Проверка тех же правил, что заданы аннотациями модели, без рефлексии и регулярных выражений.
+ * Тексты ошибок - константы, поэтому проверка ничего не создаёт, кроме текущей даты для дня рождения.
+ * Правила должны совпадать с аннотациями {@link Film} и {@link User}.
+ */
+public class FastEntityValidator implements EntityValidator {
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
+
+    private static final String FILM_NAME_EMPTY = "Название фильма не может быть пустым.";
+    private static final String FILM_DESCRIPTION_EMPTY = "Описание фильма не может быть пустым.";
+    private static final String FILM_DESCRIPTION_LENGTH = "Описание фильма должно быть от 1 до 200 символов.";
+    private static final String FILM_RELEASE_DATE_EMPTY = "Дата релиза фильма не может быть пустой.";
+    private static final String FILM_DURATION_NOT_POSITIVE =
+            "Продолжительность фильма не может быть нулевой или отрицательной.";
+    private static final String USER_EMAIL_EMPTY = "Email пользователя не может быть пустым.";
+    private static final String USER_EMAIL_INVALID = "Пользователь ввёл некорректный Email.";
+    private static final String USER_LOGIN_INVALID = "Логин пользователя не может содержать пробелы или быть пустым.";
+    private static final String USER_BIRTHDAY_EMPTY = "Дата рождения пользователя не может быть пустой.";
+    private static final String USER_BIRTHDAY_IN_FUTURE = "Дата рождения не может быть в будущем.";
+
+    @Override
+    public String validate(Film film) {
+        if (isBlank(film.getName())) {
+            return FILM_NAME_EMPTY;
+        }
+        String description = film.getDescription();
+        if (isBlank(description)) {
+            return FILM_DESCRIPTION_EMPTY;
+        }
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            return FILM_DESCRIPTION_LENGTH;
+        }
+        if (film.getReleaseDate() == null) {
+            return FILM_RELEASE_DATE_EMPTY;
+        }
+        if (film.getDuration() <= 0) {
+            return FILM_DURATION_NOT_POSITIVE;
+        }
+        if (film.getReleaseDate().isBefore(FilmRules.EARLIEST_RELEASE_DATE)) {
+            return FilmRules.RELEASE_DATE_TOO_EARLY;
+        }
+        return null;
+    }
+
+    @Override
+    public String validate(User user) {
+        String email = user.getEmail();
+        if (isBlank(email)) {
+            return USER_EMAIL_EMPTY;
+        }
+        if (!isEmail(email)) {
+            return USER_EMAIL_INVALID;
+        }
+        String login = user.getLogin();
+        if (isBlank(login) || containsWhitespace(login)) {
+            return USER_LOGIN_INVALID;
+        }
+        if (user.getBirthday() == null) {
+            return USER_BIRTHDAY_EMPTY;
+        }
+        if (!user.getBirthday().isBefore(LocalDate.now())) {
+            return USER_BIRTHDAY_IN_FUTURE;
+        }
+        return null;
+    }
+
+    /**
+     * То же, что {@code @NotBlank}: null или строка только из символов не больше пробела.
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * То же, что {@code \S+}: символы {@code [ \t\n\x0B\f\r]} недопустимы.
+     */
+    private static boolean containsWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * То же, что {@code ^[\w-\.]+@([\w-]+\.)+[\w-]{2,4}$}: непустая локальная часть из символов
+     * {@code [\w.-]}, затем домен из непустых частей {@code [\w-]+}, разделённых точками,
+     * где частей не меньше двух, а последняя длиной от 2 до 4 символов.
+     */
+    private static boolean isEmail(String value) {
+        int at = value.indexOf('@');
+        if (at < 1) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = value.charAt(i);
+            if (!isWordOrHyphen(c) && c != '.') {
+                return false;
+            }
+        }
+        int labelLength = 0;
+        int labels = 0;
+        for (int i = at + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return false;
+                }
+                labels++;
+                labelLength = 0;
+            } else if (isWordOrHyphen(c)) {
+                labelLength++;
+            } else {
+                return false;
+            }
+        }
+        return labels > 0 && labelLength >= 2 && labelLength <= 4;
+    }
+
+    private static boolean isWordOrHyphen(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-';
+    }
+}
@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+/**
+ * Правила для фильмов, которые не выражены аннотациями модели.
+ */
+final class FilmRules {
+    static final LocalDate EARLIEST_RELEASE_DATE = LocalDate.of(1895, Month.DECEMBER, 28);
+    static final String RELEASE_DATE_TOO_EARLY = "Дата релиза не раньше " + EARLIEST_RELEASE_DATE.getDayOfMonth()
+            + " " + EARLIEST_RELEASE_DATE.getMonth() + " " + EARLIEST_RELEASE_DATE.getYear() + " года.";
+
+    private FilmRules() {
+    }
+}
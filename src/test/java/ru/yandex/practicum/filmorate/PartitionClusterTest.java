@@ -0,0 +1,221 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.controller.ShardSecretFilter;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.partition.PartitionedFilmStorage;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Кластер в одном процессе: три узла данных с API шарда и маршрутизатор, распределяющий по ним данные.
+ * Каждый узел - отдельный контекст приложения на своём порту. Проверка с перезапуском узла теряет
+ * его данные, поэтому выполняется последней.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PartitionClusterTest {
+    private static final int NODES = 3;
+    private static final int FILMS = 300;
+    private static final String SECRET = "--filmorate.partition.shard-secret=cluster-secret";
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static ConfigurableApplicationContext router;
+    private static RestClient client;
+
+    @BeforeAll
+    static void startCluster() {
+        List<String> nodeUris = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            ConfigurableApplicationContext node = start("--filmorate.partition.shard-api=true", SECRET);
+            nodes.add(node);
+            nodeUris.add("http://localhost:" + portOf(node));
+        }
+        router = start("--filmorate.partition.enabled=true", SECRET,
+                "--filmorate.partition.nodes=" + String.join(",", nodeUris));
+        client = RestClient.builder()
+                .baseUrl("http://localhost:" + portOf(router))
+                .defaultStatusHandler(HttpStatusCode::isError, (request, response) -> {
+                })
+                .build();
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (router != null) {
+            router.close();
+        }
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Проверка распределения фильмов по узлам, слияния списков и поиска через маршрутизатор")
+    void filmsTest() {
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 1; i <= FILMS; i++) {
+            batch.append(i == 1 ? "" : ",").append(filmJson(i % 10 == 0 ? "Сталкер " + i : "Фильм " + i));
+        }
+        JsonNode created = client.post().uri("/films/batch").contentType(MediaType.APPLICATION_JSON)
+                .body(batch.append("]").toString()).retrieve().body(JsonNode.class);
+        assertEquals(FILMS, created.size(), "Не все фильмы добавлены");
+
+        PartitionedFilmStorage filmStorage = router.getBean(PartitionedFilmStorage.class);
+        int[] counts = new int[NODES];
+        for (int id = 1; id <= FILMS; id++) {
+            int owner = filmStorage.shardIndexOf(id);
+            counts[owner]++;
+            for (int node = 0; node < NODES; node++) {
+                assertEquals(node == owner, nodes.get(node).getBean(FilmStorage.class).findById(id).isPresent(),
+                        "Фильм " + id + " хранится не на своём узле");
+            }
+        }
+        for (int count : counts) {
+            assertTrue(count > 0, "На одном из узлов нет фильмов");
+        }
+
+        JsonNode all = client.get().uri("/films").retrieve().body(JsonNode.class);
+        assertEquals(IntStream.rangeClosed(1, FILMS).boxed().toList(), idsOf(all), "Неверный общий список");
+        JsonNode page = client.get().uri("/films?limit=50&cursor=100").retrieve().body(JsonNode.class);
+        assertEquals(IntStream.rangeClosed(101, 150).boxed().toList(), idsOf(page), "Неверная страница");
+        JsonNode found = client.get().uri("/films/search?query=сталкер&count=5").retrieve().body(JsonNode.class);
+        assertEquals(List.of(10, 20, 30, 40, 50), idsOf(found), "Неверный результат поиска");
+        JsonNode filtered = client.get().uri("/films?fromYear=2000&cursor=100&limit=20").retrieve()
+                .body(JsonNode.class);
+        assertEquals(IntStream.rangeClosed(101, 120).boxed().toList(), idsOf(filtered),
+                "Неверная страница отфильтрованного списка");
+        assertEquals(400, RestClient.builder()
+                .baseUrl("http://localhost:" + portOf(nodes.get(0)) + "/internal/shard")
+                .defaultHeader(ShardSecretFilter.SECRET_HEADER, "cluster-secret")
+                .defaultStatusHandler(HttpStatusCode::isError, (request, response) -> {
+                })
+                .build()
+                .get().uri("/films/range?releasedFrom=2000-01-01").retrieve().toBodilessEntity()
+                .getStatusCode().value(), "Шард должен требовать лимит выборки по промежутку");
+    }
+
+    @Test
+    @DisplayName("Проверка изменения фильма на узле с проверкой ETag через маршрутизатор")
+    void ifMatchTest() {
+        int id = client.post().uri("/films").contentType(MediaType.APPLICATION_JSON).body(filmJson("Солярис"))
+                .retrieve().body(JsonNode.class).get("id").asInt();
+        String etag = client.get().uri("/films/{id}", id).retrieve().toBodilessEntity().getHeaders().getETag();
+        String update = filmJson("Зеркало").replace("{", "{\"id\":" + id + ",");
+        assertEquals(200, client.put().uri("/films").contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, etag).body(update).retrieve().toBodilessEntity()
+                .getStatusCode().value(), "Изменение с текущим ETag не выполнено");
+        assertEquals(409, client.put().uri("/films").contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, etag).body(update).retrieve().toBodilessEntity()
+                .getStatusCode().value(), "Изменение с прежним ETag должно получить конфликт");
+        assertEquals("Зеркало", client.get().uri("/films/{id}", id).retrieve().body(JsonNode.class)
+                .get("name").asText(), "Изменение не сохранено на узле");
+    }
+
+    @Test
+    @DisplayName("Проверка уникальности Email пользователей на разных узлах")
+    void emailUniqueTest() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, postUser("cluster" + i + "@ex.ru"), "Пользователь не добавлен");
+        }
+        assertEquals(400, postUser("CLUSTER3@ex.ru"), "Пользователь с занятым Email добавлен");
+        assertEquals(400, postUser("cluster7@EX.ru"), "Пользователь с занятым Email добавлен");
+    }
+
+    @Test
+    @DisplayName("Проверка доступа к API шарда только с общим секретом узлов")
+    void shardSecretTest() {
+        RestClient nodeClient = RestClient.builder()
+                .baseUrl("http://localhost:" + portOf(nodes.get(0)) + "/internal/shard")
+                .defaultStatusHandler(HttpStatusCode::isError, (request, response) -> {
+                })
+                .build();
+        assertEquals(403, nodeClient.get().uri("/films/stats").retrieve().toBodilessEntity()
+                .getStatusCode().value(), "Запрос без секрета должен быть отклонён");
+        assertEquals(403, nodeClient.post().uri("/films").header(ShardSecretFilter.SECRET_HEADER, "wrong")
+                .contentType(MediaType.APPLICATION_JSON).body("[]").retrieve().toBodilessEntity()
+                .getStatusCode().value(), "Запрос с неверным секретом должен быть отклонён");
+        assertEquals(200, nodeClient.get().uri("/films/stats")
+                .header(ShardSecretFilter.SECRET_HEADER, "cluster-secret").retrieve().toBodilessEntity()
+                .getStatusCode().value(), "Запрос с секретом не выполнен");
+        for (String path : List.of("/internal/shar%64/films/stats", "/internal/shard;x=1/films/stats")) {
+            assertEquals(403, nodeClient.get().uri(URI.create("http://localhost:" + portOf(nodes.get(0)) + path))
+                    .retrieve().toBodilessEntity().getStatusCode().value(), "Запрос " + path + " прошёл без секрета");
+        }
+        assertThrows(RuntimeException.class, () -> start("--filmorate.partition.shard-api=true"),
+                "Узел данных не должен запускаться без секрета");
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    @DisplayName("Проверка ETag списка фильмов после перезапуска узла данных")
+    void nodeRestartTest() {
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 1; i <= 30; i++) {
+            batch.append(i == 1 ? "" : ",").append(filmJson("Фильм " + i));
+        }
+        client.post().uri("/films/batch").contentType(MediaType.APPLICATION_JSON)
+                .body(batch.append("]").toString()).retrieve().toBodilessEntity();
+        long lostVersion = nodes.get(0).getBean(FilmStorage.class).version();
+        String etag = client.get().uri("/films").retrieve().toBodilessEntity().getHeaders().getETag();
+
+        int port = portOf(nodes.get(0));
+        nodes.get(0).close();
+        nodes.set(0, startOnPort(port, "--filmorate.partition.shard-api=true", SECRET));
+
+        for (long i = 0; i <= lostVersion; i++) {
+            assertEquals(200, client.get().uri("/films").header(HttpHeaders.IF_NONE_MATCH, etag).retrieve()
+                    .toBodilessEntity().getStatusCode().value(), "ETag до перезапуска узла совпал с новыми данными");
+            client.post().uri("/films").contentType(MediaType.APPLICATION_JSON).body(filmJson("Новый фильм"))
+                    .retrieve().toBodilessEntity();
+        }
+    }
+
+    private static int postUser(String email) {
+        return client.post().uri("/users").contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\":\"" + email + "\",\"login\":\"login\",\"birthday\":\"2000-10-10\"}")
+                .retrieve().toBodilessEntity().getStatusCode().value();
+    }
+
+    private static String filmJson(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Описание\",\"releaseDate\":\"2000-10-10\","
+                + "\"duration\":120}";
+    }
+
+    private static List<Integer> idsOf(JsonNode films) {
+        List<Integer> ids = new ArrayList<>();
+        films.forEach(film -> ids.add(film.get("id").asInt()));
+        return ids;
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        return startOnPort(0, args);
+    }
+
+    private static ConfigurableApplicationContext startOnPort(int port, String... args) {
+        String[] allArgs = new String[args.length + 2];
+        allArgs[0] = "--server.port=" + port;
+        allArgs[1] = "--logging.level.root=WARN";
+        System.arraycopy(args, 0, allArgs, 2, args.length);
+        return new SpringApplicationBuilder(FilmorateApplication.class).run(allArgs);
+    }
+
+    private static int portOf(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ErrorHandlerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Проверка ответа 400 и подсчёта ошибок валидации")
+    void validationErrorTest() throws Exception {
+        double before = errors("validation", "FilmController");
+        mockMvc.perform(post("/films").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"\",\"description\":\"Описание\",\"releaseDate\":\"2000-10-10\","
+                                + "\"duration\":120}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        assertEquals(before + 1, errors("validation", "FilmController"), "Ошибка валидации не посчитана");
+    }
+
+    @Test
+    @DisplayName("Проверка ответа 404 и подсчёта обращений к несуществующим пользователям")
+    void notFoundErrorTest() throws Exception {
+        double before = errors("not_found", "UserController");
+        mockMvc.perform(put("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":100000,\"email\":\"user@ex.ru\",\"login\":\"login\","
+                                + "\"birthday\":\"2000-10-10\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Такого пользователя не существует."));
+        assertEquals(before + 1, errors("not_found", "UserController"), "Ошибка поиска не посчитана");
+    }
+
+    @Test
+    @DisplayName("Проверка метрик размера хранилищ и времени обработки запросов")
+    void metricsTest() throws Exception {
+        mockMvc.perform(get("/films")).andExpect(status().isOk());
+        assertNotNull(meterRegistry.find("filmorate.storage.size").tag("storage", "films").gauge(),
+                "Нет метрики размера хранилища фильмов");
+        assertNotNull(meterRegistry.find("http.server.requests").tag("uri", "/films").timer(),
+                "Нет метрики времени обработки запросов");
+    }
+
+    private double errors(String type, String controller) {
+        var counter = meterRegistry.find(ErrorHandler.ERRORS_METRIC).tag("type", type)
+                .tag("controller", controller).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
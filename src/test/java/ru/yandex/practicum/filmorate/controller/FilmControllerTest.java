@@ -1,5 +1,8 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -8,11 +11,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryLikeStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeIndex;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+import ru.yandex.practicum.filmorate.validation.FastEntityValidator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,13 +46,29 @@ class FilmControllerTest {
 
     FilmController filmController;
 
+    InMemoryFilmStorage filmStorage;
+
+    InMemoryUserStorage userStorage;
+
+    ObjectMapper objectMapper;
+
     private static Validator validator;
 
     @BeforeEach
     void createNewFilmController() {
-        filmController = new FilmController();
+        FilmSearchIndex searchIndex = new FilmSearchIndex();
+        FilmRangeIndex rangeIndex = new FilmRangeIndex();
+        filmStorage = new InMemoryFilmStorage(Journal.none(), List.of(searchIndex, rangeIndex));
+        userStorage = new InMemoryUserStorage();
         ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
         validator = validatorFactory.getValidator();
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        filmController = new FilmController(filmStorage,
+                new FilmService(filmStorage, userStorage, new InMemoryLikeStorage(), searchIndex, rangeIndex),
+                objectMapper, new FastEntityValidator(), new JsonResponseCache(objectMapper));
     }
 
     @Test
@@ -36,7 +76,7 @@ class FilmControllerTest {
     void createFilmTest() {
         Film film = new Film("Фильм 1", "Описание фильма 1", LocalDate.of(2000, 10, 10), 120);
         filmController.create(film);
-        assertNotNull(filmController.getFilms(), "Фильм не добавлен в список фильмов");
+        assertNotNull(filmStorage.getFilms(), "Фильм не добавлен в список фильмов");
     }
 
     @Test
@@ -82,7 +122,7 @@ class FilmControllerTest {
         assertThrows(ValidationException.class, () -> {
             filmController.create(film);
         });
-        assertEquals(new HashMap<>(), filmController.getFilms(), "Фильм не должен быть добавлен в список фильмов");
+        assertEquals(new HashMap<>(), filmStorage.getFilms(), "Фильм не должен быть добавлен в список фильмов");
     }
 
     @Test
@@ -92,9 +132,10 @@ class FilmControllerTest {
         filmController.create(film);
         Film updatedFilm = new Film("Обновлённый фильм 1", "Обновлённое описание фильма 1", film.getReleaseDate(), 120);
         updatedFilm.setId(film.getId());
-        filmController.update(updatedFilm);
-        assertNotNull(filmController.getFilms(), "Фильм не добавлен в список фильмов");
-        assertEquals(updatedFilm.getName(), film.getName(), "Фильм не обновлён");
+        filmController.update(updatedFilm, null);
+        assertNotNull(filmStorage.getFilms(), "Фильм не добавлен в список фильмов");
+        assertEquals(updatedFilm.getName(), filmStorage.findById(film.getId()).orElseThrow().getName(),
+                "Фильм не обновлён");
     }
 
     @Test
@@ -105,7 +146,7 @@ class FilmControllerTest {
         Film updatedFilm = new Film("Фильм 1", "Описание фильма 1", LocalDate.of(1800, 10, 10), 120);
         updatedFilm.setId(film.getId());
         assertThrows(ValidationException.class, () -> {
-            filmController.update(updatedFilm);
+            filmController.update(updatedFilm, null);
         });
         assertNotEquals(film.getReleaseDate(), updatedFilm.getReleaseDate(), "Даты релиза фильмов одинаковые");
     }
@@ -120,6 +161,243 @@ class FilmControllerTest {
         HashMap<Integer, Film> films = new HashMap<>();
         films.put(1, film1);
         films.put(2, film2);
-        assertEquals(films.values().toString(), filmController.findAll().toString(), "Список фильмов некорректный");
+        assertEquals(films.values().toString(), findAll(null, null, null, null, null, null).toString(),
+                "Список фильмов некорректный");
+    }
+
+    @Test
+    @DisplayName("Проверка постраничного получения фильмов")
+    void findFilmsPageTest() {
+        for (int i = 1; i <= 5; i++) {
+            filmController.create(new Film("Фильм " + i, "Описание фильма " + i, LocalDate.of(2000, 10, 10), 120));
+        }
+        List<Film> firstPage = List.copyOf(findAll(2, 0, null, null, null, null));
+        assertEquals(List.of(1, 2), firstPage.stream().map(Film::getId).toList(), "Первая страница некорректна");
+        List<Film> lastPage = List.copyOf(findAll(2, 4, null, null, null, null));
+        assertEquals(List.of(5), lastPage.stream().map(Film::getId).toList(), "Последняя страница некорректна");
+        assertEquals(List.of(5), filmIds(findAll(null, 4, null, null, null, null)),
+                "Курсор без размера страницы должен возвращать страницу");
+        assertTrue(findAll(2, 5, null, null, null, null).isEmpty(),
+                "После последнего фильма страница должна быть пустой");
+        assertThrows(ValidationException.class, () -> findAll(0, 0, null, null, null, null));
+        assertThrows(ValidationException.class, () -> findAll(1001, 0, null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Проверка потокового получения фильмов в формате NDJSON")
+    void streamFilmsTest() throws IOException {
+        filmController.create(new Film("Фильм 1", "Описание фильма 1", LocalDate.of(2000, 10, 10), 120));
+        filmController.create(new Film("Фильм 2", "Описание фильма 2", LocalDate.of(2010, 10, 10), 150));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        filmController.streamAll().getBody().writeTo(outputStream);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length, "Каждый фильм должен быть на отдельной строке");
+        assertTrue(lines[0].contains("\"name\":\"Фильм 1\""), "Первый фильм записан некорректно");
+        assertTrue(lines[1].contains("\"releaseDate\":\"2010-10-10\""), "Второй фильм записан некорректно");
+    }
+
+    @Test
+    @DisplayName("Проверка пакетного добавления фильмов с отчётом по каждому фильму")
+    void createFilmBatchTest() {
+        List<Film> films = List.of(
+                new Film("Фильм 1", "Описание фильма 1", LocalDate.of(2000, 10, 10), 120),
+                new Film("Фильм 2", "Описание фильма 2", LocalDate.of(1800, 10, 10), 120),
+                new Film("Фильм 3", "Описание фильма 3", LocalDate.of(2010, 10, 10), -5),
+                new Film("Фильм 4", "Описание фильма 4", LocalDate.of(2020, 10, 10), 90));
+        List<BatchItemResult> results = filmController.createBatch(films);
+        assertEquals(4, results.size(), "Результат должен быть по каждому фильму");
+        assertEquals(BatchItemResult.success(0, 1), results.get(0), "Первый фильм должен быть добавлен");
+        assertNotNull(results.get(1).getError(), "Фильм с некорректной датой релиза не должен быть добавлен");
+        assertEquals("Продолжительность фильма не может быть нулевой или отрицательной.", results.get(2).getError(),
+                "Некорректная ошибка");
+        assertEquals(BatchItemResult.success(3, 2), results.get(3), "Последний фильм должен быть добавлен");
+        assertEquals(2, filmStorage.size(), "Должны быть добавлены только корректные фильмы");
+    }
+
+    @Test
+    @DisplayName("Проверка отказа на пакет больше допустимого размера")
+    void batchSizeLimitTest() {
+        List<Film> films = new ArrayList<>();
+        for (int i = 0; i <= 10_000; i++) {
+            films.add(new Film("Фильм", "Описание", LocalDate.of(2000, 10, 10), 120));
+        }
+        assertThrows(ValidationException.class, () -> filmController.createBatch(films));
+        assertThrows(ValidationException.class, () -> filmController.updateBatch(films));
+        byte[] line = ("{\"name\":\"Фильм\",\"description\":\"Описание\",\"releaseDate\":\"2000-10-10\","
+                + "\"duration\":120}\n").getBytes(StandardCharsets.UTF_8);
+        InputStream endless = new InputStream() {
+            private int position;
+
+            @Override
+            public int read() {
+                return line[position++ % line.length] & 0xFF;
+            }
+        };
+        assertThrows(ValidationException.class, () -> filmController.createBatch(endless),
+                "Бесконечный поток NDJSON должен отклоняться, не дочитываясь до конца");
+        assertEquals(0, filmStorage.size(), "Фильмы из отклонённого пакета не должны добавляться");
+    }
+
+    @Test
+    @DisplayName("Проверка пакетного добавления и обновления фильмов в формате NDJSON")
+    void createAndUpdateFilmBatchFromNdjsonTest() {
+        String body = """
+                {"name":"Фильм 1","description":"Описание 1","releaseDate":"2000-10-10","duration":120}
+                {"name":"Фильм 2","description":"Описание 2","releaseDate":"2010-10-10","duration":150}
+                """;
+        List<BatchItemResult> results = filmController.createBatch(toStream(body));
+        assertEquals(List.of(BatchItemResult.success(0, 1), BatchItemResult.success(1, 2)), results,
+                "Фильмы не добавлены");
+        String updateBody = """
+                {"id":2,"name":"Фильм 2","description":"Новое описание","releaseDate":"2010-10-10","duration":150}
+                {"id":7,"name":"Фильм 7","description":"Описание 7","releaseDate":"2010-10-10","duration":150}
+                """;
+        results = filmController.updateBatch(toStream(updateBody));
+        assertEquals(BatchItemResult.success(0, 2), results.get(0), "Фильм не обновлён");
+        assertEquals(BatchItemResult.failure(1, "Такого фильма не существует."), results.get(1),
+                "Несуществующий фильм не должен обновляться");
+        assertEquals("Новое описание", filmStorage.findById(2).orElseThrow().getDescription(), "Фильм не обновлён");
+        assertThrows(ValidationException.class, () -> filmController.createBatch(toStream("{\"name\":")));
+    }
+
+    @Test
+    @DisplayName("Проверка выгрузки каталога в двоичном формате и загрузки выгрузки")
+    void exportAndImportFilmsTest() {
+        filmController.create(new Film("Фильм 1", "Общее описание", LocalDate.of(1895, 12, 28), 1));
+        filmController.create(new Film("Фильм 2", "Общее описание", LocalDate.of(2010, 10, 10), 150));
+        filmController.create(new Film("Фильм 3", "Описание 3", LocalDate.of(1969, 1, 1), 90));
+        byte[] export = filmController.export(null).getBody();
+        assertEquals(List.copyOf(filmStorage.findAll()), FilmColumns.decode(export), "Выгрузка не совпадает с каталогом");
+        assertSame(export, filmController.export(null).getBody(), "Выгрузка должна кешироваться до изменения");
+
+        List<BatchItemResult> results = filmController.createBatch(export);
+        assertEquals(List.of(BatchItemResult.success(0, 4), BatchItemResult.success(1, 5),
+                BatchItemResult.success(2, 6)), results, "Фильмы из выгрузки не добавлены");
+        assertEquals("Описание 3", filmStorage.findById(6).orElseThrow().getDescription(), "Фильм загружен неверно");
+        byte[] truncated = Arrays.copyOf(export, export.length - 1);
+        assertThrows(ValidationException.class, () -> filmController.createBatch(truncated));
+        assertThrows(ValidationException.class, () -> filmController.createBatch(new byte[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    @DisplayName("Проверка списка популярных фильмов по количеству лайков")
+    void getPopularFilmsTest() {
+        for (int i = 1; i <= 4; i++) {
+            filmController.create(new Film("Фильм " + i, "Описание фильма", LocalDate.of(2000, 10, 10), 120));
+            userStorage.create(new User("user" + i + "@ex.ru", "user" + i, LocalDate.of(2000, 10, 10)));
+        }
+        filmController.addLike(3, 1);
+        filmController.addLike(3, 2);
+        filmController.addLike(3, 2);
+        filmController.addLike(2, 1);
+        filmController.addLike(4, 3);
+        filmController.addLike(4, 4);
+        filmController.removeLike(4, 4);
+        assertEquals(List.of(3, 2, 4, 1), filmController.getPopular(10).stream().map(Film::getId).toList(),
+                "Неверный порядок популярных фильмов");
+        assertEquals(List.of(3, 2), filmController.getPopular(2).stream().map(Film::getId).toList(),
+                "Неверное количество популярных фильмов");
+        assertThrows(ValidationException.class, () -> filmController.getPopular(0));
+        assertThrows(ValidationException.class, () -> filmController.getPopular(Integer.MAX_VALUE));
+        assertEquals(List.of(3, 2, 4, 1), filmController.getPopular(1000).stream().map(Film::getId).toList(),
+                "Неверный список популярных фильмов при большом количестве");
+    }
+
+    @Test
+    @DisplayName("Проверка поиска фильмов по словам из названия и описания")
+    void searchFilmsTest() {
+        filmController.create(new Film("Ёлки", "Новогодняя комедия", LocalDate.of(2010, 12, 16), 90));
+        filmController.create(new Film("Комета", "Фильм о ёлке и новом годе", LocalDate.of(2010, 10, 10), 120));
+        filmController.create(new Film("Солярис", "Фантастика", LocalDate.of(1972, 3, 20), 169));
+        assertEquals(List.of(1, 2), filmController.search("ЕЛК", 10).stream().map(Film::getId).toList(),
+                "Совпадение в названии должно быть выше совпадения в описании");
+        assertEquals(List.of(2, 1), filmController.search("ком", 10).stream().map(Film::getId).toList(),
+                "Неверный порядок результатов поиска");
+        assertEquals(List.of(2), filmController.search("ёлк год", 10).stream().map(Film::getId).toList(),
+                "Фильм должен содержать все слова запроса");
+        Film updatedFilm = new Film("Солярис", "Драма", LocalDate.of(1972, 3, 20), 169);
+        updatedFilm.setId(3);
+        filmController.update(updatedFilm, null);
+        assertTrue(filmController.search("фантастика", 10).isEmpty(), "Индекс не обновлён после изменения фильма");
+        assertEquals(List.of(3), filmController.search("драма", 10).stream().map(Film::getId).toList(),
+                "Индекс не обновлён после изменения фильма");
+        assertTrue(filmController.search("  ,. ", 10).isEmpty(), "Пустой запрос не должен находить фильмы");
+        assertThrows(ValidationException.class, () -> filmController.search("ёлки", 0));
+    }
+
+    @Test
+    @DisplayName("Проверка фильтрации фильмов по году выхода и продолжительности")
+    void findFilteredFilmsTest() {
+        filmController.create(new Film("Фильм 1", "Описание", LocalDate.of(1999, 12, 31), 90));
+        filmController.create(new Film("Фильм 2", "Описание", LocalDate.of(2000, 1, 1), 120));
+        filmController.create(new Film("Фильм 3", "Описание", LocalDate.of(2005, 6, 15), 150));
+        filmController.create(new Film("Фильм 4", "Описание", LocalDate.of(2010, 12, 31), 100));
+        assertEquals(List.of(2, 3, 4), filmIds(findAll(null, null, 2000, 2010, null, null)),
+                "Неверная фильтрация по году выхода");
+        assertEquals(List.of(2, 4), filmIds(findAll(null, null, 2000, null, null, 120)),
+                "Неверная фильтрация по году выхода и продолжительности");
+        assertEquals(List.of(4), filmIds(findAll(1, 2, 2000, null, null, 120)),
+                "Неверная страница отфильтрованного списка");
+        assertEquals("2", filmController.findAll(1, null, 2000, null, null, 120, null).getHeaders()
+                .getFirst(Pages.NEXT_CURSOR_HEADER), "Неверный курсор следующей страницы");
+        assertNull(filmController.findAll(null, 2, 2000, null, null, 120, null).getHeaders()
+                .getFirst(Pages.NEXT_CURSOR_HEADER), "У последней страницы не должно быть курсора");
+        Film updatedFilm = new Film("Фильм 1", "Описание", LocalDate.of(2003, 1, 1), 95);
+        updatedFilm.setId(1);
+        filmController.update(updatedFilm, null);
+        assertEquals(List.of(1, 2, 4), filmIds(findAll(null, null, null, null, 95, 120)),
+                "Индекс не обновлён после изменения фильма");
+        assertTrue(findAll(null, null, 2011, 2000, null, null).isEmpty(),
+                "Пустой промежуток не должен находить фильмы");
+        assertThrows(ValidationException.class, () -> findAll(null, null, Integer.MAX_VALUE, null, null,
+                null));
+    }
+
+    @Test
+    @DisplayName("Проверка лайка несуществующему фильму и от несуществующего пользователя")
+    void addLikeNotFoundTest() {
+        filmController.create(new Film("Фильм 1", "Описание фильма", LocalDate.of(2000, 10, 10), 120));
+        userStorage.create(new User("user@ex.ru", "user", LocalDate.of(2000, 10, 10)));
+        assertThrows(NotFoundException.class, () -> filmController.addLike(2, 1));
+        assertThrows(NotFoundException.class, () -> filmController.addLike(1, 2));
+        assertTrue(filmController.getPopular(10).stream().allMatch(film -> film.getId() == 1),
+                "Лайк не должен быть добавлен");
+    }
+
+    @Test
+    @DisplayName("Проверка выдачи последовательных Id при добавлении большого числа фильмов")
+    void createManyFilmsTest() {
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            filmController.create(new Film("Фильм", "Описание фильма", LocalDate.of(2000, 10, 10), 120));
+        }
+        assertEquals(count, filmStorage.getFilms().size(), "Не все фильмы добавлены");
+        assertEquals(count, filmStorage.getFilms().lastKey(), "Id фильмов должны идти подряд");
+    }
+
+    private InputStream toStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Список из ответа {@link FilmController#findAll}: без параметров ответ содержит сериализованный список.
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<Film> findAll(Integer limit, Integer cursor, Integer fromYear, Integer toYear,
+                                     Integer minDuration, Integer maxDuration) {
+        Object body = filmController.findAll(limit, cursor, fromYear, toYear, minDuration, maxDuration, null)
+                .getBody();
+        if (body instanceof byte[] bytes) {
+            try {
+                return List.of(objectMapper.readValue(bytes, Film[].class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return (Collection<Film>) body;
+    }
+
+    private static List<Integer> filmIds(Collection<Film> films) {
+        return films.stream().map(Film::getId).toList();
     }
-}
\ No newline at end of file
+}
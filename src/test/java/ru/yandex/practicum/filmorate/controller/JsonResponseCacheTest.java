@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JsonResponseCacheTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Проверка ETag и ответа 304 для списка фильмов и смены ETag после изменения")
+    void filmsListEtagTest() throws Exception {
+        createFilm("Фильм 1");
+        String etag = mockMvc.perform(get("/films"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$").isArray())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/films").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/films").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        createFilm("Фильм 2");
+        String newEtag = mockMvc.perform(get("/films").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Фильм 2')]").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag, "ETag не изменился после добавления фильма");
+    }
+
+    @Test
+    @DisplayName("Проверка получения пользователя по Id с ETag и ответа 404 для несуществующего Id")
+    void userByIdEtagTest() throws Exception {
+        String body = mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"etag@ex.ru\",\"login\":\"etag\",\"birthday\":\"2000-10-10\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        int id = JsonPath.read(body, "$.id");
+        String etag = mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login").value("etag"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/users/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/users/{id}", Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Проверка изменения фильма с If-Match, конфликта версий и частичного изменения")
+    void filmIfMatchAndPatchTest() throws Exception {
+        String body = createFilm("Фильм для изменения");
+        int id = JsonPath.read(body, "$.id");
+        String etag = mockMvc.perform(get("/films/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String newEtag = mockMvc.perform(patch("/films/{id}", id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"duration\":90,\"id\":777}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.duration").value(90))
+                .andExpect(jsonPath("$.name").value("Фильм для изменения"))
+                .andExpect(jsonPath("$.version").value(2))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag, "ETag не изменился после изменения фильма");
+        mockMvc.perform(put("/films").header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + id + ",\"name\":\"Новое название\",\"description\":\"Описание\","
+                                + "\"releaseDate\":\"2000-10-10\",\"duration\":120}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(patch("/films/{id}", id).header(HttpHeaders.IF_MATCH, newEtag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"duration\":-5}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/films/{id}", id).header(HttpHeaders.IF_NONE_MATCH, newEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String createFilm(String name) throws Exception {
+        return mockMvc.perform(post("/films").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"description\":\"Описание\","
+                                + "\"releaseDate\":\"2000-10-10\",\"duration\":120}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,168 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.FriendStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFriendStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryLikeStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.LikeStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+class ReactiveControllerTest {
+    private static final Queue<String> eventLoopCalls = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger storageCalls = new AtomicInteger();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("Проверка потоковой выдачи списка фильмов и ETag фильма в реактивном режиме")
+    void streamFilmsTest() {
+        for (int i = 1; i <= 3; i++) {
+            webTestClient.post().uri("/films").contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"name\":\"Фильм " + i + "\",\"description\":\"Описание\","
+                            + "\"releaseDate\":\"2000-10-10\",\"duration\":120}")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.id").isNumber();
+        }
+        Flux<Film> films = webTestClient.get().uri("/films?stream=true").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Film.class).getResponseBody();
+        assertEquals(2, films.take(2).collectList().block().size(), "Неверное число фильмов в потоке");
+        webTestClient.get().uri("/films?limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(Pages.NEXT_CURSOR_HEADER, "2")
+                .expectBody().jsonPath("$.length()").isEqualTo(2);
+        webTestClient.get().uri("/films?cursor=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(Pages.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$.length()").isEqualTo(1);
+
+        String etag = webTestClient.get().uri("/films/1").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(1)
+                .returnResult().getResponseHeaders().getETag();
+        webTestClient.get().uri("/films/1").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Проверка проверки данных и ответа 404 в реактивном режиме")
+    void errorsTest() {
+        webTestClient.post().uri("/users").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"mail\",\"login\":\"login\",\"birthday\":\"2000-10-10\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").exists();
+        webTestClient.get().uri("/users/{id}", Integer.MAX_VALUE).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/films?limit=0").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Проверка, что хранилища не вызываются в потоке обработки событий")
+    void eventLoopNotBlockedTest() {
+        int userId = webTestClient.post().uri("/users").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"loop@ex.ru\",\"login\":\"loop\",\"birthday\":\"2000-10-10\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(User.class).getResponseBody().blockFirst().getId();
+        int filmId = webTestClient.post().uri("/films").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Сталкер\",\"description\":\"Описание\","
+                        + "\"releaseDate\":\"1979-05-25\",\"duration\":163}")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Film.class).getResponseBody().blockFirst().getId();
+        eventLoopCalls.clear();
+        int callsBefore = storageCalls.get();
+
+        webTestClient.put().uri("/films/{id}/like/{userId}", filmId, userId).exchange().expectStatus().isOk();
+        for (String uri : List.of("/films", "/films?stream=true", "/films?limit=2", "/films?cursor=1",
+                "/films?fromYear=1970", "/films/" + filmId, "/films/popular", "/films/search?query=сталкер",
+                "/films/export", "/users", "/users?limit=2", "/users/" + userId, "/users/" + userId + "/friends",
+                "/users/" + userId + "/recommendations")) {
+            webTestClient.get().uri(uri).exchange().expectStatus().isOk().expectBody().returnResult();
+        }
+        webTestClient.delete().uri("/films/{id}/like/{userId}", filmId, userId).exchange().expectStatus().isOk();
+        webTestClient.get().uri("/films/{id}", Integer.MAX_VALUE).exchange().expectStatus().isNotFound();
+
+        assertTrue(storageCalls.get() > callsBefore, "Хранилища не вызывались");
+        assertTrue(eventLoopCalls.isEmpty(), "Хранилища вызваны в потоке обработки событий: " + eventLoopCalls);
+    }
+
+    /**
+     * Хранилища, которые запоминают вызовы из потоков обработки событий Netty ({@code reactor-http-*}).
+     */
+    @TestConfiguration
+    static class ThreadCheckConfig {
+        @Bean
+        @Primary
+        FilmStorage threadCheckFilmStorage(InMemoryFilmStorage filmStorage) {
+            return threadChecked(FilmStorage.class, filmStorage);
+        }
+
+        @Bean
+        @Primary
+        UserStorage threadCheckUserStorage(InMemoryUserStorage userStorage) {
+            return threadChecked(UserStorage.class, userStorage);
+        }
+
+        @Bean
+        @Primary
+        LikeStorage threadCheckLikeStorage(InMemoryLikeStorage likeStorage) {
+            return threadChecked(LikeStorage.class, likeStorage);
+        }
+
+        @Bean
+        @Primary
+        FriendStorage threadCheckFriendStorage(InMemoryFriendStorage friendStorage) {
+            return threadChecked(FriendStorage.class, friendStorage);
+        }
+
+        private static <T> T threadChecked(Class<T> type, T storage) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        storageCalls.incrementAndGet();
+                        String thread = Thread.currentThread().getName();
+                        if (thread.startsWith("reactor-http-")) {
+                            eventLoopCalls.add(type.getSimpleName() + "." + method.getName() + " в " + thread);
+                        }
+                        try {
+                            return method.invoke(storage, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -11,10 +14,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.RecommendationService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFriendStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryLikeStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.validation.FastEntityValidator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,13 +39,31 @@ class UserControllerTest {
 
     UserController userController;
 
+    InMemoryUserStorage userStorage;
+
+    InMemoryFilmStorage filmStorage;
+
+    InMemoryLikeStorage likeStorage;
+
+    ObjectMapper objectMapper;
+
     private static Validator validator;
 
     @BeforeEach
     void createNewUserController() {
-        userController = new UserController();
+        userStorage = new InMemoryUserStorage();
+        filmStorage = new InMemoryFilmStorage();
+        likeStorage = new InMemoryLikeStorage();
         ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
         validator = validatorFactory.getValidator();
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        userController = new UserController(userStorage,
+                new UserService(userStorage, new InMemoryFriendStorage()),
+                new RecommendationService(filmStorage, userStorage, likeStorage), objectMapper,
+                new FastEntityValidator(), new JsonResponseCache(objectMapper));
     }
 
     @Test
@@ -38,7 +72,7 @@ class UserControllerTest {
         User user = new User("example@ex.ru", "Пользователь1", LocalDate.of(2000,10,10));
         user.setName("Пользователь");
         userController.create(user);
-        assertNotNull(userController.getUsers(), "Список пользователей пустой");
+        assertNotNull(userStorage.getUsers(), "Список пользователей пустой");
     }
 
     @Test
@@ -51,7 +85,7 @@ class UserControllerTest {
         assertThrows(ValidationException.class, () -> {
             userController.create(user1);
         });
-        assertEquals(1, userController.getUsers().size(), "Пользователь с дублирующимся Email не должен быть добавлен в список пользователей");
+        assertEquals(1, userStorage.getUsers().size(), "Пользователь с дублирующимся Email не должен быть добавлен в список пользователей");
     }
 
     @Test
@@ -59,7 +93,7 @@ class UserControllerTest {
     void createUserWithEmptyNameTest() {
         User user = new User("example@ex.ru", "Пользователь1", LocalDate.of(2000,10,10));
         userController.create(user);
-        assertNotNull(userController.getUsers(), "Список пользователей пустой");
+        assertNotNull(userStorage.getUsers(), "Список пользователей пустой");
         assertEquals(user.getName(), user.getLogin(), "Пустой name должен быть заменён на login");
     }
 
@@ -93,7 +127,7 @@ class UserControllerTest {
     @Test
     @DisplayName("Проверка валидации пользователя с некорректной датой рождения")
     void validateUserWithIncorrectBirthdayTest() {
-        User user = new User("example@ex.ru", "Пользователь1", LocalDate.of(2026,10,10));
+        User user = new User("example@ex.ru", "Пользователь1", LocalDate.now().plusYears(1));
         user.setName("Пользователь");
         Set<ConstraintViolation<User>> violations = validator.validate(user);
         assertFalse(violations.isEmpty(), "Ошибка в дате рождения проигнорирована");
@@ -110,8 +144,9 @@ class UserControllerTest {
         User updatedUser = new User("example@ex.ru", "ОбновлённыйПользователь1", LocalDate.of(2000,10,10));
         updatedUser.setName(user.getName());
         updatedUser.setId(user.getId());
-        userController.update(updatedUser);
-        assertEquals(updatedUser.getLogin(), user.getLogin(), "Login пользователя не обновлён");
+        userController.update(updatedUser, null);
+        assertEquals(updatedUser.getLogin(), userStorage.findById(user.getId()).orElseThrow().getLogin(),
+                "Login пользователя не обновлён");
     }
 
     @Test
@@ -122,8 +157,9 @@ class UserControllerTest {
         userController.create(user);
         User updatedUser = new User("example@ex.ru", "ОбновлённыйПользователь1", LocalDate.of(2000,10,10));
         updatedUser.setId(user.getId());
-        userController.update(updatedUser);
-        assertEquals(updatedUser.getLogin(), user.getName(), "Имя пользователя не обновлено");
+        userController.update(updatedUser, null);
+        assertEquals(updatedUser.getLogin(), userStorage.findById(user.getId()).orElseThrow().getName(),
+                "Имя пользователя не обновлено");
     }
 
     @Test
@@ -132,9 +168,9 @@ class UserControllerTest {
         User updatedUser = new User("example@ex.ru", "ОбновлённыйПользователь1", LocalDate.of(2000,10,10));
         updatedUser.setId(3);
         assertThrows(NotFoundException.class, () -> {
-            userController.update(updatedUser);
+            userController.update(updatedUser, null);
         });
-        assertEquals(0, userController.getUsers().size(), "Пользователь не должен быть добавлен в список пользователей");
+        assertEquals(0, userStorage.getUsers().size(), "Пользователь не должен быть добавлен в список пользователей");
     }
 
     @Test
@@ -147,6 +183,125 @@ class UserControllerTest {
         HashMap<Integer, User> users = new HashMap<>();
         users.put(1, user1);
         users.put(2, user2);
-        assertEquals(users.values().toString(), userController.findAll().toString(), "Список пользователей некорректный");
+        assertEquals(users.values().toString(), findAll(null, null).toString(), "Список пользователей некорректный");
+    }
+
+    @Test
+    @DisplayName("Проверка постраничного получения пользователей")
+    void findUsersPageTest() {
+        for (int i = 1; i <= 3; i++) {
+            userController.create(new User("example" + i + "@ex.ru", "Пользователь" + i, LocalDate.of(2000,10,10)));
+        }
+        List<User> firstPage = List.copyOf(findAll(2, 0));
+        assertEquals(List.of(1, 2), firstPage.stream().map(User::getId).toList(), "Первая страница некорректна");
+        List<User> lastPage = List.copyOf(findAll(2, firstPage.get(1).getId()));
+        assertEquals(List.of(3), lastPage.stream().map(User::getId).toList(), "Последняя страница некорректна");
+        assertEquals(List.of(3), findAll(null, 2).stream().map(User::getId).toList(),
+                "Курсор без размера страницы должен возвращать страницу");
+    }
+
+    @Test
+    @DisplayName("Проверка пакетного добавления пользователей с дублирующимися Email")
+    void createUserBatchTest() {
+        User user = new User("example@ex.ru", "Пользователь1", LocalDate.of(2000,10,10));
+        userController.create(user);
+        List<BatchItemResult> results = userController.createBatch(List.of(
+                new User("example1@ex.ru", "Пользователь2", LocalDate.of(2000,10,10)),
+                new User("EXAMPLE@ex.ru", "Пользователь3", LocalDate.of(2000,10,10)),
+                new User("example1@ex.ru", "Пользователь4", LocalDate.of(2000,10,10)),
+                new User("example.ex@ru", "Пользователь5", LocalDate.of(2000,10,10))));
+        assertTrue(results.get(0).getError() == null && results.get(0).getId() > 1, "Пользователь не добавлен");
+        assertEquals("Такой Email уже используется.", results.get(1).getError(), "Некорректная ошибка");
+        assertEquals("Такой Email уже используется.", results.get(2).getError(), "Некорректная ошибка");
+        assertEquals("Пользователь ввёл некорректный Email.", results.get(3).getError(), "Некорректная ошибка");
+        assertEquals(2, userStorage.size(), "Должны быть добавлены только корректные пользователи");
+        assertEquals("Пользователь2", userStorage.findById(results.get(0).getId()).orElseThrow().getName(),
+                "Пустой name должен быть заменён на login");
+    }
+
+    @Test
+    @DisplayName("Проверка пакетного обновления пользователей")
+    void updateUserBatchTest() {
+        User user1 = new User("example1@ex.ru", "Пользователь1", LocalDate.of(2000,10,10));
+        User user2 = new User("example2@ex.ru", "Пользователь2", LocalDate.of(2000,10,10));
+        userController.create(user1);
+        userController.create(user2);
+        User updatedUser1 = new User("new@ex.ru", "Пользователь1", LocalDate.of(2000,10,10));
+        updatedUser1.setId(user1.getId());
+        User updatedUser2 = new User("new@ex.ru", "Пользователь2", LocalDate.of(2000,10,10));
+        updatedUser2.setId(user2.getId());
+        List<BatchItemResult> results = userController.updateBatch(List.of(updatedUser1, updatedUser2));
+        assertEquals(BatchItemResult.success(0, user1.getId()), results.get(0), "Пользователь не обновлён");
+        assertEquals(BatchItemResult.failure(1, "Такой Email уже используется."), results.get(1),
+                "Email не должен дублироваться");
+        assertEquals("example2@ex.ru", user2.getEmail(), "Email второго пользователя не должен измениться");
+    }
+
+    @Test
+    @DisplayName("Проверка добавления и удаления друзей и поиска общих друзей")
+    void friendsTest() {
+        for (int i = 1; i <= 4; i++) {
+            userController.create(new User("user" + i + "@ex.ru", "user" + i, LocalDate.of(2000, 10, 10)));
+        }
+        userController.addFriend(1, 3);
+        userController.addFriend(1, 2);
+        userController.addFriend(4, 2);
+        userController.addFriend(4, 3);
+        userController.addFriend(4, 1);
+        userController.removeFriend(4, 1);
+        assertEquals(List.of(2, 3), userController.getFriends(1).stream().map(User::getId).toList(),
+                "Неверный список друзей");
+        assertEquals(List.of(1, 4), userController.getFriends(3).stream().map(User::getId).toList(),
+                "Дружба должна быть взаимной");
+        assertEquals(List.of(2, 3), userController.getCommonFriends(1, 4).stream().map(User::getId).toList(),
+                "Неверный список общих друзей");
+        assertThrows(NotFoundException.class, () -> userController.addFriend(1, 5));
+        assertThrows(ValidationException.class, () -> userController.addFriend(1, 1));
+    }
+
+    @Test
+    @DisplayName("Проверка рекомендаций фильмов по лайкам похожих пользователей")
+    void recommendationsTest() {
+        for (int i = 1; i <= 4; i++) {
+            userController.create(new User("user" + i + "@ex.ru", "user" + i, LocalDate.of(2000, 10, 10)));
+        }
+        for (int i = 1; i <= 6; i++) {
+            filmStorage.create(new Film("Фильм " + i, "Описание фильма", LocalDate.of(2000, 10, 10), 120));
+        }
+        likeStorage.addLike(1, 1);
+        likeStorage.addLike(2, 1);
+        likeStorage.addLike(1, 2);
+        likeStorage.addLike(2, 2);
+        likeStorage.addLike(3, 2);
+        likeStorage.addLike(4, 2);
+        likeStorage.addLike(1, 3);
+        likeStorage.addLike(4, 3);
+        likeStorage.addLike(5, 4);
+        assertEquals(List.of(4, 3), userController.getRecommendations(1, 10).stream().map(Film::getId).toList(),
+                "Неверные рекомендации");
+        assertEquals(List.of(4), userController.getRecommendations(1, 1).stream().map(Film::getId).toList(),
+                "Неверное количество рекомендаций");
+        assertTrue(userController.getRecommendations(4, 10).isEmpty(), "Похожих пользователей нет");
+        assertThrows(NotFoundException.class, () -> userController.getRecommendations(5, 10));
+        assertThrows(ValidationException.class, () -> userController.getRecommendations(1, 0));
+        assertThrows(ValidationException.class, () -> userController.getRecommendations(1, Integer.MAX_VALUE));
+        assertEquals(List.of(4, 3), userController.getRecommendations(1, 1000).stream().map(Film::getId).toList(),
+                "Неверные рекомендации при большом количестве");
+    }
+
+    /**
+     * Список из ответа {@link UserController#findAll}: без параметров ответ содержит сериализованный список.
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<User> findAll(Integer limit, Integer cursor) {
+        Object body = userController.findAll(limit, cursor, null).getBody();
+        if (body instanceof byte[] bytes) {
+            try {
+                return List.of(objectMapper.readValue(bytes, User[].class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return (Collection<User>) body;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", "filmorate.rate-limit.enabled=true",
+                "filmorate.rate-limit.writes-per-second=0.01", "filmorate.rate-limit.burst=2",
+                "filmorate.rate-limit.client-header=X-Client-Id"})
+class ReactiveWriteRateLimitFilterTest {
+    @Autowired
+    private WebTestClient webTestClient;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Проверка ответа 429 в реактивном режиме, в том числе по закодированному пути и пути с параметрами")
+    void tooManyRequestsTest() {
+        for (int i = 0; i < 2; i++) {
+            newFilm("/films").expectStatus().isOk();
+        }
+        newFilm("/films").expectStatus().isEqualTo(429).expectHeader().exists(HttpHeaders.RETRY_AFTER);
+        for (String path : List.of("/films;x=1", "/film%73")) {
+            newFilm(path).expectStatus().isEqualTo(429);
+        }
+    }
+
+    private WebTestClient.ResponseSpec newFilm(String path) {
+        return webTestClient.post().uri(URI.create("http://localhost:" + port + path)).header("X-Client-Id", "importer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Фильм\",\"description\":\"Описание\",\"releaseDate\":\"2000-10-10\","
+                        + "\"duration\":120}")
+                .exchange();
+    }
+}
@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAdmissionTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("Проверка лимита клиента, времени до повтора и пополнения корзины")
+    void rateLimitTest() {
+        WriteAdmission admission = new WriteAdmission(2, 3, 100, 100, meterRegistry, clock::get);
+        for (int i = 0; i < 3; i++) {
+            assertNull(admission.tryAdmit("a"), "Запрос в пределах корзины отклонён");
+            admission.complete();
+        }
+        WriteAdmission.Rejection rejection = admission.tryAdmit("a");
+        assertNotNull(rejection, "Запрос сверх корзины допущен");
+        assertEquals(1, rejection.retryAfterSeconds(), "Неверное время до повтора");
+        assertNull(admission.tryAdmit("b"), "Лимит одного клиента не должен влиять на другого");
+        admission.complete();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertNull(admission.tryAdmit("a"), "Токен не восстановился");
+        admission.complete();
+        assertNotNull(admission.tryAdmit("a"), "Восстановился лишний токен");
+        assertEquals(2, meterRegistry.get(WriteAdmission.THROTTLED_METRIC).tag("reason", "rate").counter().count(),
+                "Отклонённые запросы не посчитаны");
+    }
+
+    @Test
+    @DisplayName("Проверка доплаты за пакет по числу элементов, в том числе сверх ёмкости корзины")
+    void batchChargeTest() {
+        WriteAdmission admission = new WriteAdmission(1, 3, 100, 100, meterRegistry, clock::get);
+        assertNull(admission.tryAdmit("a"));
+        assertEquals(1, admission.chargeBatch("a", 3), "Пакет, исчерпавший корзину, не сообщил время до токена");
+        admission.complete();
+        assertNotNull(admission.tryAdmit("a"), "Пакет не израсходовал корзину");
+
+        for (int items : new int[]{10, 1_000}) {
+            String client = "batch" + items;
+            assertNull(admission.tryAdmit(client));
+            assertEquals(items - 3 + 1, admission.chargeBatch(client, items),
+                    "Время до следующей записи должно расти с размером пакета");
+            admission.complete();
+            WriteAdmission.Rejection rejection = admission.tryAdmit(client);
+            assertNotNull(rejection, "Запись после пакета сверх корзины допущена");
+            assertEquals(items - 3 + 1, rejection.retryAfterSeconds(), "Долг пакета учтён не полностью");
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(items - 3));
+            assertNotNull(admission.tryAdmit(client), "Токен появился до возврата долга");
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            assertNull(admission.tryAdmit(client), "Токен не появился после возврата долга");
+            admission.complete();
+        }
+
+        assertNull(admission.tryAdmit("b"));
+        assertEquals(0, admission.chargeBatch("b", 2));
+        admission.complete();
+        assertNull(admission.tryAdmit("b"), "Пакет из двух элементов должен стоить два токена");
+        admission.complete();
+        assertNotNull(admission.tryAdmit("b"));
+    }
+
+    @Test
+    @DisplayName("Проверка сброса нагрузки при превышении числа одновременных записей")
+    void overloadTest() {
+        WriteAdmission admission = new WriteAdmission(1000, 1000, 2, 100, meterRegistry, clock::get);
+        assertNull(admission.tryAdmit("a"));
+        assertNull(admission.tryAdmit("b"));
+        assertEquals(2, meterRegistry.get(WriteAdmission.IN_FLIGHT_METRIC).gauge().value(),
+                "Неверное число выполняющихся записей");
+        assertNotNull(admission.tryAdmit("c"), "Запрос сверх числа одновременных записей допущен");
+        admission.complete();
+        assertNull(admission.tryAdmit("c"), "Запрос не допущен после завершения записи");
+        assertEquals(1, meterRegistry.get(WriteAdmission.THROTTLED_METRIC).tag("reason", "overload").counter()
+                .count(), "Сброшенный запрос не посчитан");
+    }
+
+    @Test
+    @DisplayName("Проверка, что при одновременных запросах корзина выдаёт ровно свою ёмкость")
+    void concurrentAcquireTest() throws InterruptedException {
+        WriteAdmission admission = new WriteAdmission(1, 500, 1000, 100, meterRegistry, clock::get);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int thread = 0; thread < 16; thread++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        if (admission.tryAdmit("client") == null) {
+                            admitted.incrementAndGet();
+                            admission.complete();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        assertEquals(500, admitted.get(), "Корзина выдала неверное число токенов");
+    }
+
+    @Test
+    @DisplayName("Проверка удаления полных корзин при большом числе клиентов")
+    void sweepTest() {
+        WriteAdmission admission = new WriteAdmission(10, 1, 100, 2, meterRegistry, clock::get);
+        admission.tryAdmit("a");
+        admission.tryAdmit("b");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        admission.tryAdmit("c");
+        assertEquals(1, admission.clients(), "Полные корзины не удалены");
+    }
+
+    @Test
+    @DisplayName("Проверка, какие запросы ограничиваются")
+    void isLimitedTest() {
+        assertTrue(WriteAdmission.isLimited("POST", "/films"));
+        assertTrue(WriteAdmission.isLimited("PUT", "/users/1/friends/2"));
+        assertFalse(WriteAdmission.isLimited("GET", "/films"));
+        assertFalse(WriteAdmission.isLimited("POST", "/internal/shard/films"));
+        assertFalse(WriteAdmission.isLimited("POST", "/filmsx"));
+    }
+}
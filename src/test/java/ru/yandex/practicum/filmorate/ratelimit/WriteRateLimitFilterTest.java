@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"filmorate.rate-limit.enabled=true", "filmorate.rate-limit.writes-per-second=0.01",
+        "filmorate.rate-limit.burst=2", "filmorate.rate-limit.client-header=X-Client-Id"})
+@AutoConfigureMockMvc
+class WriteRateLimitFilterTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Проверка ответа 429 с Retry-After на запись сверх лимита клиента")
+    void tooManyRequestsTest() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(newFilm("importer")).andExpect(status().isOk());
+        }
+        mockMvc.perform(newFilm("importer"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/films").header("X-Client-Id", "importer"))
+                .andExpect(status().isOk());
+        mockMvc.perform(newFilm("other")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Проверка ограничения записи по закодированному пути и пути с параметрами")
+    void encodedPathTest() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(newFilm("encoded")).andExpect(status().isOk());
+        }
+        for (String path : List.of("/films;x=1", "/film%73")) {
+            mockMvc.perform(newFilm("encoded", URI.create(path))).andExpect(status().isTooManyRequests());
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка, что пакет расходует токены по числу элементов, в том числе в долг")
+    void batchTest() throws Exception {
+        mockMvc.perform(newFilms("batch", 2))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+        mockMvc.perform(newFilm("batch")).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(newFilms("debt", 5))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "400"));
+        mockMvc.perform(newFilm("debt"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "400"))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    private static MockHttpServletRequestBuilder newFilm(String client) {
+        return newFilm(client, URI.create("/films"));
+    }
+
+    private static MockHttpServletRequestBuilder newFilm(String client, URI uri) {
+        return post(uri).header("X-Client-Id", client).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Фильм\",\"description\":\"Описание\",\"releaseDate\":\"2000-10-10\","
+                        + "\"duration\":120}");
+    }
+
+    private static MockHttpServletRequestBuilder newFilms(String client, int count) {
+        String film = "{\"name\":\"Фильм\",\"description\":\"Описание\",\"releaseDate\":\"2000-10-10\","
+                + "\"duration\":120}";
+        return post("/films/batch").header("X-Client-Id", client).contentType(MediaType.APPLICATION_JSON)
+                .content("[" + String.join(",", Collections.nCopies(count, film)) + "]");
+    }
+}
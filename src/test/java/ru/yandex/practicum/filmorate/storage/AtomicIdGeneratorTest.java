@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicIdGeneratorTest {
+
+    @Test
+    @DisplayName("Проверка последовательной выдачи Id")
+    void nextIdTest() {
+        IdGenerator idGenerator = new AtomicIdGenerator();
+        assertEquals(1, idGenerator.nextId(), "Первый Id должен быть равен 1");
+        assertEquals(2, idGenerator.nextId(), "Id должны выдаваться последовательно");
+    }
+
+    @Test
+    @DisplayName("Проверка резервирования диапазона Id")
+    void reserveTest() {
+        IdGenerator idGenerator = new AtomicIdGenerator();
+        idGenerator.nextId();
+        assertEquals(2, idGenerator.reserve(100), "Диапазон должен начинаться со следующего Id");
+        assertEquals(102, idGenerator.nextId(), "Зарезервированные Id не должны выдаваться повторно");
+        assertThrows(IllegalArgumentException.class, () -> idGenerator.reserve(0));
+    }
+
+    @Test
+    @DisplayName("Проверка уникальности Id при выдаче из нескольких потоков")
+    void concurrentNextIdTest() throws InterruptedException {
+        IdGenerator idGenerator = new AtomicIdGenerator();
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(idGenerator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "Потоки не завершились");
+        assertEquals(160_000, ids.size(), "Выданы повторяющиеся Id");
+    }
+}
@@ -0,0 +1,148 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.ConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryFilmStorageTest {
+    private static final int WRITERS = 64;
+    private static final int FILMS_PER_WRITER = 2_000;
+
+    InMemoryFilmStorage filmStorage;
+
+    @BeforeEach
+    void createNewFilmStorage() {
+        filmStorage = new InMemoryFilmStorage();
+    }
+
+    @Test
+    @DisplayName("Проверка отсутствия потерянных добавлений при параллельной записи")
+    void concurrentCreateTest() throws Exception {
+        runConcurrently(writer -> {
+            for (int i = 0; i < FILMS_PER_WRITER; i++) {
+                filmStorage.create(newFilm("Фильм " + writer + "-" + i));
+            }
+        });
+        assertEquals(WRITERS * FILMS_PER_WRITER, filmStorage.size(), "Часть фильмов потеряна");
+        for (int id = 1; id <= WRITERS * FILMS_PER_WRITER; id++) {
+            assertTrue(filmStorage.findById(id).isPresent(), "Фильм с Id " + id + " потерян");
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка отсутствия потерянных обновлений при параллельной записи")
+    void concurrentUpdateTest() throws Exception {
+        for (int i = 0; i < WRITERS * FILMS_PER_WRITER; i++) {
+            filmStorage.create(newFilm("Фильм " + i));
+        }
+        runConcurrently(writer -> {
+            for (int id = writer + 1; id <= WRITERS * FILMS_PER_WRITER; id += WRITERS) {
+                Film updatedFilm = newFilm("Обновлённый фильм " + id);
+                updatedFilm.setId(id);
+                assertTrue(filmStorage.update(updatedFilm).isPresent(), "Фильм не найден");
+            }
+        });
+        for (int id = 1; id <= WRITERS * FILMS_PER_WRITER; id++) {
+            assertEquals("Обновлённый фильм " + id, filmStorage.findById(id).orElseThrow().getName(),
+                    "Обновление фильма потеряно");
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка изменений одного фильма с проверкой версии при высокой конкуренции")
+    void concurrentVersionedUpdateTest() throws Exception {
+        int updatesPerWriter = 200;
+        int id = filmStorage.create(new Film("Фильм 1", "Описание 1", LocalDate.of(2000, 10, 10), 1)).getId();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> inconsistency = new AtomicReference<>();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (writing.get()) {
+                Film film = filmStorage.findById(id).orElseThrow();
+                int duration = film.getDuration();
+                if (!film.getName().equals("Фильм " + duration) || !film.getDescription().equals("Описание " + duration)
+                        || film.getVersion() != duration) {
+                    inconsistency.compareAndSet(null, film.toString());
+                }
+            }
+        });
+        runConcurrently(writer -> {
+            for (int i = 0; i < updatesPerWriter; i++) {
+                while (true) {
+                    long expectedVersion = writer % 2 == 0
+                            ? filmStorage.findById(id).orElseThrow().getVersion() : FilmStorage.ANY_VERSION;
+                    try {
+                        filmStorage.update(id, expectedVersion, film -> {
+                            int duration = film.getDuration() + 1;
+                            film.setDuration(duration);
+                            film.setName("Фильм " + duration);
+                            film.setDescription("Описание " + duration);
+                            return film;
+                        });
+                        break;
+                    } catch (ConflictException e) {
+                        // Фильм изменён другим потоком между чтением и изменением, повторяем с новой версией.
+                    }
+                }
+            }
+        });
+        writing.set(false);
+        reader.join();
+        Film film = filmStorage.findById(id).orElseThrow();
+        assertEquals(1 + WRITERS * updatesPerWriter, film.getDuration(), "Часть изменений потеряна");
+        assertEquals(film.getDuration(), film.getVersion(), "Версия должна расти с каждым изменением");
+        assertNull(inconsistency.get(), "Читатель увидел частично изменённый фильм");
+        assertThrows(ConflictException.class, () -> filmStorage.update(id, 1, f -> f),
+                "Изменение устаревшей версии должно быть отклонено");
+    }
+
+    @Test
+    @DisplayName("Проверка обновления несуществующего фильма")
+    void updateUnknownFilmTest() {
+        Film film = newFilm("Фильм");
+        film.setId(1);
+        assertTrue(filmStorage.update(film).isEmpty(), "Несуществующий фильм не должен обновляться");
+        assertEquals(0, filmStorage.size(), "Фильм не должен быть добавлен");
+    }
+
+    private Film newFilm(String name) {
+        return new Film(name, "Описание фильма", LocalDate.of(2000, 10, 10), 120);
+    }
+
+    private void runConcurrently(Writer writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            int writerId = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                writer.write(writerId);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private interface Writer {
+        void write(int writerId);
+    }
+}
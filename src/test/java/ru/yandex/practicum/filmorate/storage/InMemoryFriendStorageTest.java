@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryFriendStorageTest {
+    private final InMemoryFriendStorage friendStorage = new InMemoryFriendStorage();
+
+    @Test
+    @DisplayName("Проверка пересечения отсортированных списков друзей")
+    void commonFriendsTest() {
+        for (int friendId = 2; friendId <= 20; friendId += 2) {
+            friendStorage.addFriend(1, friendId);
+        }
+        for (int friendId = 3; friendId <= 21; friendId += 3) {
+            friendStorage.addFriend(100, friendId);
+        }
+        assertArrayEquals(new int[]{6, 12, 18}, friendStorage.findCommonFriendIds(1, 100),
+                "Неверный список общих друзей");
+        assertArrayEquals(new int[0], friendStorage.findCommonFriendIds(1, 200), "Общих друзей быть не должно");
+        assertFalse(friendStorage.addFriend(12, 1), "Дружба не должна добавляться дважды");
+    }
+
+    @Test
+    @DisplayName("Проверка взаимности дружбы при одновременных добавлениях и удалениях")
+    void concurrentFriendshipTest() throws InterruptedException {
+        int users = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int j = 0; j < 20_000; j++) {
+                    int userId = random.nextInt(1, users + 1);
+                    int friendId = random.nextInt(1, users + 1);
+                    if (userId == friendId) {
+                        continue;
+                    }
+                    if (random.nextBoolean()) {
+                        friendStorage.addFriend(userId, friendId);
+                    } else {
+                        friendStorage.removeFriend(friendId, userId);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "Изменения не выполнены за минуту");
+        for (int userId = 1; userId <= users; userId++) {
+            for (int friendId : friendStorage.findFriendIds(userId)) {
+                assertTrue(Arrays.binarySearch(friendStorage.findFriendIds(friendId), userId) >= 0,
+                        "Дружба должна быть взаимной");
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLikeStorageTest {
+    private final InMemoryLikeStorage likeStorage = new InMemoryLikeStorage();
+
+    @Test
+    @DisplayName("Проверка порядка фильмов в рейтинге при равном количестве лайков")
+    void rankingOrderTest() {
+        likeStorage.addLike(5, 1);
+        likeStorage.addLike(2, 1);
+        likeStorage.addLike(9, 1);
+        likeStorage.addLike(9, 2);
+        assertArrayEquals(new int[]{9, 2, 5}, likeStorage.findMostLiked(10), "Неверный порядок рейтинга");
+        likeStorage.removeLike(9, 1);
+        likeStorage.removeLike(9, 2);
+        assertArrayEquals(new int[]{2, 5}, likeStorage.findMostLiked(10), "Фильм без лайков должен выйти из рейтинга");
+        assertFalse(likeStorage.removeLike(9, 2), "Лайк не должен удаляться дважды");
+    }
+
+    @Test
+    @DisplayName("Проверка рейтинга при одновременных лайках от многих пользователей")
+    void concurrentLikesTest() throws InterruptedException {
+        int users = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int userId = 1; userId <= users; userId++) {
+            int user = userId;
+            executor.submit(() -> {
+                for (int filmId = 1; filmId <= 10; filmId++) {
+                    if (user <= filmId * 100) {
+                        likeStorage.addLike(filmId, user);
+                    }
+                }
+                likeStorage.addLike(1, user);
+                likeStorage.removeLike(1, user);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "Лайки не добавлены за минуту");
+        assertArrayEquals(new int[]{10, 9, 8}, likeStorage.findMostLiked(3), "Неверный рейтинг");
+        assertEquals(1000, likeStorage.countLikes(10), "Часть лайков потеряна");
+        assertEquals(0, likeStorage.countLikes(1), "Удалённые лайки остались");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {200, 20})
+    @DisplayName("Проверка поиска похожих пользователей по спискам лайкнувших и обходом всех пользователей")
+    void similarUsersTest(int films) {
+        int users = 50_000;
+        Random random = new Random(7);
+        for (int userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < 5; i++) {
+                likeStorage.addLike(random.nextInt(1, films), userId);
+            }
+        }
+        int[] likedFilmIds = likeStorage.findLikedFilmIds(1);
+        long[] expected = new long[users - 1];
+        for (int userId = 2; userId <= users; userId++) {
+            long common = Arrays.stream(likeStorage.findLikedFilmIds(userId))
+                    .filter(filmId -> Arrays.binarySearch(likedFilmIds, filmId) >= 0)
+                    .count();
+            expected[userId - 2] = common << 32 | (Integer.MAX_VALUE - userId);
+        }
+        Arrays.sort(expected);
+        int[] expectedUserIds = new int[20];
+        for (int i = 0; i < expectedUserIds.length; i++) {
+            expectedUserIds[i] = Integer.MAX_VALUE - (int) expected[expected.length - 1 - i];
+        }
+        assertArrayEquals(expectedUserIds, likeStorage.findSimilarUsers(1, 20), "Неверный список похожих пользователей");
+    }
+}
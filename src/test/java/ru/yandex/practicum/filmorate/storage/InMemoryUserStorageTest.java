@@ -0,0 +1,89 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryUserStorageTest {
+    InMemoryUserStorage userStorage;
+
+    @BeforeEach
+    void createNewUserStorage() {
+        userStorage = new InMemoryUserStorage();
+    }
+
+    @Test
+    @DisplayName("Проверка поиска пользователя по Email без учёта регистра")
+    void findByEmailTest() {
+        User user = userStorage.create(newUser("Example@Ex.ru"));
+        assertEquals(user, userStorage.findByEmail("example@ex.RU").orElseThrow(), "Пользователь не найден по Email");
+        assertThrows(ValidationException.class, () -> userStorage.create(newUser("EXAMPLE@ex.ru")));
+        assertEquals(1, userStorage.size(), "Пользователь с дублирующимся Email не должен быть добавлен");
+    }
+
+    @Test
+    @DisplayName("Проверка освобождения Email после его смены")
+    void updateEmailTest() {
+        User user = userStorage.create(newUser("old@ex.ru"));
+        User other = userStorage.create(newUser("other@ex.ru"));
+        User updatedUser = newUser("new@ex.ru");
+        updatedUser.setId(user.getId());
+        userStorage.update(updatedUser);
+        assertTrue(userStorage.findByEmail("old@ex.ru").isEmpty(), "Старый Email должен освободиться");
+        assertEquals(user.getId(), userStorage.findByEmail("new@ex.ru").orElseThrow().getId(),
+                "Новый Email не привязан к пользователю");
+        User conflictingUser = newUser("Other@ex.ru");
+        conflictingUser.setId(user.getId());
+        assertThrows(ValidationException.class, () -> userStorage.update(conflictingUser));
+        assertEquals("new@ex.ru", userStorage.findById(user.getId()).orElseThrow().getEmail(),
+                "Email не должен меняться на занятый");
+        assertEquals(other.getId(), userStorage.findByEmail("other@ex.ru").orElseThrow().getId(),
+                "Email другого пользователя не должен меняться");
+    }
+
+    @Test
+    @DisplayName("Проверка регистрации одного Email из нескольких потоков")
+    void concurrentCreateWithSameEmailTest() throws Exception {
+        int writers = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    userStorage.create(newUser("same@ex.ru"));
+                } catch (ValidationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(1, userStorage.size(), "Email должен быть зарегистрирован ровно один раз");
+        assertEquals(writers - 1, rejected.get(), "Остальные регистрации должны быть отклонены");
+    }
+
+    private User newUser(String email) {
+        return new User(email, "login", LocalDate.of(2000, 10, 10));
+    }
+}
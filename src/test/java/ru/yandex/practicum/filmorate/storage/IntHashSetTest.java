@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+    @Test
+    @DisplayName("Проверка множества на случайных добавлениях и удалениях")
+    void randomOperationsTest() {
+        IntHashSet set = new IntHashSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(1, 2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(key), set.add(key), "Неверный результат добавления");
+            } else {
+                assertEquals(expected.remove(key), set.remove(key), "Неверный результат удаления");
+            }
+        }
+        assertEquals(expected.size(), set.size(), "Неверный размер множества");
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toSortedArray(),
+                "Неверное содержимое множества");
+        for (int key = 1; key < 2_000; key++) {
+            assertEquals(expected.contains(key), set.contains(key), "Неверный результат поиска");
+        }
+    }
+}
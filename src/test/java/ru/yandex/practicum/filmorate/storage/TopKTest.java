@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+    @Test
+    @DisplayName("Проверка отбора лучших Id на случайных оценках, слиянии куч и пустой ёмкости")
+    void randomScoresTest() {
+        Random random = new Random(42);
+        int[] scores = new int[5_000];
+        TopK left = new TopK(100);
+        TopK right = new TopK(100);
+        for (int id = 0; id < scores.length; id++) {
+            scores[id] = random.nextInt(50);
+            (id % 2 == 0 ? left : right).offer(scores[id], id);
+        }
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.<Integer>comparingInt(id -> -scores[id]).thenComparingInt(id -> id))
+                .limit(100)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] ranked = left.merge(right).toRanked();
+        assertArrayEquals(expected, left.toIds(), "Неверный отбор лучших Id");
+        for (int i = 0; i < ranked.length; i++) {
+            assertEquals(expected[i], TopK.idOf(ranked[i]), "Неверный Id ранга");
+            assertEquals(scores[expected[i]], TopK.scoreOf(ranked[i]), "Неверная оценка ранга");
+        }
+
+        TopK empty = new TopK(0);
+        empty.offer(1, 1);
+        assertEquals(0, empty.toIds().length, "Куча нулевой ёмкости должна оставаться пустой");
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeIndex;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.persistence.FileJournal;
+import ru.yandex.practicum.filmorate.storage.persistence.FilmCodec;
+import ru.yandex.practicum.filmorate.storage.persistence.UserCodec;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningTest {
+    private static final int TASKS = 2_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Проверка, что операции хранилищ в виртуальных потоках не блокируют поток-носитель")
+    void noPinningTest() throws Exception {
+        ConcurrentLinkedQueue<String> pinnedStacks = new ConcurrentLinkedQueue<>();
+        try (RecordingStream recording = new RecordingStream();
+             FileJournal<Film> filmJournal = new FileJournal<>(directory, "films", new FilmCodec(), true);
+             FileJournal<User> userJournal = new FileJournal<>(directory, "users", new UserCodec(), true)) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinnedStacks.add(stackOf(event)));
+            recording.startAsync();
+
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(filmJournal,
+                    List.of(new FilmSearchIndex(), new FilmRangeIndex()));
+            InMemoryUserStorage userStorage = new InMemoryUserStorage(userJournal);
+            InMemoryLikeStorage likeStorage = new InMemoryLikeStorage();
+            InMemoryFriendStorage friendStorage = new InMemoryFriendStorage();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++) {
+                    int number = i;
+                    futures.add(executor.submit(() -> {
+                        Film film = filmStorage.create(new Film("Фильм " + number, "Описание",
+                                LocalDate.of(2000, 10, 10), 120));
+                        User user = userStorage.create(new User("user" + number + "@ex.ru", "user" + number,
+                                LocalDate.of(2000, 10, 10)));
+                        likeStorage.addLike(film.getId(), user.getId());
+                        if (user.getId() > 1) {
+                            int other = ThreadLocalRandom.current().nextInt(1, user.getId());
+                            likeStorage.addLike(other, user.getId());
+                            friendStorage.addFriend(user.getId(), other);
+                        }
+                        film.setName("Обновлённый фильм " + number);
+                        filmStorage.update(film);
+                        likeStorage.findSimilarUsers(user.getId(), 10);
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            recording.stop();
+        }
+        assertTrue(pinnedStacks.isEmpty(),
+                "Виртуальные потоки заблокировали поток-носитель:\n" + String.join("\n\n", pinnedStacks));
+    }
+
+    private static String stackOf(RecordedEvent event) {
+        return event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(12)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .reduce((a, b) -> a + "\n  " + b)
+                .orElse("");
+    }
+}
@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmRangeIndexTest {
+    @Test
+    @DisplayName("Проверка поиска по диапазонам на случайных фильмах и изменениях")
+    void randomRangesTest() {
+        FilmRangeIndex rangeIndex = new FilmRangeIndex();
+        Map<Integer, Film> films = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            Film film = new Film("Фильм", "Описание", LocalDate.of(1895 + random.nextInt(130), 1, 1)
+                    .plusDays(random.nextInt(365)), random.nextInt(1, 300));
+            film.setId(random.nextInt(1, 5_000));
+            films.put(film.getId(), film);
+            rangeIndex.put(film);
+        }
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = random.nextBoolean() ? null : LocalDate.of(1895 + random.nextInt(130), 1, 1);
+            LocalDate to = random.nextBoolean() ? null : LocalDate.of(1895 + random.nextInt(130), 12, 31);
+            Integer minDuration = random.nextBoolean() ? null : random.nextInt(300);
+            Integer maxDuration = from == null && to == null || random.nextBoolean() ? random.nextInt(300) : null;
+            int[] expected = films.values().stream()
+                    .filter(film -> from == null || !film.getReleaseDate().isBefore(from))
+                    .filter(film -> to == null || !film.getReleaseDate().isAfter(to))
+                    .filter(film -> minDuration == null || film.getDuration() >= minDuration)
+                    .filter(film -> maxDuration == null || film.getDuration() <= maxDuration)
+                    .mapToInt(Film::getId)
+                    .sorted()
+                    .toArray();
+            assertArrayEquals(expected, rangeIndex.findIds(from, to, minDuration, maxDuration, 0, Integer.MAX_VALUE),
+                    "Неверный результат поиска по диапазонам");
+            int limit = random.nextInt(1, 50);
+            int afterId = 0;
+            for (int start = 0; start < expected.length; start += limit) {
+                int[] page = rangeIndex.findIds(from, to, minDuration, maxDuration, afterId, limit);
+                assertArrayEquals(Arrays.copyOfRange(expected, start, Math.min(start + limit, expected.length)), page,
+                        "Неверная страница поиска по диапазонам");
+                afterId = page[page.length - 1];
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> rangeIndex.findIds(null, null, null, null, 0, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmSearchIndexTest {
+    @Test
+    @DisplayName("Проверка разбиения текста на слова")
+    void tokenizeTest() {
+        assertArrayEquals(new String[]{"ежик", "в", "тумане", "1975", "hedgehog"},
+                FilmSearchIndex.tokenize("«Ёжик в ТУМАНЕ» (1975) — Hedgehog, ёжик"), "Неверное разбиение на слова");
+        assertEquals(0, FilmSearchIndex.tokenize(" -- ").length, "В тексте без букв не должно быть слов");
+    }
+
+    @Test
+    @DisplayName("Проверка, что фильм из снимка не перезаписывает более новое состояние в индексе")
+    void putIfAbsentTest() {
+        FilmSearchIndex searchIndex = new FilmSearchIndex();
+        searchIndex.put(newFilm(1, "Сталкер"));
+        searchIndex.putIfAbsent(newFilm(1, "Зеркало"));
+        searchIndex.putIfAbsent(newFilm(2, "Зеркало"));
+        assertArrayEquals(new int[]{1}, searchIndex.search("сталкер", 10), "Новое состояние фильма потеряно");
+        assertArrayEquals(new int[]{2}, searchIndex.search("зеркало", 10), "Фильм из снимка не проиндексирован");
+    }
+
+    @Test
+    @DisplayName("Проверка поиска по началу слова и ограничения количества результатов")
+    void prefixSearchTest() {
+        FilmSearchIndex searchIndex = new FilmSearchIndex();
+        for (int id = 1; id <= 100; id++) {
+            searchIndex.put(newFilm(id, "Серия" + id));
+        }
+        assertArrayEquals(new int[]{1, 2, 3}, searchIndex.search("сер", 3), "Неверный порядок результатов");
+        assertEquals(FilmSearchIndex.MAX_EXPANSIONS, searchIndex.search("серия", 100).length,
+                "Начало слова должно раскрываться в ограниченное число слов");
+        assertArrayEquals(new int[]{7}, searchIndex.search("серия7", 1), "Полное совпадение должно быть выше");
+        assertEquals(11, searchIndex.search("серия7", Integer.MAX_VALUE).length,
+                "Большой лимит должен ограничиваться числом найденных фильмов");
+    }
+
+    private static Film newFilm(int id, String name) {
+        Film film = new Film(name, "Описание", LocalDate.of(1979, 5, 25), 160);
+        film.setId(id);
+        return film;
+    }
+}
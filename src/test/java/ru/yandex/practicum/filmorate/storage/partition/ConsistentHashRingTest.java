@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+    private static final int IDS = 100_000;
+
+    @Test
+    @DisplayName("Проверка равномерного распределения Id по шардам")
+    void balanceTest() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 128);
+        int[] counts = new int[4];
+        for (int id = 1; id <= IDS; id++) {
+            counts[ring.shardOf(id)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > IDS * 0.15 && count < IDS * 0.35, "Шарды заполнены неравномерно: " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка, что при добавлении шарда Id переходят только в новый шард")
+    void addShardTest() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 128);
+        ConsistentHashRing extended = new ConsistentHashRing(5, 128);
+        int moved = 0;
+        for (int id = 1; id <= IDS; id++) {
+            int shard = extended.shardOf(id);
+            if (shard != ring.shardOf(id)) {
+                assertEquals(4, shard, "Id перешёл между старыми шардами");
+                moved++;
+            }
+        }
+        assertTrue(moved > IDS * 0.1 && moved < IDS * 0.3, "В новый шард перешло " + moved + " Id");
+    }
+}
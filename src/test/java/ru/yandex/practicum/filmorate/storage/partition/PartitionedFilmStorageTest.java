@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.ConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmRangeIndex;
+import ru.yandex.practicum.filmorate.storage.index.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedFilmStorageTest {
+    private static final String[] WORDS = {"Сталкер", "Солярис", "Зеркало", "Ностальгия", "Жертвоприношение"};
+
+    private PartitionedFilmStorage partitionedStorage;
+    private InMemoryFilmStorage singleStorage;
+    private FilmSearchIndex searchIndex;
+    private FilmRangeIndex rangeIndex;
+
+    @BeforeEach
+    void createStorages() {
+        List<FilmShard> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shards.add(new LocalFilmShard(Journal.none()));
+        }
+        partitionedStorage = new PartitionedFilmStorage(shards, 128, false);
+        searchIndex = new FilmSearchIndex();
+        rangeIndex = new FilmRangeIndex();
+        singleStorage = new InMemoryFilmStorage(Journal.none(), List.of(searchIndex, rangeIndex));
+    }
+
+    @AfterEach
+    void closeStorage() {
+        partitionedStorage.close();
+    }
+
+    @Test
+    @DisplayName("Проверка, что хранилище из шардов отвечает так же, как одно хранилище")
+    void sameResultsAsSingleStorageTest() {
+        Random random = new Random(42);
+        List<Film> films = new ArrayList<>();
+        List<Film> copies = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Film film = new Film(WORDS[random.nextInt(WORDS.length)] + " " + i,
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+                    LocalDate.of(1960 + random.nextInt(60), 1 + random.nextInt(12), 1), 60 + random.nextInt(120));
+            films.add(film);
+            copies.add(film.copy());
+        }
+        partitionedStorage.createAll(films.subList(0, 1000));
+        singleStorage.createAll(copies.subList(0, 1000));
+        for (int i = 1000; i < films.size(); i++) {
+            partitionedStorage.create(films.get(i));
+            singleStorage.create(copies.get(i));
+        }
+
+        assertEquals(singleStorage.size(), partitionedStorage.size(), "Неверное число фильмов");
+        assertEquals(List.copyOf(singleStorage.findAll()), List.copyOf(partitionedStorage.findAll()),
+                "Список фильмов отличается");
+        assertEquals(singleStorage.findPage(500, 100), partitionedStorage.findPage(500, 100),
+                "Страница фильмов отличается");
+        assertEquals(List.of(), partitionedStorage.findPage(2000, 100), "Страница после последнего фильма не пуста");
+        assertArrayEquals(searchIndex.search("солярис зерк", 50), partitionedStorage.search("солярис зерк", 50),
+                "Результаты поиска отличаются");
+        assertArrayEquals(rangeIndex.findIds(LocalDate.of(1970, 1, 1), LocalDate.of(1980, 1, 1), 90, null, 0, 1000),
+                partitionedStorage.findIds(LocalDate.of(1970, 1, 1), LocalDate.of(1980, 1, 1), 90, null, 0, 1000),
+                "Выборка по промежуткам отличается");
+        assertArrayEquals(rangeIndex.findIds(LocalDate.of(1970, 1, 1), null, 90, null, 500, 20),
+                partitionedStorage.findIds(LocalDate.of(1970, 1, 1), null, 90, null, 500, 20),
+                "Страница выборки по промежуткам отличается");
+        assertTrue(IntStream.rangeClosed(1, 2000).map(partitionedStorage::shardIndexOf).distinct().count() == 4,
+                "Фильмы должны попасть во все шарды");
+    }
+
+    @Test
+    @DisplayName("Проверка изменения фильма в его шарде с проверкой версии")
+    void versionedUpdateTest() {
+        Film film = partitionedStorage.create(new Film("Сталкер", "Описание", LocalDate.of(1979, 5, 25), 160));
+        long version = partitionedStorage.version();
+        Film updated = partitionedStorage.update(film.getId(), 1, current -> {
+            current.setName("Солярис");
+            return current;
+        }).orElseThrow();
+        assertEquals(2, updated.getVersion(), "Версия фильма не увеличена");
+        assertEquals(version + 1, partitionedStorage.version(), "Версия хранилища не увеличена");
+        assertThrows(ConflictException.class, () -> partitionedStorage.update(film.getId(), 1, current -> current));
+        assertArrayEquals(new int[]{film.getId()}, partitionedStorage.search("солярис", 10),
+                "Изменение не попало в индекс шарда");
+        assertTrue(partitionedStorage.update(film.getId() + 1, FilmStorage.ANY_VERSION, current -> current)
+                .isEmpty(), "Несуществующий фильм не должен изменяться");
+    }
+}
@@ -0,0 +1,131 @@
+package ru.yandex.practicum.filmorate.storage.partition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+import ru.yandex.practicum.filmorate.storage.persistence.Journal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedUserStorageTest {
+    private PartitionedUserStorage userStorage;
+
+    @BeforeEach
+    void createUserStorage() {
+        List<UserShard> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shards.add(new LocalUserShard(Journal.none()));
+        }
+        userStorage = new PartitionedUserStorage(shards, 128, false);
+    }
+
+    @AfterEach
+    void closeStorage() {
+        userStorage.close();
+    }
+
+    @Test
+    @DisplayName("Проверка уникальности Email пользователей из разных шардов")
+    void emailUniqueAcrossShardsTest() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(newUser("user" + i + "@ex.ru"));
+        }
+        users.add(newUser("USER0@ex.ru"));
+        assertEquals(20, userStorage.createAll(users).size(), "Пользователь с занятым Email добавлен");
+        assertEquals(0, users.get(20).getId(), "Id пользователя с занятым Email должен быть 0");
+
+        User first = userStorage.findByEmail("user0@ex.ru").orElseThrow();
+        User other = users.stream()
+                .filter(user -> userStorage.shardIndexOf(user.getId()) != userStorage.shardIndexOf(first.getId()))
+                .findFirst().orElseThrow();
+        assertThrows(ValidationException.class, () -> userStorage.update(other.getId(), UserStorage.ANY_VERSION,
+                user -> {
+                    user.setEmail("User0@ex.ru");
+                    return user;
+                }));
+        assertEquals(other.getEmail(), userStorage.findById(other.getId()).orElseThrow().getEmail(),
+                "Email не должен измениться");
+
+        userStorage.update(first.getId(), UserStorage.ANY_VERSION, user -> {
+            user.setEmail("new@ex.ru");
+            return user;
+        });
+        assertTrue(userStorage.findByEmail("user0@ex.ru").isEmpty(), "Прежний Email не освобождён");
+        User moved = userStorage.update(other.getId(), UserStorage.ANY_VERSION, user -> {
+            user.setEmail("user0@ex.ru");
+            return user;
+        }).orElseThrow();
+        assertEquals(moved, userStorage.findByEmail("USER0@ex.ru").orElseThrow(), "Освобождённый Email не занят");
+        assertThrows(ValidationException.class, () -> userStorage.create(newUser("new@ex.ru")));
+    }
+
+    @Test
+    @DisplayName("Проверка освобождения Email, если шард не сохранил пользователей")
+    void failedShardReleasesEmailsTest() {
+        List<UserShard> shards = new ArrayList<>();
+        shards.add(new LocalUserShard(Journal.none()));
+        shards.add(new LocalUserShard(Journal.none()) {
+            @Override
+            public void insertAll(List<User> users) {
+                throw new IllegalStateException("Узел недоступен.");
+            }
+        });
+        try (PartitionedUserStorage storage = new PartitionedUserStorage(shards, 128, false)) {
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                users.add(newUser("user" + i + "@ex.ru"));
+            }
+            assertThrows(IllegalStateException.class, () -> storage.createAll(users));
+            for (User user : users) {
+                if (storage.shardIndexOf(user.getId()) == 0) {
+                    assertTrue(storage.findByEmail(user.getEmail()).isPresent(), "Пользователь не сохранён");
+                    assertThrows(ValidationException.class, () -> storage.create(newUser(user.getEmail())));
+                } else {
+                    try {
+                        storage.create(newUser(user.getEmail()));
+                    } catch (IllegalStateException e) {
+                        assertTrue(storage.findByEmail(user.getEmail()).isEmpty(), "Email не освобождён");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка запуска маршрутизатора без чтения всех пользователей шардов")
+    void restartWithoutScanTest() {
+        List<UserShard> shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(new LocalUserShard(Journal.none()) {
+                @Override
+                public Collection<User> findAll() {
+                    throw new AssertionError("Шард не должен читаться целиком");
+                }
+            });
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(newUser("user" + i + "@ex.ru"));
+        }
+        new PartitionedUserStorage(shards, 128, false).createAll(users);
+
+        PartitionedUserStorage restarted = new PartitionedUserStorage(shards, 128, false);
+        assertEquals(users.get(3), restarted.findByEmail("USER3@ex.ru").orElseThrow(), "Пользователь не найден");
+        assertEquals(11, restarted.create(newUser("user10@ex.ru")).getId(), "Id должен продолжать наибольший");
+        assertThrows(ValidationException.class, () -> restarted.create(newUser("user5@ex.ru")));
+    }
+
+    private static User newUser(String email) {
+        return new User(email, "login", LocalDate.of(2000, 10, 10));
+    }
+}
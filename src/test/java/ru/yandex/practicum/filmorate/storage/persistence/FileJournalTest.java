@@ -0,0 +1,124 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Проверка восстановления фильмов из журнала после перезапуска")
+    void replayFilmsTest() throws IOException {
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            filmStorage.create(newFilm("Фильм 1"));
+            filmStorage.create(newFilm("Фильм 2"));
+            Film updatedFilm = newFilm("Обновлённый фильм 1");
+            updatedFilm.setId(1);
+            filmStorage.update(updatedFilm);
+        }
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            assertEquals(2, filmStorage.size(), "Фильмы не восстановлены");
+            assertEquals("Обновлённый фильм 1", filmStorage.findById(1).orElseThrow().getName(),
+                    "Обновление фильма не восстановлено");
+            assertEquals(3, filmStorage.create(newFilm("Фильм 3")).getId(), "Нумерация Id должна продолжиться");
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка восстановления пользователей и индекса Email из снимка и журнала")
+    void replayUsersFromSnapshotTest() throws IOException {
+        try (FileJournal<User> journal = newUserJournal()) {
+            InMemoryUserStorage userStorage = new InMemoryUserStorage(journal);
+            userStorage.create(new User("first@ex.ru", "first", LocalDate.of(2000, 10, 10)));
+            userStorage.create(new User("second@ex.ru", "second", LocalDate.of(2000, 10, 10)));
+            journal.snapshot(userStorage.findAll());
+            User updatedUser = new User("changed@ex.ru", "first", LocalDate.of(2000, 10, 10));
+            updatedUser.setId(1);
+            userStorage.update(updatedUser);
+        }
+        try (FileJournal<User> journal = newUserJournal()) {
+            InMemoryUserStorage userStorage = new InMemoryUserStorage(journal);
+            assertEquals(2, userStorage.size(), "Пользователи не восстановлены");
+            assertTrue(userStorage.findByEmail("first@ex.ru").isEmpty(), "Старый Email должен освободиться");
+            assertEquals(1, userStorage.findByEmail("changed@ex.ru").orElseThrow().getId(),
+                    "Новый Email не восстановлен");
+            assertEquals("second", userStorage.findById(2).orElseThrow().getLogin(), "Логин не восстановлен");
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка отбрасывания недописанной записи в конце журнала")
+    void replayTornTailTest() throws IOException {
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            filmStorage.create(newFilm("Фильм 1"));
+            filmStorage.create(newFilm("Фильм 2"));
+        }
+        Path log = directory.resolve("films.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            assertEquals(1, filmStorage.size(), "Должна восстановиться только целая запись");
+            filmStorage.create(newFilm("Фильм 3"));
+        }
+        List<Film> films = new ArrayList<>();
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            journal.replay(films::add);
+        }
+        assertEquals(List.of("Фильм 1", "Фильм 3"), films.stream().map(Film::getName).toList(),
+                "Новые записи должны дописываться после последней целой записи");
+    }
+
+    @Test
+    @DisplayName("Проверка восстановления после сбоя во время записи снимка")
+    void replayAfterInterruptedSnapshotTest() throws IOException {
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            filmStorage.create(newFilm("Фильм 1"));
+            filmStorage.create(newFilm("Фильм 2"));
+        }
+        Files.move(directory.resolve("films.log"), directory.resolve("films.log.previous"));
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            assertEquals(2, filmStorage.size(), "Отложенный журнал не прочитан");
+            filmStorage.create(newFilm("Фильм 3"));
+        }
+        assertFalse(Files.exists(directory.resolve("films.log.previous")), "Журналы должны быть склеены");
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            assertEquals(3, new InMemoryFilmStorage(journal).size(), "Часть фильмов потеряна");
+        }
+    }
+
+    private FileJournal<Film> newFilmJournal() {
+        return new FileJournal<>(directory, "films", new FilmCodec(), true);
+    }
+
+    private FileJournal<User> newUserJournal() {
+        return new FileJournal<>(directory, "users", new UserCodec(), true);
+    }
+
+    private Film newFilm(String name) {
+        return new Film(name, "Описание фильма", LocalDate.of(2000, 10, 10), 120);
+    }
+}
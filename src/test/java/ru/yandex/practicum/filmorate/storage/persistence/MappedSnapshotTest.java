@@ -0,0 +1,124 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedSnapshotTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Проверка чтения записей снимка по Id")
+    void getByIdTest() throws IOException {
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            journal.replay(film -> { });
+            journal.snapshot(List.of(newFilm(2, "Фильм 2"), newFilm(5, "Фильм 5"), newFilm(9, "Фильм 9")));
+        }
+        MappedSnapshot<Film> snapshot = MappedSnapshot.open(directory.resolve("films.snapshot"), new FilmCodec());
+        assertEquals(3, snapshot.size(), "Неверное количество записей");
+        assertEquals(9, snapshot.maxId(), "Неверный наибольший Id");
+        assertEquals("Фильм 5", snapshot.get(5).getName(), "Запись не найдена");
+        assertNull(snapshot.get(1), "Записи с Id меньше наименьшего нет в снимке");
+        assertNull(snapshot.get(6), "Записи с Id 6 нет в снимке");
+        assertNull(snapshot.get(10), "Записи с Id больше наибольшего нет в снимке");
+        assertTrue(snapshot.contains(9), "Запись не найдена по индексу");
+        assertFalse(snapshot.contains(6), "Записи с Id 6 нет в индексе");
+        List<Integer> ids = new ArrayList<>();
+        snapshot.forEach(film -> ids.add(film.getId()));
+        assertEquals(List.of(2, 5, 9), ids, "Записи должны перебираться по возрастанию Id");
+    }
+
+    @Test
+    @DisplayName("Проверка отказа записывать снимок с записями не по порядку Id")
+    void rejectUnorderedRecordsTest() throws IOException {
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            journal.replay(film -> { });
+            assertThrows(IllegalArgumentException.class,
+                    () -> journal.snapshot(List.of(newFilm(5, "Фильм 5"), newFilm(2, "Фильм 2"))),
+                    "Снимок с записями не по порядку Id не должен записываться");
+        }
+        assertFalse(Files.exists(directory.resolve("films.snapshot")), "Неполный снимок не должен появиться");
+    }
+
+    @Test
+    @DisplayName("Проверка ленивой загрузки фильмов из снимка при запуске")
+    void lazyLoadTest() throws IOException {
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            for (int i = 1; i <= 100; i++) {
+                filmStorage.create(newFilm(0, "Фильм " + i));
+            }
+            journal.snapshot(filmStorage.findAll());
+            Film updatedFilm = newFilm(7, "Обновлённый фильм 7");
+            filmStorage.update(updatedFilm);
+        }
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            assertEquals(1, filmStorage.getFilms().size(), "При запуске должен загружаться только журнал");
+            assertEquals(100, filmStorage.size(), "Фильм из журнала и снимка должен считаться один раз");
+            assertEquals("Фильм 50", filmStorage.findById(50).orElseThrow().getName(), "Фильм не найден в снимке");
+            assertEquals("Обновлённый фильм 7", filmStorage.findById(7).orElseThrow().getName(),
+                    "Запись журнала должна быть новее записи снимка");
+            assertEquals(2, filmStorage.getFilms().size(), "В память должен попасть только запрошенный фильм");
+            assertEquals(101, filmStorage.create(newFilm(0, "Фильм 101")).getId(),
+                    "Нумерация Id должна продолжиться после снимка");
+            assertEquals(101, filmStorage.size(), "Неверное количество фильмов");
+            assertEquals(101, filmStorage.findAll().size(), "Фильмы снимка не загружены полностью");
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка снимка без загрузки прошлого снимка в память и пропуска снимка без изменений")
+    void snapshotWithoutLoadTest() throws IOException {
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            for (int i = 1; i <= 100; i++) {
+                filmStorage.create(newFilm(0, "Фильм " + i));
+            }
+            filmStorage.snapshot();
+            filmStorage.update(newFilm(7, "Обновлённый фильм 7"));
+        }
+        Path snapshotPath = directory.resolve("films.snapshot");
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            filmStorage.findById(50);
+            filmStorage.snapshot();
+            assertEquals(2, filmStorage.getFilms().size(), "Снимок не должен загружать прошлый снимок в память");
+            Object fileKey = Files.readAttributes(snapshotPath, BasicFileAttributes.class).fileKey();
+            filmStorage.snapshot();
+            assertEquals(fileKey, Files.readAttributes(snapshotPath, BasicFileAttributes.class).fileKey(),
+                    "Снимок без изменений не должен перезаписываться");
+        }
+        try (FileJournal<Film> journal = newFilmJournal()) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+            assertEquals(0, filmStorage.getFilms().size(), "Журнал должен быть пуст после снимка");
+            assertEquals(100, filmStorage.size(), "Неверное количество фильмов в снимке");
+            assertEquals("Обновлённый фильм 7", filmStorage.findById(7).orElseThrow().getName(),
+                    "Изменение из журнала не попало в снимок");
+            assertEquals("Фильм 100", filmStorage.findById(100).orElseThrow().getName(), "Фильм не найден в снимке");
+        }
+    }
+
+    private FileJournal<Film> newFilmJournal() {
+        return new FileJournal<>(directory, "films", new FilmCodec(), true);
+    }
+
+    private Film newFilm(int id, String name) {
+        Film film = new Film(name, "Описание фильма", LocalDate.of(2000, 10, 10), 120);
+        film.setId(id);
+        return film;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityValidatorTest {
+    private final EntityValidator fastValidator = new FastEntityValidator();
+    private final EntityValidator beanValidator =
+            new BeanEntityValidator(Validation.buildDefaultValidatorFactory().getValidator());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"user@ex.ru", "first.last-name_1@mail.example.com", "a@b.cd", "a@b.abcd", "a@b.abcde",
+            "a@b.c", "@ex.ru", "user@.ru", "user@ex..ru", "user@ex", "user@ex.", "us er@ex.ru", "user@ex.r u",
+            "user@@ex.ru", "user@ex.ru@ex.ru", "пользователь@ex.ru", "user@ex.рф", ".@-.--", "user@ex.ru\n"})
+    @DisplayName("Проверка совпадения проверок Email с аннотацией модели")
+    void emailTest(String email) {
+        User user = new User(email, "login", LocalDate.of(2000, 10, 10));
+        assertEquals(beanValidator.validate(user), fastValidator.validate(user), "Проверки Email расходятся");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"login", "", " ", "lo gin", "login\t", "\u00A0", "логин", "\u2003login"})
+    @DisplayName("Проверка совпадения проверок логина с аннотациями модели")
+    void loginTest(String login) {
+        User user = new User("user@ex.ru", login, LocalDate.of(2000, 10, 10));
+        assertEquals(beanValidator.validate(user), fastValidator.validate(user), "Проверки логина расходятся");
+    }
+
+    @Test
+    @DisplayName("Проверка совпадения проверок фильма с аннотациями модели и датой релиза")
+    void filmTest() {
+        Film[] films = {
+                new Film("Фильм", "Описание фильма", LocalDate.of(2000, 10, 10), 120),
+                new Film(" ", "Описание фильма", LocalDate.of(2000, 10, 10), 120),
+                new Film("Фильм", "a".repeat(200), LocalDate.of(2000, 10, 10), 120),
+                new Film("Фильм", "a".repeat(201), LocalDate.of(2000, 10, 10), 120),
+                new Film("Фильм", "Описание фильма", LocalDate.of(2000, 10, 10), 0),
+                new Film("Фильм", "Описание фильма", LocalDate.of(1895, 12, 28), 120),
+                new Film("Фильм", "Описание фильма", LocalDate.of(1895, 12, 27), 120)
+        };
+        for (Film film : films) {
+            assertEquals(beanValidator.validate(film), fastValidator.validate(film), "Проверки фильма расходятся");
+        }
+        assertEquals("Дата релиза не раньше 28 DECEMBER 1895 года.", fastValidator.validate(films[6]),
+                "Некорректная ошибка");
+    }
+
+    @Test
+    @DisplayName("Проверка совпадения проверок дня рождения с аннотацией модели")
+    void birthdayTest() {
+        for (LocalDate birthday : new LocalDate[]{LocalDate.now().minusDays(1), LocalDate.now(),
+                LocalDate.now().plusDays(1)}) {
+            User user = new User("user@ex.ru", "login", birthday);
+            assertEquals(beanValidator.validate(user), fastValidator.validate(user), "Проверки дня рождения расходятся");
+        }
+    }
+}